@@ -23,6 +23,8 @@ import org.bitcoinj.params.AbstractBitcoinNetParams;
 
 import uk.co.chrisjenx.calligraphy.CalligraphyConfig;
 
+import java.io.File;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -43,6 +45,7 @@ import piuk.blockchain.android.util.ApplicationLifeCycle;
 import piuk.blockchain.android.util.PrefsUtil;
 import piuk.blockchain.android.util.annotations.Thunk;
 import piuk.blockchain.android.util.exceptions.LoggingExceptionHandler;
+import piuk.blockchain.android.util.tracing.Tracer;
 import retrofit2.Retrofit;
 import timber.log.Timber;
 
@@ -53,6 +56,7 @@ import timber.log.Timber;
 public class BlockchainApplication extends Application implements FrameworkInterface {
 
     public static final String RX_ERROR_TAG = "RxJava Error";
+    private static final String LAUNCH_TRACE_FILE = "launch_trace.json";
 
     @Inject
     @Named("api")
@@ -87,20 +91,30 @@ public class BlockchainApplication extends Application implements FrameworkInter
     @Override
     public void onCreate() {
         super.onCreate();
+        // Only debug builds write the launch trace to disk
+        Tracer.startLaunch(BuildConfig.DEBUG ? new File(getCacheDir(), LAUNCH_TRACE_FILE) : null);
+        int onCreateSpan = Tracer.begin("Application.onCreate");
+
         if (BuildConfig.USE_CRASHLYTICS) {
             // Init crash reporting
+            int crashlyticsSpan = Tracer.begin("crashlytics");
             Fabric.with(this, new Crashlytics(), new Answers());
+            Tracer.end(crashlyticsSpan);
         }
         // Init Timber
         if (BuildConfig.DEBUG) {
             Timber.plant(new Timber.DebugTree());
         }
         // Init objects first
+        int injectorSpan = Tracer.begin("dagger");
         Injector.getInstance().init(this);
         // Inject into Application
         Injector.getInstance().getAppComponent().inject(this);
+        Tracer.end(injectorSpan);
         // Pass objects to JAR
+        int frameworkSpan = Tracer.begin("BlockchainFramework.init");
         BlockchainFramework.init(this);
+        Tracer.end(frameworkSpan);
 
         new LoggingExceptionHandler();
 
@@ -110,11 +124,15 @@ public class BlockchainApplication extends Application implements FrameworkInter
         CurrencyState.getInstance().init(prefsUtil);
 
         // Apply PRNG fixes on app start if needed
+        int prngSpan = Tracer.begin("applyPRNGFixes");
         appUtil.applyPRNGFixes();
+        Tracer.end(prngSpan);
 
         ConnectivityManager.getInstance().registerNetworkListener(this);
 
+        int securityProviderSpan = Tracer.begin("checkSecurityProvider");
         checkSecurityProviderAndPatchIfNeeded();
+        Tracer.end(securityProviderSpan);
 
         AppCompatDelegate.setCompatVectorFromResourcesEnabled(true);
 
@@ -134,6 +152,8 @@ public class BlockchainApplication extends Application implements FrameworkInter
 
         // Report Google Play Services availability
         Logging.INSTANCE.logCustom(new AppLaunchEvent(isGooglePlayServicesAvailable(this)));
+
+        Tracer.end(onCreateSpan);
     }
 
     // Pass instances to JAR Framework, evaluate after object graph instantiated fully
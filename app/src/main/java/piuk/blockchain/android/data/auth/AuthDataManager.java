@@ -26,6 +26,7 @@ import piuk.blockchain.android.util.AESUtilWrapper;
 import piuk.blockchain.android.util.AppUtil;
 import piuk.blockchain.android.util.PrefsUtil;
 import piuk.blockchain.android.util.annotations.Thunk;
+import piuk.blockchain.android.util.tracing.Tracer;
 import retrofit2.Response;
 
 public class AuthDataManager {
@@ -157,8 +158,9 @@ public class AuthDataManager {
      * @return An {@link Observable} where the wrapped String is the user's decrypted password
      */
     public Observable<String> validatePin(String passedPin) {
-        return rxPinning.call(() -> getValidatePinObservable(passedPin))
-                .compose(RxUtil.applySchedulersToObservable());
+        return Tracer.trace("validatePin",
+                rxPinning.call(() -> getValidatePinObservable(passedPin))
+                        .compose(RxUtil.applySchedulersToObservable()));
     }
 
     /**
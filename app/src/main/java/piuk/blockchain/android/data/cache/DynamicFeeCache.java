@@ -4,30 +4,136 @@ import android.support.annotation.Nullable;
 
 import info.blockchain.wallet.api.data.FeeOptions;
 
+import java.util.concurrent.TimeUnit;
+
+import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
+
+/**
+ * Holds the most recent BTC and ETH {@link FeeOptions} along with the time they were fetched.
+ * Fee options younger than the max age are served directly, and concurrent requests for stale
+ * fee options are merged into a single in-flight request.
+ */
 public class DynamicFeeCache {
 
-    private FeeOptions btcFeeOptions;
-    private FeeOptions ethFeeOptions;
+    private static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final long maxAgeMillis;
+    private final Entry btcEntry = new Entry();
+    private final Entry ethEntry = new Entry();
 
     public DynamicFeeCache() {
-        // No-op
+        this(DEFAULT_MAX_AGE_MILLIS);
+    }
+
+    public DynamicFeeCache(long maxAgeMillis) {
+        this.maxAgeMillis = maxAgeMillis;
     }
 
     @Nullable
     public FeeOptions getBtcFeeOptions() {
-        return btcFeeOptions;
+        return btcEntry.feeOptions;
     }
 
     public void setBtcFeeOptions(FeeOptions btcFeeOptions) {
-        this.btcFeeOptions = btcFeeOptions;
+        btcEntry.set(btcFeeOptions);
     }
 
     @Nullable
     public FeeOptions getEthFeeOptions() {
-        return ethFeeOptions;
+        return ethEntry.feeOptions;
     }
 
     public void setEthFeeOptions(FeeOptions ethFeeOptions) {
-        this.ethFeeOptions = ethFeeOptions;
+        ethEntry.set(ethFeeOptions);
+    }
+
+    /**
+     * Returns true if there are no BTC fee options cached or if they are older than the max age.
+     */
+    public boolean isBtcFeeOptionsStale() {
+        return btcEntry.isStale();
+    }
+
+    /**
+     * Returns true if there are no ETH fee options cached or if they are older than the max age.
+     */
+    public boolean isEthFeeOptionsStale() {
+        return ethEntry.isStale();
+    }
+
+    /**
+     * Returns the cached BTC {@link FeeOptions} if fresh, otherwise subscribes to the supplied
+     * web source and caches the result. If a request is already in flight it is shared.
+     *
+     * @param webSource An {@link Observable} which fetches BTC fee options from the server
+     */
+    public Observable<FeeOptions> fetchBtcFeeOptions(Observable<FeeOptions> webSource) {
+        return btcEntry.fetch(webSource);
+    }
+
+    /**
+     * Returns the cached ETH {@link FeeOptions} if fresh, otherwise subscribes to the supplied
+     * web source and caches the result. If a request is already in flight it is shared.
+     *
+     * @param webSource An {@link Observable} which fetches ETH fee options from the server
+     */
+    public Observable<FeeOptions> fetchEthFeeOptions(Observable<FeeOptions> webSource) {
+        return ethEntry.fetch(webSource);
+    }
+
+    /**
+     * Marks all cached fee options as stale, so that the next fetch goes to the server. The
+     * existing values are kept so that they can still be shown in the meantime.
+     */
+    public void invalidate() {
+        btcEntry.invalidate();
+        ethEntry.invalidate();
+    }
+
+    private static long now() {
+        return Schedulers.computation().now(TimeUnit.MILLISECONDS);
+    }
+
+    private class Entry {
+
+        private volatile FeeOptions feeOptions;
+        private volatile long lastUpdated;
+        private volatile boolean invalidated;
+        private Observable<FeeOptions> request;
+
+        void set(FeeOptions feeOptions) {
+            this.feeOptions = feeOptions;
+            lastUpdated = now();
+            invalidated = false;
+        }
+
+        boolean isStale() {
+            return feeOptions == null || invalidated || now() - lastUpdated > maxAgeMillis;
+        }
+
+        void invalidate() {
+            invalidated = true;
+        }
+
+        synchronized Observable<FeeOptions> fetch(Observable<FeeOptions> webSource) {
+            if (!isStale()) {
+                return Observable.just(feeOptions);
+            }
+
+            if (request == null) {
+                request = webSource.doOnNext(this::set)
+                        .doFinally(this::clearRequest)
+                        .replay(1)
+                        .refCount();
+            }
+            return request;
+        }
+
+        private synchronized void clearRequest() {
+            request = null;
+        }
+
     }
+
 }
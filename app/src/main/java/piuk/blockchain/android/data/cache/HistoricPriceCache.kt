@@ -0,0 +1,147 @@
+package piuk.blockchain.android.data.cache
+
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.util.annotations.Mockable
+import timber.log.Timber
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.io.IOException
+
+/**
+ * A persistent cache of historic prices, keyed by cryptocurrency, fiat currency and a time bucket
+ * of [BUCKET_SECONDS]. Historic prices never change, so entries don't expire; instead the cache is
+ * capped at a maximum number of entries and the least recently used prices are evicted first.
+ *
+ * The cache is loaded from disk on first access and written back after every change, so all
+ * methods should be called from a background thread.
+ */
+@Mockable
+class HistoricPriceCache(
+        private val file: File,
+        private val maxEntries: Int = DEFAULT_MAX_ENTRIES
+) {
+
+    private val prices = object : LinkedHashMap<String, Double>(16, 0.75f, true) {
+        override fun removeEldestEntry(eldest: MutableMap.MutableEntry<String, Double>?): Boolean =
+                size > maxEntries
+    }
+    private var loaded = false
+
+    /**
+     * Returns the cached price of one unit of a cryptocurrency at a given time, or null if not
+     * cached.
+     *
+     * @param cryptoCurrency The cryptocurrency being priced
+     * @param currency The fiat currency as a 3 letter acronym, eg USD, GBP
+     * @param timeInSeconds The time of the price, in seconds since epoch
+     */
+    @Synchronized
+    fun get(cryptoCurrency: CryptoCurrencies, currency: String, timeInSeconds: Long): Double? {
+        load()
+        return prices[getKey(cryptoCurrency, currency, timeInSeconds)]
+    }
+
+    @Synchronized
+    fun contains(cryptoCurrency: CryptoCurrencies, currency: String, timeInSeconds: Long): Boolean {
+        load()
+        return prices.containsKey(getKey(cryptoCurrency, currency, timeInSeconds))
+    }
+
+    @Synchronized
+    fun put(cryptoCurrency: CryptoCurrencies, currency: String, timeInSeconds: Long, price: Double) {
+        putAll(listOf(HistoricPrice(cryptoCurrency, currency, timeInSeconds, price)))
+    }
+
+    /**
+     * Stores a batch of prices and writes them to disk in a single pass.
+     */
+    @Synchronized
+    fun putAll(historicPrices: List<HistoricPrice>) {
+        if (historicPrices.isEmpty()) return
+
+        load()
+        for ((cryptoCurrency, currency, timeInSeconds, price) in historicPrices) {
+            prices.put(getKey(cryptoCurrency, currency, timeInSeconds), price)
+        }
+        write()
+    }
+
+    /**
+     * Deletes all cached prices. This should be called whenever the wallet is unpaired, as the
+     * cached times reveal when the wallet transacted.
+     */
+    @Synchronized
+    fun invalidate() {
+        prices.clear()
+        loaded = true
+        file.delete()
+    }
+
+    private fun load() {
+        if (loaded) return
+        loaded = true
+        if (!file.exists()) return
+
+        try {
+            DataInputStream(file.inputStream().buffered()).use { input ->
+                if (input.readInt() != FORMAT_VERSION) return
+
+                // Entries are stored least recently used first, which restores the access order
+                for (i in 0 until input.readInt()) {
+                    prices.put(input.readUTF(), input.readDouble())
+                }
+            }
+        } catch (e: IOException) {
+            Timber.e(e)
+            prices.clear()
+        }
+    }
+
+    private fun write() {
+        try {
+            file.parentFile?.mkdirs()
+            // Write to a temporary file first so that a crash can't leave a truncated cache behind
+            val temp = File(file.parentFile, "${file.name}.tmp")
+            DataOutputStream(temp.outputStream().buffered()).use { output ->
+                output.writeInt(FORMAT_VERSION)
+                output.writeInt(prices.size)
+                for ((key, price) in prices) {
+                    output.writeUTF(key)
+                    output.writeDouble(price)
+                }
+            }
+            if (!temp.renameTo(file)) {
+                Timber.e("Failed to replace cached historic prices")
+                temp.delete()
+            }
+        } catch (e: IOException) {
+            Timber.e(e)
+        }
+    }
+
+    /**
+     * The price of one unit of [cryptoCurrency] in [currency] at [timeInSeconds].
+     */
+    data class HistoricPrice(
+            val cryptoCurrency: CryptoCurrencies,
+            val currency: String,
+            val timeInSeconds: Long,
+            val price: Double
+    )
+
+    companion object {
+
+        /**
+         * Prices within the same bucket are treated as identical.
+         */
+        const val BUCKET_SECONDS = 5 * 60L
+        private const val DEFAULT_MAX_ENTRIES = 1000
+        private const val FORMAT_VERSION = 1
+
+        fun getKey(cryptoCurrency: CryptoCurrencies, currency: String, timeInSeconds: Long) =
+                "${cryptoCurrency.symbol}:${currency.toUpperCase()}:${timeInSeconds / BUCKET_SECONDS}"
+
+    }
+
+}
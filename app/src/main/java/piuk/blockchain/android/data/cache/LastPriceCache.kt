@@ -0,0 +1,105 @@
+package piuk.blockchain.android.data.cache
+
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.util.PrefsUtil
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Holds the latest ticker prices, and the last known price for each currency pair so that values
+ * can still be shown before the ticker has been fetched. The ticker is kept as an immutable
+ * snapshot which is replaced wholesale on each update, so reads never need a lock. Last known
+ * prices are persisted in [PrefsUtil], but are read from memory once loaded, as they're looked up
+ * whilst binding list items.
+ */
+class LastPriceCache(private val prefsUtil: PrefsUtil) {
+
+    @Volatile private var snapshot = PriceSnapshot(null, null)
+    private val snapshotLock = Any()
+    // Last known prices, keyed by prefs key, loaded lazily from prefs
+    private val lastKnownPrices = ConcurrentHashMap<String, Double>()
+
+    /**
+     * Returns the currency codes in the BTC ticker, or null if it hasn't been fetched yet.
+     */
+    fun getCurrencies(): Set<String>? = snapshot.btcPrices?.keys
+
+    /**
+     * Returns the price for a currency pair from the latest ticker, falling back to the last known
+     * price from a previous session, or 0.0 if neither is available.
+     *
+     * @param cryptoCurrency The cryptocurrency being priced
+     * @param currency The fiat currency as a 3 letter acronym, eg USD, GBP
+     */
+    fun getLastPrice(cryptoCurrency: CryptoCurrencies, currency: String): Double {
+        val prices = when (cryptoCurrency) {
+            CryptoCurrencies.BTC -> snapshot.btcPrices
+            CryptoCurrencies.ETHER -> snapshot.ethPrices
+            else -> throw IllegalArgumentException("BCH is not currently supported")
+        }
+
+        val lastPrice = prices?.get(currency) ?: 0.0
+        return if (lastPrice > 0.0) {
+            lastPrice
+        } else {
+            getLastKnownPrice(getPrefsKey(cryptoCurrency, currency))
+        }
+    }
+
+    /**
+     * Replaces the ticker for a cryptocurrency, and persists all valid prices as last known values
+     * in a single prefs write.
+     *
+     * @param cryptoCurrency The cryptocurrency which the ticker is for
+     * @param prices Prices keyed by currency code
+     */
+    fun updatePrices(cryptoCurrency: CryptoCurrencies, prices: Map<String, Double>) {
+        synchronized(snapshotLock) {
+            snapshot = when (cryptoCurrency) {
+                CryptoCurrencies.BTC -> PriceSnapshot(prices, snapshot.ethPrices)
+                CryptoCurrencies.ETHER -> PriceSnapshot(snapshot.btcPrices, prices)
+                else -> throw IllegalArgumentException("BCH is not currently supported")
+            }
+        }
+
+        val lastKnown = prices.filterValues { it > 0.0 }
+                .mapKeys { getPrefsKey(cryptoCurrency, it.key) }
+        lastKnownPrices.putAll(lastKnown)
+        prefsUtil.setValues(lastKnown.mapValues { it.value.toString() })
+    }
+
+    /**
+     * Forgets all last known prices held in memory. This should be called whenever the wallet is
+     * unpaired, alongside clearing [PrefsUtil].
+     */
+    fun invalidate() {
+        lastKnownPrices.clear()
+    }
+
+    private fun getLastKnownPrice(prefsKey: String): Double =
+            lastKnownPrices[prefsKey] ?: prefsUtil.getValue(prefsKey, "0.0").toDouble()
+                    .also { lastKnownPrices.put(prefsKey, it) }
+
+    private fun getPrefsKey(cryptoCurrency: CryptoCurrencies, currency: String): String =
+            when (cryptoCurrency) {
+                CryptoCurrencies.BTC -> "$PREF_LAST_KNOWN_BTC_PRICE$currency"
+                CryptoCurrencies.ETHER -> "$PREF_LAST_KNOWN_ETH_PRICE$currency"
+                else -> throw IllegalArgumentException("BCH is not currently supported")
+            }
+
+    /**
+     * An immutable set of prices keyed by currency code. Null maps indicate that the ticker hasn't
+     * been fetched yet this session.
+     */
+    private class PriceSnapshot(
+            val btcPrices: Map<String, Double>?,
+            val ethPrices: Map<String, Double>?
+    )
+
+    companion object {
+
+        private const val PREF_LAST_KNOWN_BTC_PRICE = "LAST_KNOWN_BTC_VALUE_FOR_CURRENCY_"
+        private const val PREF_LAST_KNOWN_ETH_PRICE = "LAST_KNOWN_ETH_VALUE_FOR_CURRENCY_"
+
+    }
+
+}
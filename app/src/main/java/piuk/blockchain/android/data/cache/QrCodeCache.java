@@ -0,0 +1,53 @@
+package piuk.blockchain.android.data.cache;
+
+import android.graphics.Bitmap;
+import android.support.annotation.Nullable;
+import android.util.LruCache;
+
+/**
+ * An in-memory LRU cache of generated QR code {@link Bitmap}s, keyed by the encoded URI and the
+ * dimensions of the code, so that showing the same receive address again doesn't re-encode it.
+ * The cache is bounded by the total size of the cached bitmaps. Bitmaps returned from the cache
+ * are shared and must not be recycled or modified.
+ */
+public class QrCodeCache {
+
+    private static final int DEFAULT_MAX_BYTES = 2 * 1024 * 1024;
+
+    private final LruCache<String, Bitmap> bitmaps;
+
+    public QrCodeCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public QrCodeCache(int maxBytes) {
+        bitmaps = new LruCache<String, Bitmap>(maxBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap value) {
+                return value.getByteCount();
+            }
+        };
+    }
+
+    @Nullable
+    public Bitmap get(String uri, int dimensions) {
+        return bitmaps.get(getKey(uri, dimensions));
+    }
+
+    public void put(String uri, int dimensions, Bitmap bitmap) {
+        bitmaps.put(getKey(uri, dimensions), bitmap);
+    }
+
+    /**
+     * Removes all cached QR codes. This should be called whenever the wallet is unpaired, as the
+     * cached codes contain the wallet's addresses.
+     */
+    public void invalidate() {
+        bitmaps.evictAll();
+    }
+
+    private static String getKey(String uri, int dimensions) {
+        return dimensions + ":" + uri;
+    }
+
+}
@@ -0,0 +1,154 @@
+package piuk.blockchain.android.data.cache
+
+import info.blockchain.api.data.UnspentOutput
+import info.blockchain.api.data.UnspentOutputs
+import io.reactivex.Observable
+import io.reactivex.schedulers.Schedulers
+import piuk.blockchain.android.data.rxjava.RxBus
+import piuk.blockchain.android.data.websocket.WebSocketReceiveEvent
+import piuk.blockchain.android.util.annotations.Mockable
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Holds the most recent [UnspentOutputs] for each xPub or legacy address, so that the send screen
+ * can recalculate fees and spendable amounts without hitting the unspent API on every change.
+ *
+ * Entries expire after [maxAgeMillis] and are dropped whenever the websocket reports an incoming
+ * transaction. Outputs spent by a payment from this device are remembered until the server stops
+ * returning them, so that a fresh response can't offer them again while the transaction is
+ * propagating.
+ */
+@Mockable
+class UnspentOutputsCache @JvmOverloads constructor(
+        rxBus: RxBus,
+        private val maxAgeMillis: Long = DEFAULT_MAX_AGE_MILLIS,
+        private val maxSpentAgeMillis: Long = DEFAULT_MAX_SPENT_AGE_MILLIS
+) {
+
+    private val entries = HashMap<String, Entry>()
+    private val requests = HashMap<String, Observable<UnspentOutputs>>()
+    // Maps each address to the outputs it has spent, as "txHash:n", and the time they were spent
+    private val spentOutputs = HashMap<String, MutableMap<String, Long>>()
+
+    init {
+        rxBus.register(WebSocketReceiveEvent::class.java)
+                .subscribe({ invalidateAll() }, { Timber.e(it) })
+    }
+
+    /**
+     * Returns the cached [UnspentOutputs] for an address if fresh, otherwise subscribes to the
+     * supplied web source and caches the result. If a request for the same address is already in
+     * flight it is shared.
+     *
+     * @param address An xPub or legacy address
+     * @param webSource An [Observable] which fetches the unspent outputs from the server
+     */
+    @Synchronized
+    fun fetch(address: String, webSource: Observable<UnspentOutputs>): Observable<UnspentOutputs> {
+        val entry = entries[address]
+        if (entry != null && now() - entry.lastUpdated <= maxAgeMillis) {
+            return Observable.just(entry.unspentOutputs)
+        }
+
+        return requests[address] ?: webSource.map { put(address, it) }
+                .doFinally { clearRequest(address) }
+                .replay(1)
+                .refCount()
+                .also { requests.put(address, it) }
+    }
+
+    /**
+     * Stores the unspent outputs for an address, minus any outputs which are known to have been
+     * spent already.
+     *
+     * @return The [UnspentOutputs] that were stored
+     */
+    @Synchronized
+    fun put(address: String, unspentOutputs: UnspentOutputs): UnspentOutputs {
+        val filtered = filterSpent(address, unspentOutputs)
+        entries.put(address, Entry(filtered, now()))
+        return filtered
+    }
+
+    /**
+     * Records outputs as spent by a submitted payment and drops the cached entry for the address
+     * that spent them, as its change output won't be known until the server is asked again.
+     *
+     * @param address The xPub or legacy address which funded the payment
+     * @param spent The outputs used as inputs to the payment
+     */
+    @Synchronized
+    fun markSpent(address: String, spent: List<UnspentOutput>) {
+        val now = now()
+        val spentByAddress = spentOutputs.getOrPut(address) { HashMap() }
+        spent.forEach { spentByAddress.put(getKey(it), now) }
+        invalidate(address)
+    }
+
+    @Synchronized
+    fun invalidate(address: String) {
+        entries.remove(address)
+    }
+
+    /**
+     * Drops all cached unspent outputs. Outputs marked as spent are kept, as they may still be
+     * returned by the server until their transaction has propagated.
+     */
+    @Synchronized
+    fun invalidateAll() {
+        entries.clear()
+    }
+
+    /**
+     * Drops all cached unspent outputs, in flight requests and spent outputs. This should be called
+     * when the wallet is cleared, as none of it applies to the next wallet.
+     */
+    @Synchronized
+    fun invalidate() {
+        entries.clear()
+        requests.clear()
+        spentOutputs.clear()
+    }
+
+    private fun filterSpent(address: String, unspentOutputs: UnspentOutputs): UnspentOutputs {
+        val spent = spentOutputs[address] ?: return unspentOutputs
+
+        val now = now()
+        val returned = unspentOutputs.unspentOutputs.mapTo(HashSet()) { getKey(it) }
+        // Once an output is no longer returned, or has been pending for too long, the server
+        // is authoritative again
+        spent.entries.removeAll { (key, spentAt) ->
+            now - spentAt > maxSpentAgeMillis || key !in returned
+        }
+        if (spent.isEmpty()) {
+            spentOutputs.remove(address)
+            return unspentOutputs
+        }
+
+        return UnspentOutputs().apply {
+            notice = unspentOutputs.notice
+            this.unspentOutputs = unspentOutputs.unspentOutputs
+                    .filterTo(ArrayList()) { getKey(it) !in spent }
+        }
+    }
+
+    @Synchronized
+    private fun clearRequest(address: String) {
+        requests.remove(address)
+    }
+
+    private fun getKey(output: UnspentOutput) = "${output.txHash}:${output.txOutputN}"
+
+    private fun now() = Schedulers.computation().now(TimeUnit.MILLISECONDS)
+
+    private class Entry(val unspentOutputs: UnspentOutputs, val lastUpdated: Long)
+
+    companion object {
+
+        private val DEFAULT_MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(2)
+        private val DEFAULT_MAX_SPENT_AGE_MILLIS = TimeUnit.MINUTES.toMillis(30)
+
+    }
+
+}
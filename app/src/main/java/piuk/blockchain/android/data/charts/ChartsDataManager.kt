@@ -3,6 +3,8 @@ package piuk.blockchain.android.data.charts
 import info.blockchain.wallet.prices.PriceApi
 import info.blockchain.wallet.prices.Scale
 import io.reactivex.Observable
+import io.reactivex.schedulers.Schedulers
+import piuk.blockchain.android.data.charts.datastore.ChartsDataStore
 import piuk.blockchain.android.data.charts.models.ChartDatumDto
 import piuk.blockchain.android.data.currency.CryptoCurrencies
 import piuk.blockchain.android.data.rxjava.RxBus
@@ -10,9 +12,14 @@ import piuk.blockchain.android.data.rxjava.RxPinning
 import piuk.blockchain.android.data.rxjava.RxUtil
 import piuk.blockchain.android.util.annotations.Mockable
 import java.util.*
+import java.util.concurrent.TimeUnit
 
 @Mockable
-class ChartsDataManager(private val historicPriceApi: PriceApi, rxBus: RxBus) {
+class ChartsDataManager(
+        private val historicPriceApi: PriceApi,
+        private val chartsDataStore: ChartsDataStore,
+        rxBus: RxBus
+) {
 
     private val rxPinning = RxPinning(rxBus)
 
@@ -88,29 +95,71 @@ class ChartsDataManager(private val historicPriceApi: PriceApi, rxBus: RxBus) {
             }
     //endregion
 
+    /**
+     * Returns the cached series for a [TimeSpan] if it hasn't expired. Otherwise only the points
+     * newer than the last cached point are requested and appended, and points which have fallen
+     * outside of the [TimeSpan] are dropped. If the request fails, the expired series is returned
+     * rather than an error.
+     */
     private fun getHistoricPriceObservable(
             cryptoCurrency: CryptoCurrencies,
             fiatCurrency: String,
             timeSpan: TimeSpan
-    ): Observable<ChartDatumDto> {
-
-        val scale = when (timeSpan) {
-            TimeSpan.ALL_TIME -> Scale.FIVE_DAYS
-            TimeSpan.YEAR -> Scale.ONE_DAY
-            TimeSpan.MONTH -> Scale.TWO_HOURS
-            TimeSpan.WEEK -> Scale.ONE_HOUR
-            TimeSpan.DAY -> Scale.FIFTEEN_MINUTES
+    ): Observable<ChartDatumDto> = Observable.defer {
+        val cached = chartsDataStore.getEntry(cryptoCurrency, fiatCurrency, timeSpan)
+        val now = Schedulers.computation().now(TimeUnit.MILLISECONDS)
+
+        if (cached != null && now - cached.lastUpdated < getExpiryForTimeSpan(timeSpan)) {
+            return@defer Observable.fromIterable(cached.data)
         }
 
-        return historicPriceApi.getHistoricPriceSeries(
+        val startTime = getStartTimeForTimeSpan(timeSpan, cryptoCurrency)
+        val lastTimestamp = cached?.data?.lastOrNull()?.timestamp
+
+        historicPriceApi.getHistoricPriceSeries(
                 cryptoCurrency.symbol,
                 fiatCurrency,
-                getStartTimeForTimeSpan(timeSpan, cryptoCurrency),
-                scale
-        ).flatMapIterable { it }
-                .filter { it.price != null }
-                .map { ChartDatumDto(it) }
-                .compose(RxUtil.applySchedulersToObservable())
+                if (lastTimestamp != null) lastTimestamp + 1 else startTime,
+                getScaleForTimeSpan(timeSpan)
+        ).map { series ->
+            val fetched = series.filter { it.price != null }.map { ChartDatumDto(it) }
+            val merged = if (cached == null) {
+                fetched
+            } else {
+                cached.data.filter { it.timestamp >= startTime } +
+                        fetched.filter { it.timestamp > lastTimestamp!! }
+            }
+            chartsDataStore.putEntry(
+                    cryptoCurrency,
+                    fiatCurrency,
+                    timeSpan,
+                    ChartsDataStore.ChartsEntry(merged, now)
+            )
+            merged
+        }.onErrorReturn {
+            if (cached == null) throw it
+            cached.data
+        }.flatMapIterable { it }
+    }.compose(RxUtil.applySchedulersToObservable())
+
+    private fun getScaleForTimeSpan(timeSpan: TimeSpan) = when (timeSpan) {
+        TimeSpan.ALL_TIME -> Scale.FIVE_DAYS
+        TimeSpan.YEAR -> Scale.ONE_DAY
+        TimeSpan.MONTH -> Scale.TWO_HOURS
+        TimeSpan.WEEK -> Scale.ONE_HOUR
+        TimeSpan.DAY -> Scale.FIFTEEN_MINUTES
+    }
+
+    /**
+     * Returns how long a cached series is valid for, in millis. This matches the interval between
+     * measurements, as no new data points will be available before then.
+     */
+    private fun getExpiryForTimeSpan(timeSpan: TimeSpan): Long = when (timeSpan) {
+        TimeSpan.ALL_TIME -> TimeUnit.DAYS.toMillis(5)
+        TimeSpan.YEAR -> TimeUnit.DAYS.toMillis(1)
+        TimeSpan.MONTH -> TimeUnit.HOURS.toMillis(2)
+        TimeSpan.WEEK -> TimeUnit.HOURS.toMillis(1)
+        TimeSpan.DAY -> TimeUnit.MINUTES.toMillis(15)
     }
 
     private fun getStartTimeForTimeSpan(timeSpan: TimeSpan, cryptoCurrency: CryptoCurrencies): Long {
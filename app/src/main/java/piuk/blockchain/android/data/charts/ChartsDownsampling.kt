@@ -0,0 +1,58 @@
+package piuk.blockchain.android.data.charts
+
+import piuk.blockchain.android.data.charts.models.ChartDatumDto
+
+/**
+ * Reduces a date-ordered series of [ChartDatumDto] objects to at most [threshold] points using
+ * the Largest-Triangle-Three-Buckets algorithm, which preserves the visual shape of the series
+ * (including peaks and troughs) far better than simply skipping points. The first and last
+ * points are always retained.
+ *
+ * @param data The date-ordered series to be reduced
+ * @param threshold The maximum number of points to return
+ * @return The original list if it's already small enough, otherwise a reduced copy
+ */
+fun largestTriangleThreeBuckets(data: List<ChartDatumDto>, threshold: Int): List<ChartDatumDto> {
+    if (threshold < 3 || data.size <= threshold) return data
+
+    val sampled = ArrayList<ChartDatumDto>(threshold)
+    // The first and last points are fixed, so the remainder is split into threshold - 2 buckets
+    val bucketSize = (data.size - 2).toDouble() / (threshold - 2)
+    var selected = data.first()
+    sampled.add(selected)
+
+    for (bucket in 0 until threshold - 2) {
+        // Average point of the next bucket, used as the third vertex of the triangle
+        val nextStart = ((bucket + 1) * bucketSize).toInt() + 1
+        val nextEnd = minOf(((bucket + 2) * bucketSize).toInt() + 1, data.size)
+        var averageX = 0.0
+        var averageY = 0.0
+        for (i in nextStart until nextEnd) {
+            averageX += data[i].timestamp
+            averageY += data[i].price
+        }
+        averageX /= nextEnd - nextStart
+        averageY /= nextEnd - nextStart
+
+        // Pick the point in this bucket forming the largest triangle with the previous selection
+        val start = (bucket * bucketSize).toInt() + 1
+        val end = ((bucket + 1) * bucketSize).toInt() + 1
+        val previous = selected
+        val previousX = previous.timestamp.toDouble()
+        var maxArea = -1.0
+        for (i in start until end) {
+            val area = Math.abs(
+                    (previousX - averageX) * (data[i].price - previous.price)
+                            - (previousX - data[i].timestamp) * (averageY - previous.price)
+            )
+            if (area > maxArea) {
+                maxArea = area
+                selected = data[i]
+            }
+        }
+        sampled.add(selected)
+    }
+
+    sampled.add(data.last())
+    return sampled
+}
@@ -0,0 +1,46 @@
+package piuk.blockchain.android.data.charts.datastore
+
+import piuk.blockchain.android.data.charts.TimeSpan
+import piuk.blockchain.android.data.charts.models.ChartDatumDto
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.util.annotations.Mockable
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * A simple class for persisting chart data in memory, keyed by cryptocurrency, fiat currency and
+ * [TimeSpan], so that switching between charts doesn't require refetching the whole series.
+ */
+@Mockable
+class ChartsDataStore {
+
+    private val entries = ConcurrentHashMap<String, ChartsEntry>()
+
+    fun getEntry(
+            cryptoCurrency: CryptoCurrencies,
+            fiatCurrency: String,
+            timeSpan: TimeSpan
+    ): ChartsEntry? = entries[getKey(cryptoCurrency, fiatCurrency, timeSpan)]
+
+    fun putEntry(
+            cryptoCurrency: CryptoCurrencies,
+            fiatCurrency: String,
+            timeSpan: TimeSpan,
+            entry: ChartsEntry
+    ) {
+        entries.put(getKey(cryptoCurrency, fiatCurrency, timeSpan), entry)
+    }
+
+    fun invalidate() {
+        entries.clear()
+    }
+
+    private fun getKey(cryptoCurrency: CryptoCurrencies, fiatCurrency: String, timeSpan: TimeSpan) =
+            "${cryptoCurrency.symbol}:${fiatCurrency.toUpperCase()}:${timeSpan.name}"
+
+    /**
+     * A date-ordered series of [ChartDatumDto] objects along with the time it was last updated,
+     * in epoch-millis.
+     */
+    data class ChartsEntry(val data: List<ChartDatumDto>, val lastUpdated: Long)
+
+}
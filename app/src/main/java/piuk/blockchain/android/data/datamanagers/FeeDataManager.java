@@ -3,7 +3,9 @@ package piuk.blockchain.android.data.datamanagers;
 import info.blockchain.wallet.api.FeeApi;
 import info.blockchain.wallet.api.data.FeeOptions;
 
+import io.reactivex.Completable;
 import io.reactivex.Observable;
+import piuk.blockchain.android.data.cache.DynamicFeeCache;
 import piuk.blockchain.android.data.rxjava.RxBus;
 import piuk.blockchain.android.data.rxjava.RxPinning;
 import piuk.blockchain.android.data.rxjava.RxUtil;
@@ -12,31 +14,48 @@ public class FeeDataManager {
 
     private final RxPinning rxPinning;
     private FeeApi feeApi;
+    private DynamicFeeCache dynamicFeeCache;
 
-    public FeeDataManager(FeeApi feeApi, RxBus rxBus) {
+    public FeeDataManager(FeeApi feeApi, DynamicFeeCache dynamicFeeCache, RxBus rxBus) {
         this.feeApi = feeApi;
+        this.dynamicFeeCache = dynamicFeeCache;
         rxPinning = new RxPinning(rxBus);
     }
 
     /**
      * Returns a {@link FeeOptions} object which contains both a "regular" and a "priority" fee
-     * option, both listed in Satoshis/byte.
+     * option, both listed in Satoshis/byte. Recently fetched fee options are returned from the
+     * {@link DynamicFeeCache} without a network call.
      *
      * @return An {@link Observable} wrapping a {@link FeeOptions} object
      */
     public Observable<FeeOptions> getBtcFeeOptions() {
-        return rxPinning.call(() -> feeApi.getFeeOptions())
+        return dynamicFeeCache.fetchBtcFeeOptions(rxPinning.call(() -> feeApi.getFeeOptions()))
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
     /**
      * Returns a {@link FeeOptions} object which contains both a "regular" and a "priority" fee
-     * option for Ethereum.
+     * option for Ethereum. Recently fetched fee options are returned from the {@link
+     * DynamicFeeCache} without a network call.
      *
      * @return An {@link Observable} wrapping a {@link FeeOptions} object
      */
     public Observable<FeeOptions> getEthFeeOptions() {
-        return rxPinning.call(() -> feeApi.getEthFeeOptions())
+        return dynamicFeeCache.fetchEthFeeOptions(rxPinning.call(() -> feeApi.getEthFeeOptions()))
                 .compose(RxUtil.applySchedulersToObservable());
     }
+
+    /**
+     * Fetches both BTC and ETH fee options in parallel if the cached values are stale, so that
+     * they're ready before the user reaches the send screen. Errors are ignored, as the fees
+     * will be requested again when needed.
+     *
+     * @return A {@link Completable} object
+     */
+    public Completable prefetchFeeOptions() {
+        return Observable.merge(getBtcFeeOptions(), getEthFeeOptions())
+                .ignoreElements()
+                .onErrorComplete();
+    }
 }
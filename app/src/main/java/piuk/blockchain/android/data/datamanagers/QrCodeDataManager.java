@@ -11,6 +11,7 @@ import org.spongycastle.util.encoders.Hex;
 import io.reactivex.Observable;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.schedulers.Schedulers;
+import piuk.blockchain.android.data.cache.QrCodeCache;
 import piuk.blockchain.android.ui.zxing.Contents;
 import piuk.blockchain.android.ui.zxing.encode.QRCodeEncoder;
 
@@ -18,18 +19,33 @@ public class QrCodeDataManager {
 
     private static final int PAIRING_CODE_PBKDF2_ITERATIONS = 10;
 
+    private final QrCodeCache qrCodeCache;
+
+    public QrCodeDataManager(QrCodeCache qrCodeCache) {
+        this.qrCodeCache = qrCodeCache;
+    }
+
     /**
      * Generates a QR code in Bitmap format from a given URI to specified dimensions, wrapped in an
-     * Observable. Will throw an error if the Bitmap is null.
+     * Observable. Will throw an error if the Bitmap is null. Codes are cached in the {@link
+     * QrCodeCache}, in which case the cached Bitmap is emitted immediately.
      *
      * @param uri        A string to be encoded
      * @param dimensions The dimensions of the QR code to be returned
      * @return An Observable wrapping the generate Bitmap operation
      */
     public Observable<Bitmap> generateQrCode(String uri, int dimensions) {
-        return generateQrCodeObservable(uri, dimensions)
-                .subscribeOn(Schedulers.computation())
-                .observeOn(AndroidSchedulers.mainThread());
+        return Observable.defer(() -> {
+            Bitmap cached = qrCodeCache.get(uri, dimensions);
+            if (cached != null) {
+                return Observable.just(cached);
+            }
+
+            return generateQrCodeObservable(uri, dimensions)
+                    .doOnNext(bitmap -> qrCodeCache.put(uri, dimensions, bitmap))
+                    .subscribeOn(Schedulers.computation())
+                    .observeOn(AndroidSchedulers.mainThread());
+        });
     }
 
     /**
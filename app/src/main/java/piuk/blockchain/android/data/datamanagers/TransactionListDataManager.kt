@@ -6,22 +6,50 @@ import io.reactivex.Observable
 import io.reactivex.Single
 import piuk.blockchain.android.data.ethereum.EthDataManager
 import piuk.blockchain.android.data.rxjava.RxUtil
+import piuk.blockchain.android.data.stores.CacheFirstFetchStrategy
+import piuk.blockchain.android.data.stores.FreshFetchStrategy
+import piuk.blockchain.android.data.stores.TransactionDiskStore
 import piuk.blockchain.android.data.stores.TransactionListStore
 import piuk.blockchain.android.data.transactions.BtcDisplayable
 import piuk.blockchain.android.data.transactions.Displayable
 import piuk.blockchain.android.data.transactions.EthDisplayable
+import piuk.blockchain.android.data.transactions.TransactionChangeSet
 import piuk.blockchain.android.ui.account.ItemAccount
 import piuk.blockchain.android.util.annotations.Mockable
+import piuk.blockchain.android.util.tracing.Tracer
 import java.util.*
 
 @Mockable
 class TransactionListDataManager(
         private val payloadManager: PayloadManager,
         private val ethDataManager: EthDataManager,
-        private val transactionListStore: TransactionListStore
+        private val transactionListStore: TransactionListStore,
+        private val transactionDiskStore: TransactionDiskStore
 ) {
 
-    fun fetchTransactions(itemAccount: ItemAccount, limit: Int, offset: Int): Observable<List<Displayable>> {
+    // Both sets are written from fetches on the IO scheduler and read from the main thread
+    private val refreshedAccounts: MutableSet<String> = Collections.synchronizedSet(HashSet<String>())
+    // Accounts whose oldest page of transactions has been loaded
+    private val exhaustedAccounts: MutableSet<String> = Collections.synchronizedSet(HashSet<String>())
+
+    fun fetchTransactions(itemAccount: ItemAccount, limit: Int, offset: Int): Observable<List<Displayable>> =
+            fetchTransactionChanges(itemAccount, limit, offset)
+                    .map { it.transactions }
+
+    /**
+     * Fetches a page of transactions for the given [ItemAccount] and merges them into the existing
+     * list by hash, rather than clearing and rebuilding it. Transactions which are pending are
+     * retained until the server returns them. Fetching the first page only replaces transactions
+     * within that page, so older pages which have already been loaded are kept.
+     *
+     * @return A [TransactionChangeSet] describing which positions were removed, inserted or
+     * changed, along with the updated list of Txs sorted by date
+     */
+    fun fetchTransactionChanges(
+            itemAccount: ItemAccount,
+            limit: Int,
+            offset: Int
+    ): Observable<TransactionChangeSet> {
         val observable: Observable<List<Displayable>> = when (itemAccount.type) {
             ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY -> getAllTransactionsObservable(limit, offset)
             ItemAccount.TYPE.ALL_LEGACY -> getLegacyObservable(limit, offset)
@@ -33,12 +61,33 @@ class TransactionListDataManager(
             }
         }
 
-        return observable.doOnNext { insertTransactionList(it.toMutableList()) }
-                .map { transactionListStore.list }
-                .doOnError { emptyList<Displayable>() }
-                .compose(RxUtil.applySchedulersToObservable())
+        val accountKey = getAccountKey(itemAccount)
+        return Tracer.trace("fetchTransactions", getFetchObservable(itemAccount, observable, offset)
+                .map { mergePage(accountKey, it, limit, offset, itemAccount.type == ItemAccount.TYPE.ETHEREUM) }
+                .compose(RxUtil.applySchedulersToObservable()))
     }
 
+    /**
+     * Fetches the page of transactions following those already loaded for the given
+     * [ItemAccount]. Check [hasMoreTransactions] first, as this will return an empty page once the
+     * oldest transaction has been loaded.
+     *
+     * @param pageSize The maximum number of transactions to fetch
+     * @return A [TransactionChangeSet] describing the transactions appended to the list
+     */
+    fun fetchNextTransactionPage(itemAccount: ItemAccount, pageSize: Int): Observable<TransactionChangeSet> =
+            Observable.defer {
+                fetchTransactionChanges(itemAccount, pageSize, transactionListStore.settledCount)
+            }
+
+    /**
+     * Returns true if there may be older transactions for the given [ItemAccount] which haven't
+     * been loaded yet.
+     */
+    fun hasMoreTransactions(itemAccount: ItemAccount): Boolean =
+            itemAccount.type != ItemAccount.TYPE.ETHEREUM
+                    && !exhaustedAccounts.contains(getAccountKey(itemAccount))
+
     /**
      * Returns a list of [Displayable] objects generated by [getTransactionList]
      *
@@ -51,6 +100,8 @@ class TransactionListDataManager(
      */
     fun clearTransactionList() {
         transactionListStore.clearList()
+        refreshedAccounts.clear()
+        exhaustedAccounts.clear()
     }
 
     /**
@@ -84,12 +135,15 @@ class TransactionListDataManager(
      *
      * @param transactionHash The hash of the Tx to be returned
      * @return An Observable object wrapping a Tx. Will call onError if not found with a
-     * NullPointerException
+     * NoSuchElementException
      */
-    fun getTxFromHash(transactionHash: String): Single<Displayable> =
-            Observable.fromIterable(getTransactionList())
-                    .filter { it.hash == transactionHash }
-                    .firstOrError()
+    fun getTxFromHash(transactionHash: String): Single<Displayable> = Single.defer {
+        val transaction = transactionListStore.getTransaction(transactionHash)
+        when (transaction) {
+            null -> Single.error<Displayable>(NoSuchElementException())
+            else -> Single.just(transaction)
+        }
+    }
 
     /**
      * Returns a [HashMap] where a [Displayable] hash is used as a key against
@@ -98,35 +152,70 @@ class TransactionListDataManager(
      */
     fun getTxConfirmationsMap(): HashMap<String, Int> = transactionListStore.txConfirmationsMap
 
-    private fun insertTransactionList(txList: MutableList<Displayable>) {
-        val pendingTxs = getRemainingPendingTransactionList(txList)
-        clearTransactionList()
-        txList.addAll(pendingTxs)
-        transactionListStore.insertTransactions(txList)
+    /**
+     * Wraps the web source for the first page of transactions with the on-disk cache. The first
+     * time an account is shown in a session, cached transactions are emitted before the web
+     * result. Afterwards, web results are simply written through to the cache. The cache is
+     * encrypted with the wallet password, so it's skipped entirely if that isn't available.
+     */
+    private fun getFetchObservable(
+            itemAccount: ItemAccount,
+            webSource: Observable<List<Displayable>>,
+            offset: Int
+    ): Observable<List<Displayable>> {
+        val password = payloadManager.tempPassword
+        if (password.isNullOrEmpty() || offset != 0) return webSource
+
+        val accountKey = getAccountKey(itemAccount)
+        val diskSource = transactionDiskStore.forAccount(accountKey, password)
+        val freshSource = webSource.doOnComplete { refreshedAccounts.add(accountKey) }
+
+        return when {
+            refreshedAccounts.contains(accountKey) -> FreshFetchStrategy(freshSource, diskSource)
+            else -> CacheFirstFetchStrategy(
+                    freshSource,
+                    transactionDiskStore.read(accountKey, password),
+                    diskSource
+            )
+        }.fetch()
     }
 
     /**
-     * Gets list of transactions that have been published but delivery has not yet been confirmed.
+     * Merges a page into the [TransactionListStore], clearing it first if it holds another
+     * account's transactions. A page shorter than [limit] means there are no older transactions.
      */
-    private fun getRemainingPendingTransactionList(newlyFetchedTxs: List<Displayable>): List<Displayable> {
-        val pendingMap = HashMap<String, Displayable>()
-        transactionListStore.list
-                .filter { it.isPending }
-                .forEach { pendingMap.put(it.hash, it) }
-
-        if (!pendingMap.isEmpty()) {
-            filterProcessed(newlyFetchedTxs, pendingMap)
+    private fun mergePage(
+            accountKey: String,
+            transactions: List<Displayable>,
+            limit: Int,
+            offset: Int,
+            isComplete: Boolean
+    ): TransactionChangeSet {
+        if (transactionListStore.accountKey != accountKey) {
+            transactionListStore.clearList()
+            transactionListStore.accountKey = accountKey
         }
 
-        return ArrayList(pendingMap.values)
+        val isLastPage = isComplete || transactions.size < limit
+        val changeSet = when {
+            offset > 0 -> transactionListStore.appendPage(transactions)
+            isLastPage -> transactionListStore.mergeTransactions(transactions)
+            else -> transactionListStore.mergeFirstPage(transactions)
+        }
+
+        when {
+            isLastPage -> exhaustedAccounts.add(accountKey)
+            // A full first page means there are older pages, unless those have been loaded already
+            offset == 0 && transactionListStore.settledCount <= limit -> exhaustedAccounts.remove(accountKey)
+        }
+        return changeSet
     }
 
-    private fun filterProcessed(
-            newlyFetchedTxs: List<Displayable>,
-            pendingMap: HashMap<String, Displayable>
-    ) {
-        newlyFetchedTxs.filter { pendingMap.containsKey(it.hash) }
-                .forEach { pendingMap.remove(it.hash) }
+    private fun getAccountKey(itemAccount: ItemAccount): String = when (itemAccount.type) {
+        ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY,
+        ItemAccount.TYPE.ALL_LEGACY,
+        ItemAccount.TYPE.ETHEREUM -> itemAccount.type.name
+        else -> itemAccount.address ?: itemAccount.type.name
     }
 
     private fun getAllTransactionsObservable(limit: Int, offset: Int): Observable<List<Displayable>> =
@@ -2,6 +2,7 @@ package piuk.blockchain.android.data.datamanagers;
 
 import android.support.annotation.Nullable;
 
+import info.blockchain.api.data.UnspentOutput;
 import info.blockchain.api.data.UnspentOutputs;
 import info.blockchain.wallet.payload.data.Account;
 import info.blockchain.wallet.payload.data.LegacyAddress;
@@ -14,8 +15,10 @@ import org.bitcoinj.core.ECKey;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import io.reactivex.Observable;
+import io.reactivex.schedulers.Schedulers;
 import piuk.blockchain.android.data.cache.DynamicFeeCache;
 import piuk.blockchain.android.data.payload.PayloadDataManager;
 import piuk.blockchain.android.data.payments.SendDataManager;
@@ -27,6 +30,8 @@ import piuk.blockchain.android.ui.send.PendingTransaction;
 
 public class TransferFundsDataManager {
 
+    private static final int MAX_CONCURRENT_REQUESTS = 4;
+
     private PayloadDataManager payloadDataManager;
     private SendDataManager sendDataManager;
     private DynamicFeeCache dynamicFeeCache;
@@ -49,57 +54,158 @@ public class TransferFundsDataManager {
      * as well as a Pair which contains the total to send and the total fees, in that order.
      */
     public Observable<Triple<List<PendingTransaction>, Long, Long>> getTransferableFundTransactionList(int addressToReceiveIndex) {
-        return Observable.fromCallable(() -> {
-
-            BigInteger suggestedFeePerKb =
-                    BigInteger.valueOf(dynamicFeeCache.getBtcFeeOptions().getRegularFee() * 1000);
+        return getTransferableFundTransactions(addressToReceiveIndex)
+                .filter(progress -> progress.getPendingTransaction() != null)
+                .map(TransferFundsProgress::getPendingTransaction)
+                .toList()
+                .map(pendingTransactionList -> {
+                    long totalToSend = 0L;
+                    long totalFee = 0L;
+                    for (PendingTransaction pendingSpend : pendingTransactionList) {
+                        totalToSend += pendingSpend.bigIntAmount.longValue();
+                        totalFee += pendingSpend.bigIntFee.longValue();
+                    }
+                    return Triple.of(pendingTransactionList, totalToSend, totalFee);
+                })
+                .toObservable();
+    }
 
-            List<PendingTransaction> pendingTransactionList = new ArrayList<>();
-            List<LegacyAddress> legacyAddresses = payloadDataManager.getWallet().getLegacyAddressList();
+    /**
+     * As {@link #getTransferableFundTransactionList(int)}, but if {@code consolidate} is true and
+     * more than one address has sweepable funds, also builds a single transaction which spends
+     * every sweepable output, and the totals are those of that transaction. Consolidating pays one
+     * fee rather than one per address, but links the addresses together on the blockchain.
+     *
+     * @param addressToReceiveIndex The index of the account to which you want to send the funds
+     * @param consolidate           Whether to sum the funds into a single transaction
+     * @return Returns a {@link TransferableFunds} object which bundles together the List of {@link
+     * PendingTransaction} objects for each address, the consolidated transaction if one was built,
+     * and the total to send and the total fees
+     */
+    public Observable<TransferableFunds> getTransferableFunds(int addressToReceiveIndex,
+                                                              boolean consolidate) {
+        return getTransferableFundTransactionList(addressToReceiveIndex)
+                // Coin selection across every address can be slow, so keep it off the main thread
+                .observeOn(Schedulers.io())
+                .map(triple -> {
+                    if (!consolidate || triple.getLeft().size() < 2) {
+                        return new TransferableFunds(triple.getLeft(),
+                                null,
+                                triple.getMiddle(),
+                                triple.getRight());
+                    }
 
-            long totalToSend = 0L;
-            long totalFee = 0L;
+                    PendingTransaction consolidated = consolidate(triple.getLeft());
+                    return new TransferableFunds(triple.getLeft(),
+                            consolidated,
+                            consolidated.bigIntAmount.longValue(),
+                            consolidated.bigIntFee.longValue());
+                })
+                .compose(RxUtil.applySchedulersToObservable());
+    }
 
-            for (LegacyAddress legacyAddress : legacyAddresses) {
+    /**
+     * Checks every spendable legacy address with a balance for funds that can be sent to a HD
+     * wallet, fetching unspent outputs for up to {@link #MAX_CONCURRENT_REQUESTS} addresses at a
+     * time. Emits a {@link TransferFundsProgress} as each address is checked, in the order that the
+     * responses arrive, which carries the {@link PendingTransaction} for that address if it has
+     * sweepable funds.
+     *
+     * @param addressToReceiveIndex The index of the account to which you want to send the funds
+     * @return An {@link Observable} which completes once every address has been checked
+     */
+    public Observable<TransferFundsProgress> getTransferableFundTransactions(int addressToReceiveIndex) {
+        return Observable.defer(() -> {
+            BigInteger suggestedFeePerKb = getSuggestedFeePerKb();
 
+            List<LegacyAddress> fundedAddresses = new ArrayList<>();
+            for (LegacyAddress legacyAddress : payloadDataManager.getWallet().getLegacyAddressList()) {
                 if (!legacyAddress.isWatchOnly()
                         && payloadDataManager.getAddressBalance(legacyAddress.getAddress())
                         .compareTo(BigInteger.ZERO) == 1) {
-
-                    UnspentOutputs unspentOutputs =
-                            sendDataManager.getUnspentOutputs(legacyAddress.getAddress())
-                                    .blockingFirst();
-                    Pair<BigInteger, BigInteger> sweepableCoins =
-                            sendDataManager.getMaximumAvailable(unspentOutputs, suggestedFeePerKb);
-                    BigInteger sweepAmount = sweepableCoins.getLeft();
-
-                    // Don't sweep if there are still unconfirmed funds in address
-                    if (unspentOutputs.getNotice() == null && sweepAmount.compareTo(Payment.DUST) == 1) {
-
-                        PendingTransaction pendingSpend = new PendingTransaction();
-                        pendingSpend.unspentOutputBundle = sendDataManager
-                                .getSpendableCoins(unspentOutputs, sweepAmount, suggestedFeePerKb);
-                        pendingSpend.sendingObject = new ItemAccount(
-                                legacyAddress.getLabel(),
-                                "",
-                                "",
-                                null,
-                                legacyAddress,
-                                legacyAddress.getAddress());
-                        pendingSpend.bigIntFee = pendingSpend.unspentOutputBundle.getAbsoluteFee();
-                        pendingSpend.bigIntAmount = sweepAmount;
-                        pendingSpend.addressToReceiveIndex = addressToReceiveIndex;
-                        totalToSend += pendingSpend.bigIntAmount.longValue();
-                        totalFee += pendingSpend.bigIntFee.longValue();
-                        pendingTransactionList.add(pendingSpend);
-                    }
+                    fundedAddresses.add(legacyAddress);
                 }
             }
 
-            return Triple.of(pendingTransactionList, totalToSend, totalFee);
+            AtomicInteger checked = new AtomicInteger();
+            return Observable.fromIterable(fundedAddresses)
+                    .flatMap(legacyAddress -> sendDataManager.getUnspentOutputs(legacyAddress.getAddress())
+                                    // Responses are delivered on the main thread, so move back off it
+                                    .observeOn(Schedulers.io())
+                                    .map(unspentOutputs -> Pair.of(legacyAddress, unspentOutputs)),
+                            MAX_CONCURRENT_REQUESTS)
+                    .map(pair -> new TransferFundsProgress(
+                            checked.incrementAndGet(),
+                            fundedAddresses.size(),
+                            getPendingSweep(pair.getLeft(),
+                                    pair.getRight(),
+                                    suggestedFeePerKb,
+                                    addressToReceiveIndex)));
         }).compose(RxUtil.applySchedulersToObservable());
     }
 
+    /**
+     * Combines the sweeps from several legacy addresses into a single {@link PendingTransaction}
+     * which spends all of their outputs, with one fee calculated for the combined size. Change, if
+     * any, is returned to the first address.
+     */
+    private PendingTransaction consolidate(List<PendingTransaction> pendingTransactions) {
+        BigInteger suggestedFeePerKb = getSuggestedFeePerKb();
+
+        ArrayList<UnspentOutput> outputs = new ArrayList<>();
+        for (PendingTransaction pendingTransaction : pendingTransactions) {
+            outputs.addAll(pendingTransaction.unspentOutputBundle.getSpendableOutputs());
+        }
+        UnspentOutputs combined = new UnspentOutputs();
+        combined.setUnspentOutputs(outputs);
+
+        BigInteger sweepAmount =
+                sendDataManager.getMaximumAvailable(combined, suggestedFeePerKb).getLeft();
+
+        PendingTransaction consolidated = new PendingTransaction();
+        consolidated.unspentOutputBundle =
+                sendDataManager.getSpendableCoins(combined, sweepAmount, suggestedFeePerKb);
+        consolidated.sendingObject = pendingTransactions.get(0).sendingObject;
+        consolidated.bigIntFee = consolidated.unspentOutputBundle.getAbsoluteFee();
+        consolidated.bigIntAmount = sweepAmount;
+        consolidated.addressToReceiveIndex = pendingTransactions.get(0).addressToReceiveIndex;
+        return consolidated;
+    }
+
+    private BigInteger getSuggestedFeePerKb() {
+        return BigInteger.valueOf(dynamicFeeCache.getBtcFeeOptions().getRegularFee() * 1000);
+    }
+
+    @Nullable
+    private PendingTransaction getPendingSweep(LegacyAddress legacyAddress,
+                                               UnspentOutputs unspentOutputs,
+                                               BigInteger suggestedFeePerKb,
+                                               int addressToReceiveIndex) {
+        Pair<BigInteger, BigInteger> sweepableCoins =
+                sendDataManager.getMaximumAvailable(unspentOutputs, suggestedFeePerKb);
+        BigInteger sweepAmount = sweepableCoins.getLeft();
+
+        // Don't sweep if there are still unconfirmed funds in address
+        if (unspentOutputs.getNotice() != null || sweepAmount.compareTo(Payment.DUST) != 1) {
+            return null;
+        }
+
+        PendingTransaction pendingSpend = new PendingTransaction();
+        pendingSpend.unspentOutputBundle = sendDataManager
+                .getSpendableCoins(unspentOutputs, sweepAmount, suggestedFeePerKb);
+        pendingSpend.sendingObject = new ItemAccount(
+                legacyAddress.getLabel(),
+                "",
+                "",
+                null,
+                legacyAddress,
+                legacyAddress.getAddress());
+        pendingSpend.bigIntFee = pendingSpend.unspentOutputBundle.getAbsoluteFee();
+        pendingSpend.bigIntAmount = sweepAmount;
+        pendingSpend.addressToReceiveIndex = addressToReceiveIndex;
+        return pendingSpend;
+    }
+
     /**
      * Check if there are any spendable legacy funds that need to be sent to a HD wallet. Constructs
      * a list of {@link PendingTransaction} objects with outputs set to the default HD account.
@@ -126,6 +232,60 @@ public class TransferFundsDataManager {
                 .compose(RxUtil.applySchedulersToObservable());
     }
 
+    /**
+     * Sends a transaction built by {@link #getTransferableFunds(int, boolean)} which spends the
+     * funds of several legacy addresses at once. The transaction is signed exactly as it was shown
+     * to the user, rather than being rebuilt with the current fee. Emits the Tx hash and completes
+     * once the payment has been broadcast.
+     *
+     * @param consolidated        The consolidated {@link PendingTransaction}
+     * @param pendingTransactions The {@link PendingTransaction} for each legacy address being swept
+     * @param secondPassword      The double encryption password if necessary
+     * @return An {@link Observable<String>}
+     */
+    public Observable<String> sendConsolidatedPayment(PendingTransaction consolidated,
+                                                      List<PendingTransaction> pendingTransactions,
+                                                      @Nullable String secondPassword) {
+        return Observable.defer(() -> {
+            List<ECKey> keys = new ArrayList<>();
+            for (PendingTransaction pendingTransaction : pendingTransactions) {
+                LegacyAddress legacyAddress = (LegacyAddress) pendingTransaction.sendingObject.getAccountObject();
+                keys.add(payloadDataManager.getAddressECKey(legacyAddress, secondPassword));
+            }
+            String changeAddress =
+                    ((LegacyAddress) consolidated.sendingObject.getAccountObject()).getAddress();
+
+            return payloadDataManager.getNextReceiveAddress(consolidated.addressToReceiveIndex)
+                    .flatMap(receivingAddress -> sendDataManager.submitPayment(
+                            consolidated.unspentOutputBundle,
+                            keys,
+                            receivingAddress,
+                            changeAddress,
+                            consolidated.bigIntFee,
+                            consolidated.bigIntAmount))
+                    .doOnNext(hash -> {
+                        // Increment index on receive chain
+                        Account account = payloadDataManager.getWallet()
+                                .getHdWallets()
+                                .get(0)
+                                .getAccounts()
+                                .get(consolidated.addressToReceiveIndex);
+                        payloadDataManager.incrementReceiveAddress(account);
+
+                        // Update Balances temporarily rather than wait for sync
+                        for (PendingTransaction pendingTransaction : pendingTransactions) {
+                            LegacyAddress legacyAddress = (LegacyAddress) pendingTransaction.sendingObject.getAccountObject();
+                            long spentAmount = pendingTransaction.bigIntAmount.longValue()
+                                    + pendingTransaction.bigIntFee.longValue();
+                            payloadDataManager.subtractAmountFromAddressBalance(legacyAddress.getAddress(), spentAmount);
+                        }
+
+                        payloadDataManager.syncPayloadWithServer()
+                                .subscribe(new IgnorableDefaultObserver<>());
+                    });
+        }).compose(RxUtil.applySchedulersToObservable());
+    }
+
     private Observable<String> getPaymentObservable(List<PendingTransaction> pendingTransactions, String secondPassword) {
         return Observable.create(subscriber -> {
             for (int i = 0; i < pendingTransactions.size(); i++) {
@@ -0,0 +1,18 @@
+package piuk.blockchain.android.data.datamanagers
+
+import piuk.blockchain.android.ui.send.PendingTransaction
+
+/**
+ * Emitted by [TransferFundsDataManager.getTransferableFundTransactions] each time a legacy address
+ * has been checked for sweepable funds.
+ *
+ * @param checked The number of addresses checked so far
+ * @param total The total number of addresses with a balance that will be checked
+ * @param pendingTransaction The sweep for the address just checked, or null if it has nothing
+ * which can be swept
+ */
+data class TransferFundsProgress(
+        val checked: Int,
+        val total: Int,
+        val pendingTransaction: PendingTransaction?
+)
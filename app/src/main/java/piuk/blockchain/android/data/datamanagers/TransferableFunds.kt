@@ -0,0 +1,21 @@
+package piuk.blockchain.android.data.datamanagers
+
+import piuk.blockchain.android.ui.send.PendingTransaction
+
+/**
+ * Emitted by [TransferFundsDataManager.getTransferableFunds] once every legacy address has been
+ * checked for sweepable funds.
+ *
+ * @param pendingTransactions The sweep for each address which has sweepable funds
+ * @param consolidated A single transaction which spends the outputs of every sweep, to be passed
+ * to [TransferFundsDataManager.sendConsolidatedPayment], or null if consolidation wasn't requested
+ * or there's only one address to sweep
+ * @param totalToSend The total amount which will be received, in satoshis
+ * @param totalFee The total fee which will be paid, in satoshis
+ */
+data class TransferableFunds(
+        val pendingTransactions: List<PendingTransaction>,
+        val consolidated: PendingTransaction?,
+        val totalToSend: Long,
+        val totalFee: Long
+)
@@ -34,6 +34,7 @@ import piuk.blockchain.android.data.rxjava.IgnorableDefaultObserver;
 import piuk.blockchain.android.data.rxjava.RxBus;
 import piuk.blockchain.android.data.rxjava.RxPinning;
 import piuk.blockchain.android.data.rxjava.RxUtil;
+import piuk.blockchain.android.util.tracing.Tracer;
 
 public class PayloadDataManager {
 
@@ -108,8 +109,9 @@ public class PayloadDataManager {
      * @return A {@link Completable} object
      */
     public Completable initializeAndDecrypt(String sharedKey, String guid, String password) {
-        return rxPinning.call(() -> payloadService.initializeAndDecrypt(sharedKey, guid, password))
-                .compose(RxUtil.applySchedulersToCompletable());
+        return Tracer.trace("initializeAndDecrypt",
+                rxPinning.call(() -> payloadService.initializeAndDecrypt(sharedKey, guid, password))
+                        .compose(RxUtil.applySchedulersToCompletable()));
     }
 
     /**
@@ -188,8 +190,9 @@ public class PayloadDataManager {
      * @see IgnorableDefaultObserver
      */
     public Completable updateAllBalances() {
-        return rxPinning.call(payloadService::updateAllBalances)
-                .compose(RxUtil.applySchedulersToCompletable());
+        return Tracer.trace("updateAllBalances",
+                rxPinning.call(payloadService::updateAllBalances)
+                        .compose(RxUtil.applySchedulersToCompletable()));
     }
 
     /**
@@ -495,8 +498,9 @@ public class PayloadDataManager {
      * loaded nodes
      */
     public Observable<Boolean> loadNodes() {
-        return rxPinning.call(payloadService::loadNodes)
-                .compose(RxUtil.applySchedulersToObservable());
+        return Tracer.trace("loadNodes",
+                rxPinning.call(payloadService::loadNodes)
+                        .compose(RxUtil.applySchedulersToObservable()));
     }
 
     /**
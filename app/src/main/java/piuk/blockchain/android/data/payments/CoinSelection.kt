@@ -0,0 +1,17 @@
+package piuk.blockchain.android.data.payments
+
+import info.blockchain.wallet.payment.SpendableUnspentOutputs
+import java.math.BigInteger
+
+/**
+ * The result of selecting coins for a BTC payment.
+ *
+ * @param amount The amount to be sent. When spending all funds this is the maximum available
+ * @param maximumAvailable The maximum amount which can be sent once the sweep fee is deducted
+ * @param spendableCoins The coins selected to pay [amount], including the absolute fee
+ */
+data class CoinSelection(
+        val amount: BigInteger,
+        val maximumAvailable: BigInteger,
+        val spendableCoins: SpendableUnspentOutputs
+)
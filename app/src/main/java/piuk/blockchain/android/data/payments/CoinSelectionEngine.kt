@@ -0,0 +1,85 @@
+package piuk.blockchain.android.data.payments
+
+import info.blockchain.api.data.UnspentOutputs
+import info.blockchain.wallet.payment.SpendableUnspentOutputs
+import org.apache.commons.lang3.tuple.Pair
+import piuk.blockchain.android.util.annotations.Mockable
+import java.io.UnsupportedEncodingException
+import java.math.BigInteger
+
+/**
+ * Memoises coin selection results for a single set of [UnspentOutputs]. Typing an amount on the
+ * send screen recalculates the spendable coins and maximum available amount for every keystroke,
+ * and both of these iterate over every unspent output, so recent results are kept until a
+ * different set of [UnspentOutputs] is passed in.
+ *
+ * The maximum available amount only depends on the fee per kB, so it is calculated once per fee.
+ * Spendable coins are kept for the most recent [maxEntries] amount and fee combinations.
+ */
+@Mockable
+class CoinSelectionEngine @JvmOverloads constructor(
+        private val paymentService: PaymentService,
+        private val maxEntries: Int = DEFAULT_MAX_ENTRIES
+) {
+
+    private var unspentOutputs: UnspentOutputs? = null
+    private val maximumAvailable = HashMap<BigInteger, Pair<BigInteger, BigInteger>>()
+    private val spendableCoins = object : LinkedHashMap<SelectionKey, SpendableUnspentOutputs>(
+            16,
+            0.75f,
+            true
+    ) {
+        override fun removeEldestEntry(
+                eldest: MutableMap.MutableEntry<SelectionKey, SpendableUnspentOutputs>?
+        ): Boolean = size > maxEntries
+    }
+
+    /**
+     * @see PaymentService.getSpendableCoins
+     */
+    @Synchronized
+    @Throws(UnsupportedEncodingException::class)
+    fun getSpendableCoins(
+            unspentCoins: UnspentOutputs,
+            paymentAmount: BigInteger,
+            feePerKb: BigInteger
+    ): SpendableUnspentOutputs {
+        resetIfChanged(unspentCoins)
+        val key = SelectionKey(paymentAmount, feePerKb)
+        return spendableCoins[key]
+                ?: paymentService.getSpendableCoins(unspentCoins, paymentAmount, feePerKb)
+                        .also { spendableCoins.put(key, it) }
+    }
+
+    /**
+     * @see PaymentService.getMaximumAvailable
+     */
+    @Synchronized
+    fun getMaximumAvailable(
+            unspentCoins: UnspentOutputs,
+            feePerKb: BigInteger
+    ): Pair<BigInteger, BigInteger> {
+        resetIfChanged(unspentCoins)
+        return maximumAvailable[feePerKb]
+                ?: paymentService.getMaximumAvailable(unspentCoins, feePerKb)
+                        .also { maximumAvailable.put(feePerKb, it) }
+    }
+
+    private fun resetIfChanged(unspentCoins: UnspentOutputs) {
+        // Compared by identity, as each fetch of unspent outputs produces a new object
+        if (unspentCoins !== unspentOutputs) {
+            unspentOutputs = unspentCoins
+            maximumAvailable.clear()
+            spendableCoins.clear()
+        }
+    }
+
+    private data class SelectionKey(val paymentAmount: BigInteger, val feePerKb: BigInteger)
+
+    companion object {
+
+        private const val DEFAULT_MAX_ENTRIES = 32
+
+    }
+
+}
@@ -13,6 +13,8 @@ import java.math.BigInteger;
 import java.util.List;
 
 import io.reactivex.Observable;
+import io.reactivex.android.schedulers.AndroidSchedulers;
+import io.reactivex.schedulers.Schedulers;
 import piuk.blockchain.android.data.rxjava.RxBus;
 import piuk.blockchain.android.data.rxjava.RxPinning;
 import piuk.blockchain.android.data.rxjava.RxUtil;
@@ -20,10 +22,12 @@ import piuk.blockchain.android.data.rxjava.RxUtil;
 public class SendDataManager {
 
     private PaymentService paymentService;
+    private CoinSelectionEngine coinSelectionEngine;
     private RxPinning rxPinning;
 
     public SendDataManager(PaymentService paymentService, RxBus rxBus) {
         this.paymentService = paymentService;
+        coinSelectionEngine = new CoinSelectionEngine(paymentService);
         rxPinning = new RxPinning(rxBus);
     }
 
@@ -98,7 +102,35 @@ public class SendDataManager {
                                                      BigInteger paymentAmount,
                                                      BigInteger feePerKb)
             throws UnsupportedEncodingException {
-        return paymentService.getSpendableCoins(unspentCoins, paymentAmount, feePerKb);
+        return coinSelectionEngine.getSpendableCoins(unspentCoins, paymentAmount, feePerKb);
+    }
+
+    /**
+     * Selects coins for a payment along with the maximum amount available to send, on the
+     * computation scheduler. Results are memoised for the given {@link UnspentOutputs}, so
+     * repeated calls whilst the user types an amount are cheap.
+     *
+     * @param unspentCoins  The addresses' {@link UnspentOutputs}
+     * @param paymentAmount The amount you wish to send, as a {@link BigInteger}. Ignored if
+     *                      spendAll is true
+     * @param feePerKb      The current fee per kB, as a {@link BigInteger}
+     * @param spendAll      Whether the maximum available amount should be sent
+     * @return An {@link Observable} wrapping a {@link CoinSelection}, observed on the main thread
+     */
+    public Observable<CoinSelection> getCoinSelection(UnspentOutputs unspentCoins,
+                                                      BigInteger paymentAmount,
+                                                      BigInteger feePerKb,
+                                                      boolean spendAll) {
+        return Observable.fromCallable(() -> {
+            BigInteger maximumAvailable =
+                    coinSelectionEngine.getMaximumAvailable(unspentCoins, feePerKb).getLeft();
+            BigInteger amount = spendAll ? maximumAvailable : paymentAmount;
+            return new CoinSelection(
+                    amount,
+                    maximumAvailable,
+                    coinSelectionEngine.getSpendableCoins(unspentCoins, amount, feePerKb));
+        }).subscribeOn(Schedulers.computation())
+                .observeOn(AndroidSchedulers.mainThread());
     }
 
     /**
@@ -113,7 +145,7 @@ public class SendDataManager {
      */
     public Pair<BigInteger, BigInteger> getMaximumAvailable(UnspentOutputs unspentCoins,
                                                             BigInteger feePerKb) {
-        return paymentService.getMaximumAvailable(unspentCoins, feePerKb);
+        return coinSelectionEngine.getMaximumAvailable(unspentCoins, feePerKb);
     }
 
     /**
@@ -2,9 +2,9 @@ package piuk.blockchain.android.data.settings.datastore
 
 import info.blockchain.wallet.api.data.Settings
 import io.reactivex.Observable
-import piuk.blockchain.android.data.stores.DefaultFetchStrategy
-import piuk.blockchain.android.data.stores.FreshFetchStrategy
+import piuk.blockchain.android.data.stores.StaleWhileRevalidateFetchStrategy
 import piuk.blockchain.android.util.annotations.Mockable
+import java.util.concurrent.TimeUnit
 
 @Mockable
 class SettingsDataStore(
@@ -12,10 +12,21 @@ class SettingsDataStore(
         private val webSource: Observable<Settings>
 ) {
 
-    fun getSettings(): Observable<Settings> =
-            DefaultFetchStrategy(webSource, memoryStore.getSettings(), memoryStore).fetch()
+    private val fetchStrategy = StaleWhileRevalidateFetchStrategy(
+            webSource,
+            Observable.defer { memoryStore.getSettings() },
+            memoryStore,
+            MAX_AGE_MILLIS
+    )
 
-    fun fetchSettings(): Observable<Settings> =
-            FreshFetchStrategy(webSource, memoryStore).fetch()
+    fun getSettings(): Observable<Settings> = fetchStrategy.fetch()
+
+    fun fetchSettings(): Observable<Settings> = fetchStrategy.refresh()
+
+    companion object {
+
+        private val MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(5)
+
+    }
 
 }
\ No newline at end of file
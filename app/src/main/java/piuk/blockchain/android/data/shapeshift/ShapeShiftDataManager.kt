@@ -24,6 +24,7 @@ class ShapeShiftDataManager(
         private val shapeShiftApi: ShapeShiftApi,
         private val shapeShiftDataStore: ShapeShiftDataStore,
         private val payloadManager: PayloadManager,
+        private val tradeStatusPoller: TradeStatusPoller,
         rxBus: RxBus
 ) {
 
@@ -198,6 +199,19 @@ class ShapeShiftDataManager(
                         }
             }.compose(RxUtil.applySchedulersToObservable())
 
+    /**
+     * Polls the [TradeStatusResponse] for a given [Trade] deposit address until the trade reaches
+     * a final state. Polls are shared with any other screen watching the same trade, back off
+     * while the status is unchanged and are paused while the app is in the background.
+     *
+     * @param depositAddress The [Trade] deposit address
+     * @return An [Observable] wrapping each polled [TradeStatusResponse] object, which completes
+     * once the trade is complete, failed or resolved
+     */
+    fun pollTradeStatus(depositAddress: String): Observable<TradeStatusResponse> =
+            tradeStatusPoller.watch(depositAddress, getTradeStatus(depositAddress))
+                    .compose(RxUtil.applySchedulersToObservable())
+
     /**
      * Gets the [TradeStatusResponse] for a given [Trade] deposit address and returns it along with the original trade.
      * Note that this won't
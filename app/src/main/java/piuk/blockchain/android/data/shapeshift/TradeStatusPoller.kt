@@ -0,0 +1,178 @@
+package piuk.blockchain.android.data.shapeshift
+
+import info.blockchain.wallet.shapeshift.data.Trade
+import info.blockchain.wallet.shapeshift.data.TradeStatusResponse
+import io.reactivex.Observable
+import io.reactivex.disposables.Disposable
+import io.reactivex.schedulers.Schedulers
+import io.reactivex.subjects.BehaviorSubject
+import piuk.blockchain.android.util.ApplicationLifeCycle
+import piuk.blockchain.android.util.annotations.Mockable
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Polls ShapeShift for the status of in-progress trades on a single shared schedule, so that every
+ * screen watching a trade receives the same responses and the request rate is capped no matter
+ * how many trades are being watched.
+ *
+ * Each trade is first polled on the next tick, then every [baseIntervalMillis] until its status
+ * stops changing, after which the interval doubles on every poll up to [maxIntervalMillis]. At most [maxRequestsPerTick] requests
+ * are started every [tickMillis]. Polling stops once a trade reaches a final state, and is paused
+ * entirely while the app is in the background.
+ */
+@Mockable
+class TradeStatusPoller @JvmOverloads constructor(
+        private val baseIntervalMillis: Long = DEFAULT_BASE_INTERVAL_MILLIS,
+        private val maxIntervalMillis: Long = DEFAULT_MAX_INTERVAL_MILLIS,
+        private val tickMillis: Long = DEFAULT_TICK_MILLIS,
+        private val maxRequestsPerTick: Int = DEFAULT_MAX_REQUESTS_PER_TICK
+) : ApplicationLifeCycle.LifeCycleListener {
+
+    private val entries = HashMap<String, Entry>()
+    private var ticker: Disposable? = null
+    private var paused = false
+
+    /**
+     * Returns an [Observable] which emits the status of a trade each time it is polled, and
+     * completes once the trade reaches a final state. Subscribers watching the same trade share
+     * the same polls, and late subscribers immediately receive the most recent status.
+     *
+     * @param depositAddress The deposit address of the [Trade]
+     * @param source An [Observable] which fetches the current status of the trade once
+     */
+    fun watch(depositAddress: String, source: Observable<TradeStatusResponse>): Observable<TradeStatusResponse> =
+            Observable.defer {
+                val entry = getOrCreateEntry(depositAddress, source)
+                entry.subject.doFinally { onUnwatched(depositAddress, entry) }
+            }
+
+    override fun onBecameForeground() {
+        synchronized(this) {
+            paused = false
+            if (entries.isNotEmpty()) startTicking()
+        }
+    }
+
+    override fun onBecameBackground() {
+        synchronized(this) {
+            paused = true
+            stopTicking()
+        }
+    }
+
+    @Synchronized
+    private fun getOrCreateEntry(depositAddress: String, source: Observable<TradeStatusResponse>): Entry {
+        val entry = entries.getOrPut(depositAddress) {
+            Entry(source, baseIntervalMillis, now())
+        }
+        entry.watchers++
+        if (!paused) startTicking()
+        return entry
+    }
+
+    @Synchronized
+    private fun onUnwatched(depositAddress: String, entry: Entry) {
+        entry.watchers--
+        if (entry.watchers == 0 && entries[depositAddress] === entry) {
+            entries.remove(depositAddress)
+            entry.cancelRequest()
+            if (entries.isEmpty()) stopTicking()
+        }
+    }
+
+    private fun startTicking() {
+        if (ticker == null) {
+            ticker = Observable.interval(tickMillis, TimeUnit.MILLISECONDS)
+                    .subscribe({ onTick() }, { Timber.e(it) })
+        }
+    }
+
+    private fun stopTicking() {
+        ticker?.dispose()
+        ticker = null
+        entries.values.forEach { it.cancelRequest() }
+    }
+
+    private fun onTick() {
+        val due = synchronized(this) {
+            val now = now()
+            entries.filter { (_, entry) -> !entry.inFlight && entry.nextPollAt <= now }
+                    .entries
+                    .sortedBy { it.value.nextPollAt }
+                    .take(maxRequestsPerTick)
+                    .onEach { it.value.inFlight = true }
+        }
+
+        due.forEach { (depositAddress, entry) ->
+            val request = entry.source.subscribe(
+                    { onResponse(depositAddress, entry, it) },
+                    {
+                        Timber.e(it)
+                        synchronized(this) { scheduleNextPoll(entry, false) }
+                    })
+            // Only the request still in flight is kept, so that finished polls can be collected
+            synchronized(this) { if (entry.inFlight) entry.request = request }
+        }
+    }
+
+    private fun onResponse(depositAddress: String, entry: Entry, response: TradeStatusResponse) {
+        val finished = isInFinalState(response.status)
+        synchronized(this) {
+            scheduleNextPoll(entry, entry.lastStatus != response.status)
+            entry.lastStatus = response.status
+            if (finished && entries[depositAddress] === entry) {
+                entries.remove(depositAddress)
+                if (entries.isEmpty()) stopTicking()
+            }
+        }
+
+        entry.subject.onNext(response)
+        if (finished) entry.subject.onComplete()
+    }
+
+    private fun scheduleNextPoll(entry: Entry, statusChanged: Boolean) {
+        entry.inFlight = false
+        entry.request = null
+        entry.intervalMillis = when {
+            statusChanged -> baseIntervalMillis
+            else -> Math.min(entry.intervalMillis * 2, maxIntervalMillis)
+        }
+        entry.nextPollAt = now() + entry.intervalMillis
+    }
+
+    private fun isInFinalState(status: Trade.STATUS?) = when (status) {
+        Trade.STATUS.NO_DEPOSITS, Trade.STATUS.RECEIVED -> false
+        else -> true
+    }
+
+    private fun now() = Schedulers.computation().now(TimeUnit.MILLISECONDS)
+
+    private class Entry(
+            val source: Observable<TradeStatusResponse>,
+            var intervalMillis: Long,
+            var nextPollAt: Long
+    ) {
+        val subject: BehaviorSubject<TradeStatusResponse> = BehaviorSubject.create()
+        var lastStatus: Trade.STATUS? = null
+        var inFlight = false
+        var request: Disposable? = null
+        var watchers = 0
+
+        fun cancelRequest() {
+            request?.dispose()
+            request = null
+            inFlight = false
+        }
+    }
+
+    companion object {
+
+        private val DEFAULT_BASE_INTERVAL_MILLIS = TimeUnit.SECONDS.toMillis(10)
+        private val DEFAULT_MAX_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(2)
+        private val DEFAULT_TICK_MILLIS = TimeUnit.SECONDS.toMillis(1)
+        private const val DEFAULT_MAX_REQUESTS_PER_TICK = 1
+
+    }
+
+}
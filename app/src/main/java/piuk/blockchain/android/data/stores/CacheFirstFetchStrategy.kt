@@ -0,0 +1,32 @@
+package piuk.blockchain.android.data.stores
+
+import io.reactivex.Observable
+import timber.log.Timber
+
+/**
+ * Emits data from local storage immediately if found, and then always triggers a webcall and
+ * stores the result. Errors reading from local storage are ignored so that the web source is
+ * still returned.
+ */
+class CacheFirstFetchStrategy<T>(
+        private val webSource: Observable<T>,
+        private val cacheSource: Observable<Optional<T>>,
+        private val cacheStore: PersistentStore<T>
+) : FetchStrategy<T>() {
+
+    /**
+     * Return cached data if present, followed by the result of the web source
+     */
+    override fun fetch(): Observable<T> = Observable.concat(
+            cacheSource.doOnError { Timber.e(it) }
+                    .onErrorReturn { Optional.None }
+                    .flatMap { optional ->
+                        when (optional) {
+                            is Optional.Some -> Observable.just(optional.element)
+                            else -> Observable.empty()
+                        }
+                    },
+            webSource.flatMap(cacheStore::store)
+    )
+
+}
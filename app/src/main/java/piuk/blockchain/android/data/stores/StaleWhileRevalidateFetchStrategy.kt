@@ -0,0 +1,84 @@
+package piuk.blockchain.android.data.stores
+
+import io.reactivex.Observable
+import io.reactivex.Scheduler
+import io.reactivex.schedulers.Schedulers
+import piuk.blockchain.android.data.rxjava.IgnorableDefaultObserver
+import java.util.concurrent.TimeUnit
+
+/**
+ * Returns data from local storage if found, and refreshes it in the background once it is older
+ * than [maxAgeMillis]. If nothing is stored, a webcall is triggered and the result stored.
+ *
+ * Unlike the other strategies this class is stateful and should be held for the lifetime of the
+ * store it wraps, as concurrent webcalls are merged into a single shared request so that several
+ * subscribers don't trigger duplicate requests.
+ */
+class StaleWhileRevalidateFetchStrategy<T>(
+        private val webSource: Observable<T>,
+        private val memorySource: Observable<Optional<T>>,
+        private val memoryStore: PersistentStore<T>,
+        private val maxAgeMillis: Long,
+        private val scheduler: Scheduler = Schedulers.computation()
+) : FetchStrategy<T>() {
+
+    private val lock = Any()
+    private var inFlight: Observable<T>? = null
+    private var requestCount = 0L
+    @Volatile private var lastUpdated = 0L
+
+    /**
+     * Return data from memory, refreshing in the background if stale, or otherwise from the web
+     */
+    override fun fetch(): Observable<T> = memorySource.flatMap { optional ->
+        when (optional) {
+            is Optional.Some -> {
+                if (isStale()) refreshInBackground()
+                Observable.just(optional.element)
+            }
+            else -> getSharedRequest()
+        }
+    }
+
+    /**
+     * Forces a new webcall and stores the result, regardless of the age of the stored data. Any
+     * request already in flight may predate a change made on the server, so it isn't reused, but
+     * subsequent calls to [fetch] will share this request instead.
+     */
+    fun refresh(): Observable<T> = synchronized(lock) {
+        createRequest().also { inFlight = it }
+    }
+
+    /**
+     * Marks the stored data as stale so that the next call to [fetch] triggers a refresh.
+     */
+    fun invalidate() {
+        lastUpdated = 0L
+    }
+
+    private fun getSharedRequest(): Observable<T> = synchronized(lock) {
+        inFlight ?: createRequest().also { inFlight = it }
+    }
+
+    private fun createRequest(): Observable<T> {
+        val request = ++requestCount
+        return webSource.flatMap(memoryStore::store)
+                .doOnNext { lastUpdated = scheduler.now(TimeUnit.MILLISECONDS) }
+                .doFinally {
+                    synchronized(lock) {
+                        // Only clear the reference if a newer request hasn't replaced it
+                        if (requestCount == request) inFlight = null
+                    }
+                }
+                .replay(1)
+                .refCount()
+    }
+
+    private fun refreshInBackground() {
+        getSharedRequest().subscribeOn(Schedulers.io())
+                .subscribe(IgnorableDefaultObserver<T>())
+    }
+
+    private fun isStale() = scheduler.now(TimeUnit.MILLISECONDS) - lastUpdated > maxAgeMillis
+
+}
@@ -0,0 +1,288 @@
+package piuk.blockchain.android.data.stores
+
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import io.reactivex.Observable
+import org.spongycastle.util.encoders.Base64
+import org.spongycastle.util.encoders.Hex
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.data.transactions.CachedDisplayable
+import piuk.blockchain.android.data.transactions.Displayable
+import piuk.blockchain.android.util.annotations.Mockable
+import timber.log.Timber
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.math.BigInteger
+import java.security.GeneralSecurityException
+import java.security.MessageDigest
+import java.security.SecureRandom
+import javax.crypto.Cipher
+import javax.crypto.Mac
+import javax.crypto.SecretKeyFactory
+import javax.crypto.spec.IvParameterSpec
+import javax.crypto.spec.PBEKeySpec
+import javax.crypto.spec.SecretKeySpec
+
+/**
+ * Persists lists of [Displayable] objects to disk, one file per account, so that the balance
+ * screen can show the last known transactions before the network has responded. Lists are
+ * written in a compact binary format, encrypted with AES and authenticated with an HMAC, using keys
+ * derived from the wallet password, which means that the cache can only be read once the wallet is
+ * decrypted and a corrupted or tampered file is never deserialized. The keys are derived once per
+ * password and kept in memory until [invalidate] is called, as deriving them is far slower than
+ * the encryption itself.
+ */
+@Mockable
+class TransactionDiskStore(private val directory: File) {
+
+    private val secureRandom = SecureRandom()
+    private var derivedKeys: DerivedKeys? = null
+
+    /**
+     * Returns the cached list of transactions for an account, or [Optional.None] if nothing is
+     * cached or the cache can't be decrypted with the supplied password.
+     *
+     * @param accountKey A key uniquely identifying the account, ie an xPub
+     * @param password The password used to encrypt the cache
+     */
+    fun read(accountKey: String, password: String): Observable<Optional<List<Displayable>>> =
+            Observable.fromCallable {
+                val file = getFile(accountKey)
+                if (!file.exists()) return@fromCallable Optional.None
+
+                val decrypted = decrypt(Base64.decode(file.readText()), getKeys(password))
+                        ?: return@fromCallable Optional.None
+                deserialize(decrypted)?.let { Optional.Some(it) } ?: Optional.None
+            }
+
+    /**
+     * Encrypts and writes a list of transactions for an account, replacing any previous entry.
+     *
+     * @return The list of transactions that was stored
+     */
+    fun store(
+            accountKey: String,
+            password: String,
+            transactions: List<Displayable>
+    ): Observable<List<Displayable>> = Observable.fromCallable {
+        val keys = getKeys(password)
+        val encrypted = encrypt(serialize(transactions.take(MAX_CACHED_TRANSACTIONS)), keys)
+
+        // Write to a temporary file first so that a crash can't leave a truncated cache behind
+        val file = getFile(accountKey)
+        val temp = File(directory, "${file.name}.tmp")
+        temp.writeText(Base64.toBase64String(encrypted))
+        if (!temp.renameTo(file)) {
+            Timber.e("Failed to replace cached transactions")
+            temp.delete()
+        }
+        transactions
+    }
+
+    /**
+     * Returns a [PersistentStore] bound to a single account, for use with a [FetchStrategy].
+     * Failing to write the cache is logged but doesn't prevent the data from being returned.
+     */
+    fun forAccount(accountKey: String, password: String): PersistentStore<List<Displayable>> =
+            object : PersistentStore<List<Displayable>> {
+
+                override fun store(data: List<Displayable>): Observable<List<Displayable>> =
+                        this@TransactionDiskStore.store(accountKey, password, data)
+                                .doOnError { Timber.e(it) }
+                                .onErrorReturnItem(data)
+
+                override fun invalidate() {
+                    getFile(accountKey).delete()
+                }
+
+            }
+
+    /**
+     * Deletes all cached transactions. This should be called whenever the wallet is unpaired.
+     */
+    @Synchronized
+    fun invalidate() {
+        derivedKeys = null
+        directory.listFiles()?.forEach { it.delete() }
+    }
+
+    /**
+     * Returns the encryption and MAC keys for a password, deriving them only if the password has
+     * changed since the last call. The salt is generated once and stored alongside the cache.
+     */
+    @Synchronized
+    private fun getKeys(password: String): DerivedKeys {
+        val passwordHash = sha256(password)
+        derivedKeys?.let { if (MessageDigest.isEqual(it.passwordHash, passwordHash)) return it }
+
+        if (!directory.exists()) directory.mkdirs()
+        val saltFile = File(directory, SALT_FILE_NAME)
+        val salt = if (saltFile.exists()) {
+            saltFile.readBytes()
+        } else {
+            ByteArray(SALT_LENGTH).also {
+                secureRandom.nextBytes(it)
+                saltFile.writeBytes(it)
+            }
+        }
+
+        // Derive enough material for both keys, so that the cipher and MAC never share a key
+        val keySpec = PBEKeySpec(password.toCharArray(), salt, PBKDF2_ITERATIONS, KEY_LENGTH_BITS * 2)
+        val encoded = SecretKeyFactory.getInstance(KEY_DERIVATION_ALGORITHM).generateSecret(keySpec).encoded
+        keySpec.clearPassword()
+        val keyLength = KEY_LENGTH_BITS / 8
+        return DerivedKeys(
+                passwordHash,
+                SecretKeySpec(encoded, 0, keyLength, "AES"),
+                SecretKeySpec(encoded, keyLength, keyLength, MAC_ALGORITHM)
+        ).also { derivedKeys = it }
+    }
+
+    /**
+     * Encrypts data with a random IV, and appends a MAC over the IV and ciphertext.
+     */
+    private fun encrypt(data: ByteArray, keys: DerivedKeys): ByteArray {
+        val iv = ByteArray(IV_LENGTH).also { secureRandom.nextBytes(it) }
+        val cipher = Cipher.getInstance(CIPHER_TRANSFORMATION)
+        cipher.init(Cipher.ENCRYPT_MODE, keys.encryptionKey, IvParameterSpec(iv))
+        val encrypted = iv + cipher.doFinal(data)
+        return encrypted + mac(encrypted, 0, encrypted.size, keys)
+    }
+
+    /**
+     * Returns the decrypted data, or null if it wasn't encrypted with [keys] or has been modified
+     * since. The MAC is checked before anything is decrypted.
+     */
+    private fun decrypt(data: ByteArray, keys: DerivedKeys): ByteArray? {
+        if (data.size <= IV_LENGTH + MAC_LENGTH) return null
+        val macOffset = data.size - MAC_LENGTH
+        val expectedMac = mac(data, 0, macOffset, keys)
+        if (!MessageDigest.isEqual(expectedMac, data.copyOfRange(macOffset, data.size))) return null
+
+        return try {
+            val cipher = Cipher.getInstance(CIPHER_TRANSFORMATION)
+            cipher.init(Cipher.DECRYPT_MODE, keys.encryptionKey, IvParameterSpec(data, 0, IV_LENGTH))
+            cipher.doFinal(data, IV_LENGTH, macOffset - IV_LENGTH)
+        } catch (e: GeneralSecurityException) {
+            null
+        }
+    }
+
+    private fun mac(data: ByteArray, offset: Int, length: Int, keys: DerivedKeys): ByteArray {
+        val mac = Mac.getInstance(MAC_ALGORITHM)
+        mac.init(keys.macKey)
+        mac.update(data, offset, length)
+        return mac.doFinal()
+    }
+
+    private fun sha256(value: String): ByteArray =
+            MessageDigest.getInstance("SHA-256").digest(value.toByteArray())
+
+    private fun getFile(accountKey: String): File {
+        // Hash the key so that xPubs aren't visible in file names
+        return File(directory, Hex.toHexString(sha256(accountKey)))
+    }
+
+    private fun serialize(transactions: List<Displayable>): ByteArray {
+        val bytes = ByteArrayOutputStream()
+        DataOutputStream(bytes).use { output ->
+            output.writeInt(FORMAT_VERSION)
+            output.writeInt(transactions.size)
+            for (tx in transactions) {
+                output.writeUTF(tx.cryptoCurrency.name)
+                output.writeUTF(tx.direction.name)
+                output.writeLong(tx.timeStamp)
+                writeBigInteger(output, tx.total)
+                writeBigInteger(output, tx.fee)
+                output.writeUTF(tx.hash)
+                writeMap(output, tx.inputsMap)
+                writeMap(output, tx.outputsMap)
+                output.writeInt(tx.confirmations)
+                output.writeBoolean(tx.watchOnly)
+                output.writeBoolean(tx.doubleSpend)
+                output.writeBoolean(tx.isPending)
+            }
+        }
+        return bytes.toByteArray()
+    }
+
+    private fun deserialize(data: ByteArray): List<Displayable>? {
+        DataInputStream(ByteArrayInputStream(data)).use { input ->
+            if (input.readInt() != FORMAT_VERSION) return null
+
+            val size = input.readInt()
+            val transactions = ArrayList<Displayable>(size)
+            for (i in 0 until size) {
+                transactions.add(CachedDisplayable(
+                        cryptoCurrency = CryptoCurrencies.valueOf(input.readUTF()),
+                        direction = TransactionSummary.Direction.valueOf(input.readUTF()),
+                        timeStamp = input.readLong(),
+                        total = readBigInteger(input),
+                        fee = readBigInteger(input),
+                        hash = input.readUTF(),
+                        inputsMap = readMap(input),
+                        outputsMap = readMap(input),
+                        confirmations = input.readInt(),
+                        watchOnly = input.readBoolean(),
+                        doubleSpend = input.readBoolean(),
+                        isPending = input.readBoolean()
+                ))
+            }
+            return transactions
+        }
+    }
+
+    private fun writeBigInteger(output: DataOutputStream, value: BigInteger) {
+        val bytes = value.toByteArray()
+        output.writeShort(bytes.size)
+        output.write(bytes)
+    }
+
+    private fun readBigInteger(input: DataInputStream): BigInteger {
+        val bytes = ByteArray(input.readUnsignedShort())
+        input.readFully(bytes)
+        return BigInteger(bytes)
+    }
+
+    private fun writeMap(output: DataOutputStream, map: HashMap<String, BigInteger>) {
+        output.writeInt(map.size)
+        for ((key, value) in map) {
+            output.writeUTF(key)
+            writeBigInteger(output, value)
+        }
+    }
+
+    private fun readMap(input: DataInputStream): HashMap<String, BigInteger> {
+        val size = input.readInt()
+        val map = HashMap<String, BigInteger>(size)
+        for (i in 0 until size) {
+            map.put(input.readUTF(), readBigInteger(input))
+        }
+        return map
+    }
+
+    companion object {
+
+        private const val FORMAT_VERSION = 3
+        private const val PBKDF2_ITERATIONS = 5000
+        private const val MAX_CACHED_TRANSACTIONS = 100
+        private const val SALT_FILE_NAME = "salt"
+        private const val SALT_LENGTH = 16
+        private const val IV_LENGTH = 16
+        private const val KEY_LENGTH_BITS = 256
+        private const val KEY_DERIVATION_ALGORITHM = "PBKDF2WithHmacSHA1"
+        private const val CIPHER_TRANSFORMATION = "AES/CBC/PKCS5Padding"
+        private const val MAC_ALGORITHM = "HmacSHA256"
+        private const val MAC_LENGTH = 32
+
+    }
+
+    private class DerivedKeys(
+            val passwordHash: ByteArray,
+            val encryptionKey: SecretKeySpec,
+            val macKey: SecretKeySpec
+    )
+
+}
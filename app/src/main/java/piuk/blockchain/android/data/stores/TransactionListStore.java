@@ -1,37 +1,247 @@
 package piuk.blockchain.android.data.stores;
 
+import android.support.annotation.Nullable;
+
 import info.blockchain.wallet.multiaddress.TransactionSummary;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
 
 import piuk.blockchain.android.data.transactions.Displayable;
-import piuk.blockchain.android.data.transactions.DisplayableDateComparator;
+import piuk.blockchain.android.data.transactions.TransactionChangeSet;
 
 /**
- * Contains both a list of {@link TransactionSummary} objects and also a Map of transaction
- * confirmations keyed to their Transaction's hash.
+ * Contains a date-ordered set of {@link Displayable} objects indexed by their hash, and also a Map
+ * of transaction confirmations keyed to their Transaction's hash.
+ * <p>
+ * Transactions are held in a {@link TreeMap} ordered newest first, so inserting or removing a
+ * single transaction is O(log n) rather than re-sorting the entire list. A second {@link HashMap}
+ * keyed by hash allows O(1) lookups and replacement of existing entries. {@link #getList()}
+ * returns an immutable snapshot which is only rebuilt after the store has been modified.
  */
-public class TransactionListStore extends ListStore<Displayable> {
+public class TransactionListStore {
 
+    private final TreeMap<Key, Displayable> sortedTransactions = new TreeMap<>(new KeyComparator());
+    private final HashMap<String, Key> keysByHash = new HashMap<>();
     private HashMap<String, Integer> txConfirmationsMap = new HashMap<>();
+    private List<Displayable> snapshot = Collections.emptyList();
+    private boolean snapshotDirty = false;
+    private long insertionCount = 0;
+    private String accountKey;
 
     public TransactionListStore() {
         // Empty constructor
     }
 
-    public void insertTransactionIntoListAndSort(Displayable transaction) {
-        insertObjectIntoList(transaction);
-        getTxConfirmationsMap().put(transaction.getHash(), transaction.getConfirmations());
-        sort(new DisplayableDateComparator());
+    /**
+     * Returns an immutable, date-sorted snapshot of the stored transactions, newest first. The
+     * same instance is returned until the store is next modified.
+     */
+    public synchronized List<Displayable> getList() {
+        if (snapshotDirty) {
+            snapshot = Collections.unmodifiableList(new ArrayList<>(sortedTransactions.values()));
+            snapshotDirty = false;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the number of stored transactions.
+     */
+    public synchronized int size() {
+        return sortedTransactions.size();
+    }
+
+    /**
+     * Returns the {@link Displayable} with the given hash, or null if not found.
+     */
+    @Nullable
+    public synchronized Displayable getTransaction(String hash) {
+        Key key = keysByHash.get(hash);
+        return key != null ? sortedTransactions.get(key) : null;
+    }
+
+    public synchronized boolean containsTransaction(String hash) {
+        return keysByHash.containsKey(hash);
+    }
+
+    public synchronized void clearList() {
+        sortedTransactions.clear();
+        keysByHash.clear();
+        accountKey = null;
+        markDirty();
+    }
+
+    /**
+     * Inserts a single {@link Displayable}, replacing any existing transaction with the same hash.
+     */
+    public synchronized void insertTransactionIntoListAndSort(Displayable transaction) {
+        insert(transaction);
+        markDirty();
+    }
+
+    /**
+     * Inserts a list of {@link Displayable} objects, replacing any existing transactions with the
+     * same hashes.
+     */
+    public synchronized void insertTransactions(List<Displayable> transactions) {
+        if (transactions == null) return;
+
+        for (Displayable transaction : transactions) {
+            insert(transaction);
+        }
+        markDirty();
+    }
+
+    /**
+     * Merges a freshly fetched list of {@link Displayable} objects into the store. Transactions
+     * which are no longer returned are removed unless they are still pending, new transactions
+     * are inserted, and existing transactions are only replaced if their confirmations, value or
+     * state have changed. Transactions whose timestamp has changed are treated as a removal
+     * followed by an insertion.
+     *
+     * @param transactions The complete list of transactions as returned by the server
+     * @return A {@link TransactionChangeSet} describing the changes made to the list
+     */
+    public synchronized TransactionChangeSet mergeTransactions(List<Displayable> transactions) {
+        return merge(transactions, Long.MIN_VALUE);
+    }
+
+    /**
+     * Merges the first page of a longer list of transactions into the store, as in {@link
+     * #mergeTransactions(List)}. Transactions older than the oldest transaction in the page are
+     * left untouched, as they belong to pages which weren't fetched.
+     *
+     * @param transactions The newest transactions as returned by the server
+     * @return A {@link TransactionChangeSet} describing the changes made to the list
+     */
+    public synchronized TransactionChangeSet mergeFirstPage(List<Displayable> transactions) {
+        if (transactions.isEmpty()) return merge(transactions, Long.MIN_VALUE);
+
+        long oldest = Long.MAX_VALUE;
+        for (Displayable transaction : transactions) {
+            oldest = Math.min(oldest, transaction.getTimeStamp());
+        }
+        return merge(transactions, oldest);
+    }
+
+    /**
+     * Merges an older page of transactions into the store. Nothing is removed, so already loaded
+     * transactions are only ever inserted or updated.
+     *
+     * @param transactions A page of transactions as returned by the server
+     * @return A {@link TransactionChangeSet} describing the changes made to the list
+     */
+    public synchronized TransactionChangeSet appendPage(List<Displayable> transactions) {
+        return merge(transactions, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of stored transactions which aren't pending, which is the offset at which
+     * the next page of transactions should be requested from the server.
+     */
+    public synchronized int getSettledCount() {
+        int count = 0;
+        for (Displayable transaction : sortedTransactions.values()) {
+            if (!transaction.isPending()) count++;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the key of the account the stored transactions belong to, or null if not set.
+     */
+    @Nullable
+    public synchronized String getAccountKey() {
+        return accountKey;
+    }
+
+    public synchronized void setAccountKey(@Nullable String accountKey) {
+        this.accountKey = accountKey;
     }
 
-    public void insertTransactions(List<Displayable> transactions) {
-        insertBulk(transactions);
-        for (Displayable summary : transactions) {
-            getTxConfirmationsMap().put(summary.getHash(), summary.getConfirmations());
+    /**
+     * @param removeNewerThan Transactions missing from the fetched list are only removed if their
+     *                        timestamp is newer than this
+     */
+    private TransactionChangeSet merge(List<Displayable> transactions, long removeNewerThan) {
+        List<Displayable> previous = getList();
+
+        LinkedHashMap<String, Displayable> fetched = new LinkedHashMap<>();
+        for (Displayable transaction : transactions) {
+            fetched.put(transaction.getHash(), transaction);
+        }
+
+        Set<String> removed = new HashSet<>();
+        Set<String> inserted = new HashSet<>();
+        Set<String> changed = new HashSet<>();
+
+        for (Displayable transaction : previous) {
+            if (!fetched.containsKey(transaction.getHash())
+                    && !transaction.isPending()
+                    && transaction.getTimeStamp() > removeNewerThan) {
+                Key key = keysByHash.remove(transaction.getHash());
+                sortedTransactions.remove(key);
+                txConfirmationsMap.remove(transaction.getHash());
+                removed.add(transaction.getHash());
+            }
         }
-        sort(new DisplayableDateComparator());
+
+        for (Displayable transaction : fetched.values()) {
+            String hash = transaction.getHash();
+            Key key = keysByHash.get(hash);
+            if (key == null) {
+                insert(transaction);
+                inserted.add(hash);
+            } else if (key.timeStamp != transaction.getTimeStamp()) {
+                insert(transaction);
+                removed.add(hash);
+                inserted.add(hash);
+            } else if (hasChanged(sortedTransactions.get(key), transaction)) {
+                sortedTransactions.put(key, transaction);
+                txConfirmationsMap.put(hash, transaction.getConfirmations());
+                changed.add(hash);
+            } else {
+                txConfirmationsMap.put(hash, transaction.getConfirmations());
+            }
+        }
+
+        if (removed.isEmpty() && inserted.isEmpty() && changed.isEmpty()) {
+            return new TransactionChangeSet(
+                    previous,
+                    Collections.emptyList(),
+                    Collections.emptyList(),
+                    Collections.emptyList());
+        }
+
+        markDirty();
+        List<Displayable> current = getList();
+        return new TransactionChangeSet(
+                current,
+                getPositions(previous, removed),
+                getPositions(current, inserted),
+                getPositions(current, changed));
+    }
+
+    /**
+     * Removes the {@link Displayable} with the given hash if present.
+     *
+     * @return The removed transaction, or null if not found
+     */
+    @Nullable
+    public synchronized Displayable removeTransaction(String hash) {
+        Key key = keysByHash.remove(hash);
+        if (key == null) return null;
+
+        markDirty();
+        return sortedTransactions.remove(key);
     }
 
     /**
@@ -42,4 +252,71 @@ public class TransactionListStore extends ListStore<Displayable> {
         return txConfirmationsMap;
     }
 
+    private void insert(Displayable transaction) {
+        Key existing = keysByHash.remove(transaction.getHash());
+        if (existing != null) {
+            sortedTransactions.remove(existing);
+        }
+
+        // The timestamp is captured so that the entry can still be located if it changes later
+        Key key = new Key(transaction.getTimeStamp(), insertionCount++);
+        sortedTransactions.put(key, transaction);
+        keysByHash.put(transaction.getHash(), key);
+        txConfirmationsMap.put(transaction.getHash(), transaction.getConfirmations());
+    }
+
+    private static boolean hasChanged(Displayable old, Displayable updated) {
+        return old.getConfirmations() != updated.getConfirmations()
+                || old.isPending() != updated.isPending()
+                || old.getDoubleSpend() != updated.getDoubleSpend()
+                || old.getWatchOnly() != updated.getWatchOnly()
+                || old.getDirection() != updated.getDirection()
+                || !old.getTotal().equals(updated.getTotal())
+                || !old.getFee().equals(updated.getFee());
+    }
+
+    private static List<Integer> getPositions(List<Displayable> transactions, Set<String> hashes) {
+        if (hashes.isEmpty()) return Collections.emptyList();
+
+        List<Integer> positions = new ArrayList<>(hashes.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            if (hashes.contains(transactions.get(i).getHash())) {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+
+    private void markDirty() {
+        snapshotDirty = true;
+    }
+
+    private static final class Key {
+
+        final long timeStamp;
+        final long sequence;
+
+        Key(long timeStamp, long sequence) {
+            this.timeStamp = timeStamp;
+            this.sequence = sequence;
+        }
+
+    }
+
+    /**
+     * Orders newest first, falling back to insertion order for identical timestamps so that the
+     * ordering is stable.
+     */
+    private static final class KeyComparator implements Comparator<Key> {
+
+        @Override
+        public int compare(Key k1, Key k2) {
+            if (k1.timeStamp != k2.timeStamp) {
+                return k1.timeStamp > k2.timeStamp ? -1 : 1;
+            }
+            return Long.compare(k1.sequence, k2.sequence);
+        }
+
+    }
+
 }
@@ -0,0 +1,27 @@
+package piuk.blockchain.android.data.transactions
+
+/**
+ * Describes the result of merging freshly fetched transactions into the
+ * [piuk.blockchain.android.data.stores.TransactionListStore].
+ *
+ * @param transactions The full, date-sorted list of transactions after the merge
+ * @param removedPositions Positions in the previous list of transactions which were removed,
+ * in ascending order
+ * @param insertedPositions Positions in [transactions] of newly inserted items, in ascending order
+ * @param changedPositions Positions in [transactions] of items whose confirmations, value or state
+ * changed, in ascending order
+ */
+data class TransactionChangeSet(
+        val transactions: List<Displayable>,
+        val removedPositions: List<Int>,
+        val insertedPositions: List<Int>,
+        val changedPositions: List<Int>
+) {
+
+    /**
+     * Returns true if the merge didn't alter the list of transactions.
+     */
+    fun isEmpty(): Boolean =
+            removedPositions.isEmpty() && insertedPositions.isEmpty() && changedPositions.isEmpty()
+
+}
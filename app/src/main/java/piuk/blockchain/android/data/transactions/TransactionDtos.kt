@@ -91,4 +91,24 @@ data class BtcDisplayable(
     override val isPending: Boolean
         get() = transactionSummary.isPending
 
-}
\ No newline at end of file
+}
+
+/**
+ * A [Displayable] restored from the on-disk transaction cache. All values are held directly, as
+ * the underlying [TransactionSummary] or [EthTransaction] isn't persisted.
+ */
+@Mockable
+data class CachedDisplayable(
+        override val cryptoCurrency: CryptoCurrencies,
+        override val direction: TransactionSummary.Direction,
+        override val timeStamp: Long,
+        override val total: BigInteger,
+        override val fee: BigInteger,
+        override val hash: String,
+        override val inputsMap: HashMap<String, BigInteger>,
+        override val outputsMap: HashMap<String, BigInteger>,
+        override val confirmations: Int,
+        override val watchOnly: Boolean,
+        override val doubleSpend: Boolean,
+        override val isPending: Boolean
+) : Displayable()
@@ -0,0 +1,93 @@
+package piuk.blockchain.android.data.websocket;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.reactivex.Completable;
+import io.reactivex.Observable;
+import io.reactivex.Scheduler;
+import io.reactivex.disposables.Disposable;
+import io.reactivex.functions.Action;
+import io.reactivex.subjects.PublishSubject;
+import io.reactivex.subjects.Subject;
+import timber.log.Timber;
+
+/**
+ * Coalesces bursts of refresh requests into a single refresh. Requests are debounced over a
+ * window, so that a burst of websocket messages results in one refresh once the burst has ended.
+ * A burst which never ends can't hold off refreshing indefinitely though, as a refresh is always
+ * started within a maximum latency of the first request which is still waiting. Only one refresh
+ * runs at a time; if a new request arrives whilst a refresh is in flight, the
+ * in-flight refresh is cancelled in favour of a fresh one, as its result would be superseded.
+ */
+class RefreshScheduler {
+
+    private static final Object REFRESH_REQUEST = new Object();
+    private static final Object CANCEL_REQUEST = new Object();
+    private static final long NONE_PENDING = -1L;
+
+    private final Subject<Object> requests = PublishSubject.create().toSerialized();
+    private final AtomicLong pendingSince = new AtomicLong(NONE_PENDING);
+    private final Disposable disposable;
+
+    /**
+     * @param refresh     The {@link Completable} which performs the refresh. This is resubscribed
+     *                    for every refresh, so should be deferred
+     * @param onRefreshed Called after each successful refresh
+     * @param window      The period of inactivity after which a refresh is started
+     * @param maxLatency  The longest a request can wait for a refresh to start, however many
+     *                    requests follow it
+     * @param unit        The {@link TimeUnit} of the window and max latency
+     * @param scheduler   The {@link Scheduler} on which to time the window
+     */
+    RefreshScheduler(Completable refresh,
+                     Action onRefreshed,
+                     long window,
+                     long maxLatency,
+                     TimeUnit unit,
+                     Scheduler scheduler) {
+
+        // Cancellations skip the window, but still replace any pending request
+        disposable = requests.debounce(request -> {
+            if (request == CANCEL_REQUEST) {
+                pendingSince.set(NONE_PENDING);
+                return Observable.<Long>empty();
+            }
+
+            long now = scheduler.now(unit);
+            pendingSince.compareAndSet(NONE_PENDING, now);
+            long untilMaxLatency = pendingSince.get() + maxLatency - now;
+            return Observable.timer(Math.max(0, Math.min(window, untilMaxLatency)), unit, scheduler);
+        })
+                .doOnNext(request -> pendingSince.set(NONE_PENDING))
+                .switchMap(request -> request == CANCEL_REQUEST
+                        ? Observable.<Object>empty()
+                        : refresh.andThen(Observable.just(request))
+                                .doOnError(throwable -> Timber.e(throwable, "Refresh failed"))
+                                .onErrorResumeNext(Observable.empty()))
+                .subscribe(
+                        request -> onRefreshed.run(),
+                        throwable -> Timber.e(throwable, "Refresh scheduler failed"));
+    }
+
+    void requestRefresh() {
+        requests.onNext(REFRESH_REQUEST);
+    }
+
+    /**
+     * Drops any pending request and cancels any in-flight refresh. Later requests are still
+     * handled as normal.
+     */
+    void cancel() {
+        requests.onNext(CANCEL_REQUEST);
+    }
+
+    /**
+     * Cancels any in-flight refresh and stops handling requests altogether. Later requests are
+     * ignored.
+     */
+    void dispose() {
+        disposable.dispose();
+    }
+
+}
@@ -4,15 +4,12 @@ import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.content.Context;
 import android.content.Intent;
+import android.support.annotation.Nullable;
 import android.support.v4.content.LocalBroadcastManager;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
 import org.web3j.utils.Convert;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.concurrent.TimeUnit;
@@ -22,6 +19,7 @@ import io.reactivex.Observable;
 import io.reactivex.ObservableSource;
 import io.reactivex.android.schedulers.AndroidSchedulers;
 import io.reactivex.disposables.CompositeDisposable;
+import io.reactivex.schedulers.Schedulers;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
@@ -35,6 +33,10 @@ import piuk.blockchain.android.data.payload.PayloadDataManager;
 import piuk.blockchain.android.data.rxjava.IgnorableDefaultObserver;
 import piuk.blockchain.android.data.rxjava.RxBus;
 import piuk.blockchain.android.data.rxjava.RxUtil;
+import piuk.blockchain.android.data.websocket.models.BtcWebsocketInput;
+import piuk.blockchain.android.data.websocket.models.BtcWebsocketMessage;
+import piuk.blockchain.android.data.websocket.models.BtcWebsocketOutput;
+import piuk.blockchain.android.data.websocket.models.BtcWebsocketPayload;
 import piuk.blockchain.android.data.websocket.models.EthWebsocketResponse;
 import piuk.blockchain.android.ui.balance.BalanceFragment;
 import piuk.blockchain.android.ui.customviews.ToastCustom;
@@ -48,6 +50,8 @@ import timber.log.Timber;
 class WebSocketHandler extends WebSocketListener {
 
     private final static long RETRY_INTERVAL = 5 * 1000L;
+    private final static long REFRESH_WINDOW = 1000L;
+    private final static long REFRESH_MAX_LATENCY = 5 * 1000L;
     /**
      * Websocket status code as defined by <a href="http://tools.ietf.org/html/rfc6455#section-7.4">Section
      * 7.4 of RFC 6455</a>
@@ -72,6 +76,8 @@ class WebSocketHandler extends WebSocketListener {
     private PayloadDataManager payloadDataManager;
     private CompositeDisposable compositeDisposable = new CompositeDisposable();
     private RxBus rxBus;
+    private final WebSocketMessageParser messageParser = new WebSocketMessageParser();
+    private final RefreshScheduler refreshScheduler;
 
     public WebSocketHandler(Context context,
                             OkHttpClient okHttpClient,
@@ -98,6 +104,14 @@ class WebSocketHandler extends WebSocketListener {
         this.addrs = addrs;
         this.ethAccount = ethAccount;
         this.rxBus = rxBus;
+        refreshScheduler = new RefreshScheduler(
+                Completable.defer(() -> payloadDataManager.updateAllBalances()
+                        .andThen(payloadDataManager.updateAllTransactions())),
+                this::sendBroadcast,
+                REFRESH_WINDOW,
+                REFRESH_MAX_LATENCY,
+                TimeUnit.MILLISECONDS,
+                Schedulers.computation());
     }
 
     public void subscribeToXpub(String xpub) {
@@ -131,11 +145,12 @@ class WebSocketHandler extends WebSocketListener {
     }
 
     /**
-     * Halts and disconnects the WebSocket service whilst preventing reconnection until {@link
-     * #start()} is called
+     * Halts and disconnects the WebSocket service whilst preventing reconnection. Balance refreshes
+     * are stopped for good, so this handler shouldn't be started again afterwards.
      */
     public void stopPermanently() {
         stoppedDeliberately = true;
+        refreshScheduler.dispose();
         stop();
     }
 
@@ -213,11 +228,12 @@ class WebSocketHandler extends WebSocketListener {
         return btcConnection != null && ethConnection != null && connected;
     }
 
+    /**
+     * Requests a balance and transaction refresh. Requests arriving in quick succession, such as
+     * a burst of incoming transactions, are coalesced into a single refresh.
+     */
     private void updateBalancesAndTransactions() {
-        payloadDataManager.updateAllBalances()
-                .andThen(payloadDataManager.updateAllTransactions())
-                .doOnComplete(this::sendBroadcast)
-                .subscribe(new IgnorableDefaultObserver<>());
+        refreshScheduler.requestRefresh();
     }
 
     private void sendBroadcast() {
@@ -252,14 +268,12 @@ class WebSocketHandler extends WebSocketListener {
     public void onMessage(WebSocket webSocket, String text) {
         super.onMessage(webSocket, text);
         if (payloadDataManager.getWallet() != null) {
-            JSONObject jsonObject;
             try {
-                jsonObject = new JSONObject(text);
-                attemptParseMessage(text, jsonObject);
-            } catch (JSONException je) {
-                Timber.e(je);
+                attemptParseMessage(text, messageParser.parseBtcMessage(text));
+            } catch (IOException e) {
+                Timber.e(e);
             }
-        } else if (text.contains("account_sub")) {
+        } else if (text.contains(BtcWebsocketMessage.OP_ACCOUNT_SUB)) {
             attemptParseEthMessage(text);
         } else {
             // Ignore content and broadcast anyway so that SwipeToReceive can update
@@ -291,8 +305,7 @@ class WebSocketHandler extends WebSocketListener {
 
     private void attemptParseEthMessage(String message) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            EthWebsocketResponse response = mapper.readValue(message, EthWebsocketResponse.class);
+            EthWebsocketResponse response = messageParser.parseEthMessage(message);
 
             String from = response.getTx().getFrom();
             String to = response.getTx().getTo();
@@ -323,112 +336,91 @@ class WebSocketHandler extends WebSocketListener {
         }
     }
 
-    // TODO: 20/09/2017 Here we should probably parse this info into objects rather than doing it manually
-    // TODO: 20/09/2017 Get a list of all possible payloads construct objects
-    private void attemptParseMessage(String message, JSONObject jsonObject) {
+    private void attemptParseMessage(String message, BtcWebsocketMessage btcMessage) {
         try {
-            String op = (String) jsonObject.get("op");
-            if (op.equals("utx") && jsonObject.has("x")) {
-                JSONObject objX = (JSONObject) jsonObject.get("x");
-
-                long value = 0L;
-                long totalValue = 0L;
-                String inAddr = null;
-
-                if (objX.has("inputs")) {
-                    JSONArray inputArray = (JSONArray) objX.get("inputs");
-                    JSONObject inputObj;
-                    for (int j = 0; j < inputArray.length(); j++) {
-                        inputObj = (JSONObject) inputArray.get(j);
-                        if (inputObj.has("prev_out")) {
-                            JSONObject prevOutObj = (JSONObject) inputObj.get("prev_out");
-                            if (prevOutObj.has("value")) {
-                                value = prevOutObj.getLong("value");
-                            }
-                            if (prevOutObj.has("xpub")) {
-                                totalValue -= value;
-                            } else if (prevOutObj.has("addr")) {
-                                if (payloadDataManager.getWallet().containsLegacyAddress((String) prevOutObj.get("addr"))) {
-                                    totalValue -= value;
-                                } else if (inAddr == null) {
-                                    inAddr = (String) prevOutObj.get("addr");
-                                }
-                            }
-                        }
-                    }
-                }
+            String op = btcMessage.getOp();
+            if (BtcWebsocketMessage.OP_UTX.equals(op) && btcMessage.getX() != null) {
+                handleUnconfirmedTransaction(btcMessage.getX());
+            } else if (BtcWebsocketMessage.OP_ON_CHANGE.equals(op)) {
+                handleWalletChange(message, btcMessage.getX());
+            } else if (BtcWebsocketMessage.OP_ACCOUNT_SUB.equals(op)) {
+                attemptParseEthMessage(message);
+            }
+        } catch (Exception e) {
+            Timber.e(e, "attemptParseMessage");
+        }
+    }
 
-                if (objX.has("out")) {
-                    JSONArray outArray = (JSONArray) objX.get("out");
-                    JSONObject outObj;
-                    for (int j = 0; j < outArray.length(); j++) {
-                        outObj = (JSONObject) outArray.get(j);
-                        if (outObj.has("value")) {
-                            value = outObj.getLong("value");
-                        }
-                        if (outObj.has("addr") && objX.has("hash")) {
-                            rxBus.emitEvent(WebSocketReceiveEvent.class, new WebSocketReceiveEvent(
-                                    (String) outObj.get("addr"),
-                                    (String) objX.get("hash")
-                            ));
-                        }
-                        if (outObj.has("xpub")) {
-                            totalValue += value;
-                        } else if (outObj.has("addr")) {
-                            if (payloadDataManager.getWallet().containsLegacyAddress((String) outObj.get("addr"))) {
-                                totalValue += value;
-                            }
-                        }
-                    }
+    private void handleUnconfirmedTransaction(BtcWebsocketPayload tx) {
+        long totalValue = 0L;
+        String inAddr = null;
+
+        for (BtcWebsocketInput input : tx.getInputs()) {
+            BtcWebsocketOutput prevOut = input.getPrevOut();
+            if (prevOut == null) continue;
+
+            if (prevOut.hasXpub()) {
+                totalValue -= prevOut.getValue();
+            } else if (prevOut.getAddr() != null) {
+                if (payloadDataManager.getWallet().containsLegacyAddress(prevOut.getAddr())) {
+                    totalValue -= prevOut.getValue();
+                } else if (inAddr == null) {
+                    inAddr = prevOut.getAddr();
                 }
+            }
+        }
 
-                String title = context.getString(R.string.app_name);
-                if (totalValue > 0L) {
-                    String marquee = context.getString(R.string.received_bitcoin)
-                            + " "
-                            + monetaryUtil.getBtcFormat().format((double) totalValue / 1e8)
-                            + " BTC";
-                    String text = marquee;
-                    if (totalValue > 0) {
-                        text += " "
-                                + context.getString(R.string.from).toLowerCase()
-                                + " "
-                                + inAddr;
-                    }
-
-                    triggerNotification(title, marquee, text);
+        for (BtcWebsocketOutput output : tx.getOut()) {
+            if (output.getAddr() != null && tx.getHash() != null) {
+                rxBus.emitEvent(WebSocketReceiveEvent.class, new WebSocketReceiveEvent(
+                        output.getAddr(),
+                        tx.getHash()
+                ));
+            }
+            if (output.hasXpub()) {
+                totalValue += output.getValue();
+            } else if (output.getAddr() != null) {
+                if (payloadDataManager.getWallet().containsLegacyAddress(output.getAddr())) {
+                    totalValue += output.getValue();
                 }
+            }
+        }
 
-                updateBalancesAndTransactions();
-
-            } else if (op.equals("on_change")) {
-                final String localChecksum = payloadDataManager.getPayloadChecksum();
-                boolean isSameChecksum = false;
-                if (jsonObject.has("x")) {
-                    JSONObject x = jsonObject.getJSONObject("x");
-                    if (x.has("checksum")) {
-                        final String remoteChecksum = x.getString("checksum");
-                        isSameChecksum = remoteChecksum.equals(localChecksum);
-                    }
-                }
+        if (totalValue > 0L) {
+            String title = context.getString(R.string.app_name);
+            String marquee = context.getString(R.string.received_bitcoin)
+                    + " "
+                    + monetaryUtil.getBtcFormat().format((double) totalValue / 1e8)
+                    + " BTC";
+            String text = marquee
+                    + " "
+                    + context.getString(R.string.from).toLowerCase()
+                    + " "
+                    + inAddr;
+
+            triggerNotification(title, marquee, text);
+        }
 
-                if (!onChangeHashSet.contains(message) && !isSameChecksum) {
-                    // Remote update to wallet data detected
-                    if (payloadDataManager.getTempPassword() != null) {
-                        // Download changed payload
-                        //noinspection ThrowableResultOfMethodCallIgnored
-                        downloadChangedPayload().subscribe(
-                                () -> showToast().subscribe(new IgnorableDefaultObserver<>()),
-                                throwable -> Timber.e(throwable, "downloadChangedPayload failed"));
-                    }
-
-                    onChangeHashSet.add(message);
-                }
-            } else if (message.contains("account_sub")) {
-                attemptParseEthMessage(message);
+        updateBalancesAndTransactions();
+    }
+
+    private void handleWalletChange(String message, @Nullable BtcWebsocketPayload payload) {
+        final String localChecksum = payloadDataManager.getPayloadChecksum();
+        boolean isSameChecksum = payload != null
+                && payload.getChecksum() != null
+                && payload.getChecksum().equals(localChecksum);
+
+        if (!onChangeHashSet.contains(message) && !isSameChecksum) {
+            // Remote update to wallet data detected
+            if (payloadDataManager.getTempPassword() != null) {
+                // Download changed payload
+                //noinspection ThrowableResultOfMethodCallIgnored
+                downloadChangedPayload().subscribe(
+                        () -> showToast().subscribe(new IgnorableDefaultObserver<>()),
+                        throwable -> Timber.e(throwable, "downloadChangedPayload failed"));
             }
-        } catch (Exception e) {
-            Timber.e(e, "attemptParseMessage");
+
+            onChangeHashSet.add(message);
         }
     }
 
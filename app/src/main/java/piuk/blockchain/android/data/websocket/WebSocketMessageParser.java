@@ -0,0 +1,34 @@
+package piuk.blockchain.android.data.websocket;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+
+import piuk.blockchain.android.data.websocket.models.BtcWebsocketMessage;
+import piuk.blockchain.android.data.websocket.models.EthWebsocketResponse;
+
+/**
+ * Binds websocket frames directly to typed models using a single, shared Jackson {@link
+ * ObjectMapper}. {@link ObjectReader} instances are immutable and thread-safe, so they are created
+ * once and reused for every message. Fields which aren't declared on the models are skipped by the
+ * streaming parser rather than being built into a tree first.
+ */
+class WebSocketMessageParser {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final ObjectReader btcReader = OBJECT_MAPPER.readerFor(BtcWebsocketMessage.class);
+    private final ObjectReader ethReader = OBJECT_MAPPER.readerFor(EthWebsocketResponse.class);
+
+    BtcWebsocketMessage parseBtcMessage(String message) throws IOException {
+        return btcReader.readValue(message);
+    }
+
+    EthWebsocketResponse parseEthMessage(String message) throws IOException {
+        return ethReader.readValue(message);
+    }
+
+}
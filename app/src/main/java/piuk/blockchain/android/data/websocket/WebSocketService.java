@@ -15,6 +15,7 @@ import java.util.List;
 
 import javax.inject.Inject;
 
+import io.reactivex.Observable;
 import okhttp3.OkHttpClient;
 import piuk.blockchain.android.data.api.EnvironmentSettings;
 import piuk.blockchain.android.data.ethereum.EthDataManager;
@@ -25,6 +26,7 @@ import piuk.blockchain.android.ui.swipetoreceive.SwipeToReceiveHelper;
 import piuk.blockchain.android.util.MonetaryUtil;
 import piuk.blockchain.android.util.PrefsUtil;
 import piuk.blockchain.android.util.annotations.Thunk;
+import timber.log.Timber;
 
 
 public class WebSocketService extends Service {
@@ -41,6 +43,7 @@ public class WebSocketService extends Service {
     @Inject protected OkHttpClient okHttpClient;
     @Inject protected RxBus rxBus;
     @Thunk WebSocketHandler webSocketHandler;
+    private Observable<WebSocketReceiveEvent> receiveEventObservable;
 
     protected BroadcastReceiver receiver = new BroadcastReceiver() {
         @Override
@@ -87,6 +90,12 @@ public class WebSocketService extends Service {
                 rxBus);
 
         webSocketHandler.start();
+
+        // Keep track of swipe to receive addresses which have been paid to while the app is running
+        receiveEventObservable = rxBus.register(WebSocketReceiveEvent.class);
+        receiveEventObservable.subscribe(
+                event -> swipeToReceiveHelper.markBitcoinAddressUsed(event.getAddress()),
+                Timber::e);
     }
 
     private String[] getXpubs() {
@@ -151,6 +160,9 @@ public class WebSocketService extends Service {
     @Override
     public void onDestroy() {
         if (webSocketHandler != null) webSocketHandler.stopPermanently();
+        if (receiveEventObservable != null) {
+            rxBus.unregister(WebSocketReceiveEvent.class, receiveEventObservable);
+        }
         LocalBroadcastManager.getInstance(getApplicationContext()).unregisterReceiver(receiver);
         super.onDestroy();
     }
@@ -0,0 +1,40 @@
+package piuk.blockchain.android.data.websocket.models;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * A message received from the BTC websocket. Only the fields used by the app are bound, all
+ * others are skipped by the parser without being materialised.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonAutoDetect(
+        fieldVisibility = JsonAutoDetect.Visibility.NONE,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE,
+        creatorVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE
+)
+public class BtcWebsocketMessage {
+
+    public static final String OP_UTX = "utx";
+    public static final String OP_ON_CHANGE = "on_change";
+    public static final String OP_ACCOUNT_SUB = "account_sub";
+
+    @JsonProperty("op")
+    private String op;
+    @JsonProperty("x")
+    private BtcWebsocketPayload x;
+
+    public String getOp() {
+        return op;
+    }
+
+    public BtcWebsocketPayload getX() {
+        return x;
+    }
+
+}
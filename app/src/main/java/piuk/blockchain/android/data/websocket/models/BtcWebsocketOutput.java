@@ -0,0 +1,65 @@
+package piuk.blockchain.android.data.websocket.models;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.io.IOException;
+
+/**
+ * A transaction output, also used for the previous output of an input.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonAutoDetect(
+        fieldVisibility = JsonAutoDetect.Visibility.NONE,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE,
+        creatorVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE
+)
+public class BtcWebsocketOutput {
+
+    @JsonProperty("value")
+    private long value;
+    @JsonProperty("addr")
+    private String addr;
+    @JsonProperty("xpub")
+    @JsonDeserialize(using = PresenceDeserializer.class)
+    private Boolean xpub;
+
+    public long getValue() {
+        return value;
+    }
+
+    public String getAddr() {
+        return addr;
+    }
+
+    /**
+     * Returns true if the output belongs to one of the wallet's subscribed xPubs.
+     */
+    public boolean hasXpub() {
+        return xpub != null;
+    }
+
+    /**
+     * Records that a field is present without building an object for its contents.
+     */
+    public static class PresenceDeserializer extends JsonDeserializer<Boolean> {
+
+        @Override
+        public Boolean deserialize(JsonParser parser, DeserializationContext context)
+                throws IOException {
+            parser.skipChildren();
+            return Boolean.TRUE;
+        }
+
+    }
+
+}
@@ -0,0 +1,51 @@
+package piuk.blockchain.android.data.websocket.models;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The contents of a BTC websocket message. A `utx` message populates the hash, inputs and
+ * outputs, whereas an `on_change` message populates only the checksum.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+@JsonAutoDetect(
+        fieldVisibility = JsonAutoDetect.Visibility.NONE,
+        getterVisibility = JsonAutoDetect.Visibility.NONE,
+        setterVisibility = JsonAutoDetect.Visibility.NONE,
+        creatorVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE
+)
+public class BtcWebsocketPayload {
+
+    @JsonProperty("hash")
+    private String hash;
+    @JsonProperty("checksum")
+    private String checksum;
+    @JsonProperty("inputs")
+    private List<BtcWebsocketInput> inputs;
+    @JsonProperty("out")
+    private List<BtcWebsocketOutput> out;
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getChecksum() {
+        return checksum;
+    }
+
+    public List<BtcWebsocketInput> getInputs() {
+        return inputs != null ? inputs : Collections.emptyList();
+    }
+
+    public List<BtcWebsocketOutput> getOut() {
+        return out != null ? out : Collections.emptyList();
+    }
+
+}
@@ -6,6 +6,8 @@ import android.content.Context;
 
 import info.blockchain.wallet.util.PrivateKeyFactory;
 
+import java.io.File;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
@@ -13,10 +15,15 @@ import dagger.Provides;
 import piuk.blockchain.android.data.access.AccessState;
 import piuk.blockchain.android.data.api.EnvironmentSettings;
 import piuk.blockchain.android.data.cache.DynamicFeeCache;
+import piuk.blockchain.android.data.cache.HistoricPriceCache;
+import piuk.blockchain.android.data.cache.QrCodeCache;
+import piuk.blockchain.android.data.cache.UnspentOutputsCache;
 import piuk.blockchain.android.data.currency.CurrencyState;
 import piuk.blockchain.android.data.rxjava.RxBus;
+import piuk.blockchain.android.data.shapeshift.TradeStatusPoller;
 import piuk.blockchain.android.util.AESUtilWrapper;
 import piuk.blockchain.android.util.AppUtil;
+import piuk.blockchain.android.util.ApplicationLifeCycle;
 import piuk.blockchain.android.util.ExchangeRateFactory;
 import piuk.blockchain.android.util.PrefsUtil;
 import piuk.blockchain.android.util.StringUtils;
@@ -71,6 +78,32 @@ public class ApplicationModule {
         return new DynamicFeeCache();
     }
 
+    @Provides
+    @Singleton
+    protected HistoricPriceCache provideHistoricPriceCache() {
+        return new HistoricPriceCache(new File(application.getFilesDir(), "historic_prices"));
+    }
+
+    @Provides
+    @Singleton
+    protected QrCodeCache provideQrCodeCache() {
+        return new QrCodeCache();
+    }
+
+    @Provides
+    @Singleton
+    protected UnspentOutputsCache provideUnspentOutputsCache(RxBus rxBus) {
+        return new UnspentOutputsCache(rxBus);
+    }
+
+    @Provides
+    @Singleton
+    protected TradeStatusPoller provideTradeStatusPoller() {
+        TradeStatusPoller tradeStatusPoller = new TradeStatusPoller();
+        ApplicationLifeCycle.getInstance().addListener(tradeStatusPoller);
+        return tradeStatusPoller;
+    }
+
     @Provides
     protected ExchangeRateFactory provideExchangeRateFactory() {
         return ExchangeRateFactory.getInstance();
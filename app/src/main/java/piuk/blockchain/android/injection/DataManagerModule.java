@@ -18,7 +18,9 @@ import piuk.blockchain.android.data.access.AccessState;
 import piuk.blockchain.android.data.auth.AuthDataManager;
 import piuk.blockchain.android.data.auth.AuthService;
 import piuk.blockchain.android.data.cache.DynamicFeeCache;
+import piuk.blockchain.android.data.cache.QrCodeCache;
 import piuk.blockchain.android.data.charts.ChartsDataManager;
+import piuk.blockchain.android.data.charts.datastore.ChartsDataStore;
 import piuk.blockchain.android.data.contacts.ContactsDataManager;
 import piuk.blockchain.android.data.contacts.ContactsService;
 import piuk.blockchain.android.data.contacts.datastore.ContactsMapStore;
@@ -43,8 +45,10 @@ import piuk.blockchain.android.data.settings.SettingsDataManager;
 import piuk.blockchain.android.data.settings.SettingsService;
 import piuk.blockchain.android.data.settings.datastore.SettingsDataStore;
 import piuk.blockchain.android.data.shapeshift.ShapeShiftDataManager;
+import piuk.blockchain.android.data.shapeshift.TradeStatusPoller;
 import piuk.blockchain.android.data.shapeshift.datastore.ShapeShiftDataStore;
 import piuk.blockchain.android.data.stores.PendingTransactionListStore;
+import piuk.blockchain.android.data.stores.TransactionDiskStore;
 import piuk.blockchain.android.data.stores.TransactionListStore;
 import piuk.blockchain.android.data.walletoptions.WalletOptionsDataManager;
 import piuk.blockchain.android.data.walletoptions.WalletOptionsState;
@@ -81,8 +85,8 @@ public class DataManagerModule {
 
     @Provides
     @PresenterScope
-    protected QrCodeDataManager provideQrDataManager() {
-        return new QrCodeDataManager();
+    protected QrCodeDataManager provideQrDataManager(QrCodeCache qrCodeCache) {
+        return new QrCodeDataManager(qrCodeCache);
     }
 
     @Provides
@@ -105,11 +109,13 @@ public class DataManagerModule {
     @PresenterScope
     protected TransactionListDataManager provideTransactionListDataManager(PayloadManager payloadManager,
                                                                            EthDataManager ethDataManager,
-                                                                           TransactionListStore transactionListStore) {
+                                                                           TransactionListStore transactionListStore,
+                                                                           TransactionDiskStore transactionDiskStore) {
         return new TransactionListDataManager(
                 payloadManager,
                 ethDataManager,
-                transactionListStore);
+                transactionListStore,
+                transactionDiskStore);
     }
 
     @Provides
@@ -190,8 +196,8 @@ public class DataManagerModule {
 
     @Provides
     @PresenterScope
-    protected FeeDataManager provideFeeDataManager(RxBus rxBus) {
-        return new FeeDataManager(new FeeApi(), rxBus);
+    protected FeeDataManager provideFeeDataManager(DynamicFeeCache dynamicFeeCache, RxBus rxBus) {
+        return new FeeDataManager(new FeeApi(), dynamicFeeCache, rxBus);
     }
 
     @Provides
@@ -223,8 +229,8 @@ public class DataManagerModule {
 
     @Provides
     @PresenterScope
-    protected ChartsDataManager provideChartsDataManager(RxBus rxBus) {
-        return new ChartsDataManager(new PriceApi(), rxBus);
+    protected ChartsDataManager provideChartsDataManager(ChartsDataStore chartsDataStore, RxBus rxBus) {
+        return new ChartsDataManager(new PriceApi(), chartsDataStore, rxBus);
     }
 
     @Provides
@@ -232,8 +238,14 @@ public class DataManagerModule {
     protected ShapeShiftDataManager provideShapeShiftDataManager(
             ShapeShiftDataStore shapeShiftDataStore,
             PayloadManager payloadManager,
+            TradeStatusPoller tradeStatusPoller,
             RxBus rxBus) {
-        return new ShapeShiftDataManager(new ShapeShiftApi(), shapeShiftDataStore, payloadManager, rxBus);
+        return new ShapeShiftDataManager(
+                new ShapeShiftApi(),
+                shapeShiftDataStore,
+                payloadManager,
+                tradeStatusPoller,
+                rxBus);
     }
 
     @Provides
@@ -1,9 +1,14 @@
 package piuk.blockchain.android.injection;
 
+import android.content.Context;
+
+import java.io.File;
+
 import javax.inject.Singleton;
 
 import dagger.Module;
 import dagger.Provides;
+import piuk.blockchain.android.data.charts.datastore.ChartsDataStore;
 import piuk.blockchain.android.data.contacts.datastore.ContactsMapStore;
 import piuk.blockchain.android.data.ethereum.EthDataStore;
 import piuk.blockchain.android.data.settings.SettingsService;
@@ -11,6 +16,7 @@ import piuk.blockchain.android.data.settings.datastore.SettingsDataStore;
 import piuk.blockchain.android.data.settings.datastore.SettingsMemoryStore;
 import piuk.blockchain.android.data.shapeshift.datastore.ShapeShiftDataStore;
 import piuk.blockchain.android.data.stores.PendingTransactionListStore;
+import piuk.blockchain.android.data.stores.TransactionDiskStore;
 import piuk.blockchain.android.data.stores.TransactionListStore;
 
 @Module
@@ -34,6 +40,12 @@ class PersistentStoreModule {
         return new TransactionListStore();
     }
 
+    @Provides
+    @Singleton
+    TransactionDiskStore provideTransactionDiskStore(Context context) {
+        return new TransactionDiskStore(new File(context.getFilesDir(), "transactions"));
+    }
+
     @Provides
     @Singleton
     ContactsMapStore provideContactsMapStore() {
@@ -46,6 +58,12 @@ class PersistentStoreModule {
         return new EthDataStore();
     }
 
+    @Provides
+    @Singleton
+    ChartsDataStore provideChartsDataStore() {
+        return new ChartsDataStore();
+    }
+
     @Provides
     @Singleton
     ShapeShiftDataStore provideShapeShiftDataStore() {
@@ -0,0 +1,119 @@
+package piuk.blockchain.android.ui.adapters
+
+import android.support.v7.util.DiffUtil
+import io.reactivex.Single
+import io.reactivex.android.schedulers.AndroidSchedulers
+import io.reactivex.disposables.Disposable
+import io.reactivex.schedulers.Schedulers
+import timber.log.Timber
+
+/**
+ * Replaces the items of a [DelegationAdapter] by calculating the differences between the old and
+ * new lists on the computation scheduler, and dispatching them to the adapter on the main thread.
+ * Only the most recently submitted list is ever applied, so lists submitted in quick succession
+ * don't queue up diffs.
+ *
+ * The adapter's items must only be replaced through this class once it's in use, and submitted
+ * lists must not be modified afterwards.
+ *
+ * @param adapter The [DelegationAdapter] whose items are being replaced
+ * @param callback An [ItemCallback] which identifies items and detects changes between them
+ */
+class AsyncListDiffer<T>(
+        private val adapter: DelegationAdapter<T>,
+        private val callback: ItemCallback<T>
+) {
+
+    private var pendingItems: List<T>? = null
+    private var diffDisposable: Disposable? = null
+
+    /**
+     * Calculates the difference between the current items and [newItems] in the background, then
+     * swaps them into the adapter and notifies it of only the items which changed.
+     */
+    fun submitList(newItems: List<T>) {
+        diffDisposable?.dispose()
+        pendingItems = newItems
+
+        val oldItems = adapter.items
+        diffDisposable = Single.fromCallable {
+            DiffUtil.calculateDiff(DiffCallback(oldItems, newItems, callback), false)
+        }.subscribeOn(Schedulers.computation())
+                .observeOn(AndroidSchedulers.mainThread())
+                .subscribe(
+                        {
+                            pendingItems = null
+                            adapter.items = newItems
+                            it.dispatchUpdatesTo(adapter)
+                        },
+                        { Timber.e(it) })
+    }
+
+    /**
+     * Discards any diff which is still being calculated, so that it's never dispatched to the
+     * adapter. This should be called when the adapter's view is destroyed.
+     */
+    fun cancel() {
+        diffDisposable?.dispose()
+        diffDisposable = null
+        pendingItems = null
+    }
+
+    /**
+     * Adds items to the end of the list without diffing the existing items. If a list is still
+     * being diffed, the items are appended to that list instead.
+     */
+    fun appendItems(newItems: List<T>) {
+        if (newItems.isEmpty()) return
+
+        val pending = pendingItems
+        if (pending != null) {
+            submitList(pending + newItems)
+            return
+        }
+
+        val start = adapter.items.size
+        adapter.items += newItems
+        adapter.notifyItemRangeInserted(start, newItems.size)
+    }
+
+    abstract class ItemCallback<in T> {
+
+        /**
+         * Returns true if both items represent the same object, such as transactions with the same
+         * hash, regardless of their contents.
+         */
+        abstract fun areItemsTheSame(oldItem: T, newItem: T): Boolean
+
+        open fun areContentsTheSame(oldItem: T, newItem: T): Boolean = oldItem == newItem
+
+        /**
+         * Returns a payload describing which part of an item changed, allowing the delegate to
+         * bind only that part, or null to rebind the entire item.
+         */
+        open fun getChangePayload(oldItem: T, newItem: T): Any? = null
+
+    }
+
+    private class DiffCallback<T>(
+            private val oldItems: List<T>,
+            private val newItems: List<T>,
+            private val callback: ItemCallback<T>
+    ) : DiffUtil.Callback() {
+
+        override fun getOldListSize() = oldItems.size
+
+        override fun getNewListSize() = newItems.size
+
+        override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int) =
+                callback.areItemsTheSame(oldItems[oldItemPosition], newItems[newItemPosition])
+
+        override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int) =
+                callback.areContentsTheSame(oldItems[oldItemPosition], newItems[newItemPosition])
+
+        override fun getChangePayload(oldItemPosition: Int, newItemPosition: Int) =
+                callback.getChangePayload(oldItems[oldItemPosition], newItems[newItemPosition])
+
+    }
+
+}
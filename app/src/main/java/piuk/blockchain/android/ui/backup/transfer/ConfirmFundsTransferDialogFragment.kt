@@ -17,6 +17,7 @@ import piuk.blockchain.android.ui.customviews.ToastCustom
 import piuk.blockchain.android.ui.send.AddressAdapter
 import piuk.blockchain.android.util.extensions.gone
 import piuk.blockchain.android.util.extensions.toast
+import piuk.blockchain.android.util.extensions.visible
 import piuk.blockchain.android.util.helperfunctions.onItemSelectedListener
 import uk.co.chrisjenx.calligraphy.CalligraphyUtils
 import uk.co.chrisjenx.calligraphy.TypefaceUtils
@@ -83,6 +84,10 @@ class ConfirmFundsTransferDialogFragment : BaseDialogFragment<ConfirmFundsTransf
                     }
                 })
 
+        checkbox_consolidate.setOnCheckedChangeListener { _, isChecked ->
+            presenter.onConsolidateChanged(isChecked)
+        }
+
         button_transfer_all.setOnClickListener {
             SecondPasswordHandler(activity).validate(object : SecondPasswordHandler.ResultListener {
                 override fun onNoSecondPassword() {
@@ -148,6 +153,10 @@ class ConfirmFundsTransferDialogFragment : BaseDialogFragment<ConfirmFundsTransf
 
     override fun getIfArchiveChecked() = checkbox_archive.isChecked
 
+    override fun showConsolidateOption(visible: Boolean) {
+        if (visible) checkbox_consolidate.visible() else checkbox_consolidate.gone()
+    }
+
     override fun dismissDialog() {
         val intent = Intent(BalanceFragment.ACTION_INTENT)
         LocalBroadcastManager.getInstance(activity).sendBroadcast(intent)
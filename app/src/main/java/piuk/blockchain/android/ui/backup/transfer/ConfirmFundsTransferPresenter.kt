@@ -3,6 +3,7 @@ package piuk.blockchain.android.ui.backup.transfer
 import android.annotation.SuppressLint
 import android.support.annotation.VisibleForTesting
 import info.blockchain.wallet.payload.data.LegacyAddress
+import io.reactivex.disposables.Disposable
 import piuk.blockchain.android.R
 import piuk.blockchain.android.data.datamanagers.TransferFundsDataManager
 import piuk.blockchain.android.data.payload.PayloadDataManager
@@ -28,6 +29,10 @@ class ConfirmFundsTransferPresenter @Inject constructor(
 ) : BasePresenter<ConfirmFundsTransferView>() {
 
     @VisibleForTesting internal var pendingTransactions: MutableList<PendingTransaction> = mutableListOf()
+    @VisibleForTesting internal var consolidatedTransaction: PendingTransaction? = null
+    private var receiveAccountIndex = 0
+    private var consolidate = false
+    private var transferableFundsDisposable: Disposable? = null
 
     override fun onViewReady() {
         updateToAddress(payloadDataManager.defaultAccountIndex)
@@ -38,7 +43,21 @@ class ConfirmFundsTransferPresenter @Inject constructor(
     }
 
     /**
-     * Transacts all [PendingTransaction] objects
+     * Switches between sending one transaction per address and a single transaction which spends
+     * the funds of every address. Consolidating saves on fees, but reveals that the addresses
+     * belong to the same wallet, so it's left for the user to choose.
+     *
+     * @param consolidate Whether to consolidate the funds into a single transaction
+     */
+    internal fun onConsolidateChanged(consolidate: Boolean) {
+        if (this.consolidate == consolidate) return
+        this.consolidate = consolidate
+        updateToAddress(receiveAccountIndex)
+    }
+
+    /**
+     * Transacts all [PendingTransaction] objects, as the single transaction shown to the user if
+     * they chose to consolidate them
      *
      * @param secondPassword The user's double encryption password if necessary
      */
@@ -46,7 +65,14 @@ class ConfirmFundsTransferPresenter @Inject constructor(
     internal fun sendPayment(secondPassword: String?) {
         val archiveAll = view.getIfArchiveChecked()
 
-        fundsDataManager.sendPayment(pendingTransactions, secondPassword)
+        val consolidated = consolidatedTransaction
+        val payment = if (consolidated != null) {
+            fundsDataManager.sendConsolidatedPayment(consolidated, pendingTransactions, secondPassword)
+        } else {
+            fundsDataManager.sendPayment(pendingTransactions, secondPassword)
+        }
+
+        payment
                 .doOnSubscribe {
                     view.setPaymentButtonEnabled(false)
                     view.showProgressDialog()
@@ -129,12 +155,17 @@ class ConfirmFundsTransferPresenter @Inject constructor(
 
     @SuppressLint("VisibleForTests")
     private fun updateToAddress(indexOfReceiveAccount: Int) {
-        fundsDataManager.getTransferableFundTransactionList(indexOfReceiveAccount)
+        receiveAccountIndex = indexOfReceiveAccount
+        // Only the most recent selection should update the totals
+        transferableFundsDisposable?.dispose()
+        transferableFundsDisposable = fundsDataManager.getTransferableFunds(indexOfReceiveAccount, consolidate)
                 .doOnSubscribe { view.setPaymentButtonEnabled(false) }
                 .compose(RxUtil.addObservableToCompositeDisposable(this))
-                .subscribe({ triple ->
-                    pendingTransactions = triple.left
-                    updateUi(triple.middle, triple.right)
+                .subscribe({ funds ->
+                    pendingTransactions = funds.pendingTransactions.toMutableList()
+                    consolidatedTransaction = funds.consolidated
+                    view.showConsolidateOption(pendingTransactions.size > 1)
+                    updateUi(funds.totalToSend, funds.totalFee)
                 }, {
                     view.showToast(R.string.unexpected_error, ToastCustom.TYPE_ERROR)
                     view.dismissDialog()
@@ -24,6 +24,8 @@ interface ConfirmFundsTransferView : View {
 
     fun getIfArchiveChecked(): Boolean
 
+    fun showConsolidateOption(visible: Boolean)
+
     fun showProgressDialog()
 
     fun hideProgressDialog()
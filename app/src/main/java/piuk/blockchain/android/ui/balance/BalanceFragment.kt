@@ -8,6 +8,7 @@ import android.support.v4.content.LocalBroadcastManager
 import android.support.v7.app.AlertDialog
 import android.support.v7.widget.AppCompatSpinner
 import android.support.v7.widget.LinearLayoutManager
+import android.support.v7.widget.RecyclerView
 import android.support.v7.widget.SimpleItemAnimator
 import android.view.LayoutInflater
 import android.view.MotionEvent
@@ -130,8 +131,8 @@ class BalanceFragment : BaseFragment<BalanceView, BalancePresenter>(), BalanceVi
         accounts_spinner.invisible()
     }
 
-    override fun onTransactionClicked(correctedPosition: Int, absolutePosition: Int) {
-        goToTransactionDetail(correctedPosition)
+    override fun onTransactionClicked(hash: String, absolutePosition: Int) {
+        goToTransactionDetail(hash)
     }
 
     override fun onValueClicked(isBtc: Boolean) {
@@ -202,7 +203,7 @@ class BalanceFragment : BaseFragment<BalanceView, BalancePresenter>(), BalanceVi
     }
 
     override fun onTransactionsUpdated(displayObjects: List<Any>) {
-        balanceAdapter?.items = displayObjects
+        balanceAdapter?.submitItems(displayObjects)
 
         if (spacerDecoration == null) {
             spacerDecoration = BottomSpacerDecoration(
@@ -217,6 +218,10 @@ class BalanceFragment : BaseFragment<BalanceView, BalancePresenter>(), BalanceVi
         generateLauncherShortcuts()
     }
 
+    override fun onTransactionsAppended(displayObjects: List<Any>) {
+        balanceAdapter?.appendItems(displayObjects)
+    }
+
     override fun onContactsHashMapUpdated(
             transactionDisplayMap: MutableMap<String, ContactTransactionDisplayModel>
     ) {
@@ -258,6 +263,11 @@ class BalanceFragment : BaseFragment<BalanceView, BalancePresenter>(), BalanceVi
         }
     }
 
+    override fun onDestroyView() {
+        balanceAdapter?.cancelPendingUpdates()
+        super.onDestroyView()
+    }
+
     override fun onAttach(context: Context?) {
         super.onAttach(context)
         interactionListener = activity as OnFragmentInteractionListener?
@@ -464,16 +474,25 @@ class BalanceFragment : BaseFragment<BalanceView, BalancePresenter>(), BalanceVi
                 this
         )
 
-        recyclerview.layoutManager = LinearLayoutManager(context)
+        val layoutManager = LinearLayoutManager(context)
+        recyclerview.layoutManager = layoutManager
         recyclerview.adapter = balanceAdapter
+        recyclerview.addOnScrollListener(object : RecyclerView.OnScrollListener() {
+            override fun onScrolled(recyclerView: RecyclerView?, dx: Int, dy: Int) {
+                // Also called with no movement whenever the list is laid out
+                val lastVisiblePosition = layoutManager.findLastVisibleItemPosition()
+                presenter.onTransactionsVisible(layoutManager.findFirstVisibleItemPosition(), lastVisiblePosition)
+                if (dy > 0) presenter.onTransactionsScrolled(lastVisiblePosition)
+            }
+        })
         // Disable blinking animations in RecyclerView
         val animator = recyclerview.itemAnimator
         if (animator is SimpleItemAnimator) animator.supportsChangeAnimations = false
     }
 
-    private fun goToTransactionDetail(position: Int) {
+    private fun goToTransactionDetail(hash: String) {
         val bundle = Bundle()
-        bundle.putInt(KEY_TRANSACTION_LIST_POSITION, position)
+        bundle.putString(KEY_TRANSACTION_HASH, hash)
         TransactionDetailActivity.start(activity, bundle)
     }
 
@@ -516,7 +535,6 @@ class BalanceFragment : BaseFragment<BalanceView, BalancePresenter>(), BalanceVi
     companion object {
 
         const val ACTION_INTENT = "info.blockchain.wallet.ui.BalanceFragment.REFRESH"
-        const val KEY_TRANSACTION_LIST_POSITION = "transaction_list_position"
         const val KEY_TRANSACTION_HASH = "transaction_hash"
         private const val ARGUMENT_BROADCASTING_PAYMENT = "broadcasting_payment"
 
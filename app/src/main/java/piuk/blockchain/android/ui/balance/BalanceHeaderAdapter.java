@@ -2,7 +2,9 @@ package piuk.blockchain.android.ui.balance;
 
 import android.content.Context;
 import android.databinding.DataBindingUtil;
+import android.databinding.ViewDataBinding;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -19,6 +21,7 @@ import piuk.blockchain.android.util.MonetaryUtil;
 class BalanceHeaderAdapter extends ArrayAdapter<ItemAccount> {
 
     private boolean isBtc;
+    private int btcFormat = -1;
     private final MonetaryUtil monetaryUtil;
     private String fiatUnits;
     private double exchangeRate;
@@ -39,22 +42,25 @@ class BalanceHeaderAdapter extends ArrayAdapter<ItemAccount> {
 
     @Override
     public View getDropDownView(int position, View convertView, @NonNull ViewGroup parent) {
-        return getCustomView(position, parent, true);
+        return getCustomView(position, convertView, parent, true);
     }
 
     @NonNull
     @Override
     public View getView(int position, View convertView, @NonNull ViewGroup parent) {
-        return getCustomView(position, parent, false);
+        return getCustomView(position, convertView, parent, false);
     }
 
-    private View getCustomView(int position, ViewGroup parent, boolean isDropdownView) {
+    private View getCustomView(int position, View convertView, ViewGroup parent, boolean isDropdownView) {
         if (isDropdownView) {
-            ItemBalanceAccountDropdownBinding binding = DataBindingUtil.inflate(
-                    LayoutInflater.from(getContext()),
-                    R.layout.item_balance_account_dropdown,
-                    parent,
-                    false);
+            ItemBalanceAccountDropdownBinding binding = getBinding(convertView, ItemBalanceAccountDropdownBinding.class);
+            if (binding == null) {
+                binding = DataBindingUtil.inflate(
+                        LayoutInflater.from(getContext()),
+                        R.layout.item_balance_account_dropdown,
+                        parent,
+                        false);
+            }
 
             ItemAccount item = getItem(position);
 
@@ -73,11 +79,14 @@ class BalanceHeaderAdapter extends ArrayAdapter<ItemAccount> {
             return binding.getRoot();
 
         } else {
-            SpinnerBalanceHeaderBinding binding = DataBindingUtil.inflate(
-                    LayoutInflater.from(getContext()),
-                    R.layout.spinner_balance_header,
-                    parent,
-                    false);
+            SpinnerBalanceHeaderBinding binding = getBinding(convertView, SpinnerBalanceHeaderBinding.class);
+            if (binding == null) {
+                binding = DataBindingUtil.inflate(
+                        LayoutInflater.from(getContext()),
+                        R.layout.spinner_balance_header,
+                        parent,
+                        false);
+            }
 
             ItemAccount item = getItem(position);
 
@@ -86,16 +95,37 @@ class BalanceHeaderAdapter extends ArrayAdapter<ItemAccount> {
         }
     }
 
+    /**
+     * Returns the binding for a recycled view, or null if there isn't one or it was inflated from
+     * the other layout. The spinner recycles its selected view and its dropdown views separately,
+     * but this guards against being handed the wrong one.
+     */
+    @Nullable
+    private <T extends ViewDataBinding> T getBinding(@Nullable View convertView, Class<T> bindingClass) {
+        if (convertView == null) return null;
+
+        ViewDataBinding binding = DataBindingUtil.getBinding(convertView);
+        return bindingClass.isInstance(binding) ? bindingClass.cast(binding) : null;
+    }
+
     void notifyBtcChanged(boolean isBtc, int btcFormat) {
+        if (this.isBtc == isBtc && this.btcFormat == btcFormat) return;
+
         this.isBtc = isBtc;
+        this.btcFormat = btcFormat;
         monetaryUtil.updateUnit(btcFormat);
         notifyDataSetChanged();
     }
 
     void notifyFiatUnitsChanged(String fiatUnits, double exchangeRate) {
+        // Balances are only shown in fiat in the dropdown, so price ticks while showing BTC don't
+        // need to rebind anything
+        boolean isVisibleChange = !isBtc
+                && (!fiatUnits.equals(this.fiatUnits) || exchangeRate != this.exchangeRate);
+
         this.fiatUnits = fiatUnits;
         this.exchangeRate = exchangeRate;
-        notifyDataSetChanged();
+        if (isVisibleChange) notifyDataSetChanged();
     }
 
 }
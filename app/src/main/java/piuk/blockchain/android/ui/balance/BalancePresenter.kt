@@ -28,6 +28,7 @@ import piuk.blockchain.android.data.rxjava.RxBus
 import piuk.blockchain.android.data.rxjava.RxUtil
 import piuk.blockchain.android.data.shapeshift.ShapeShiftDataManager
 import piuk.blockchain.android.data.transactions.Displayable
+import piuk.blockchain.android.data.transactions.TransactionChangeSet
 import piuk.blockchain.android.ui.account.ItemAccount
 import piuk.blockchain.android.ui.base.BasePresenter
 import piuk.blockchain.android.ui.base.UiState
@@ -38,6 +39,7 @@ import piuk.blockchain.android.util.MonetaryUtil
 import piuk.blockchain.android.util.PrefsUtil
 import piuk.blockchain.android.util.StringUtils
 import piuk.blockchain.android.util.helperfunctions.unsafeLazy
+import piuk.blockchain.android.util.tracing.Tracer
 import timber.log.Timber
 import java.math.BigDecimal
 import java.math.BigInteger
@@ -69,6 +71,10 @@ class BalancePresenter @Inject constructor(
     private val displayList: MutableList<Any> = mutableListOf()
     private val monetaryUtil: MonetaryUtil by unsafeLazy { MonetaryUtil(getBtcUnitType()) }
     private var txNoteMap: MutableMap<String, String> = mutableMapOf()
+    private var isLoadingPage = false
+    private val pricesPrefetchedHashes = HashSet<String>()
+    private var pricesPrefetchedCurrency: String? = null
+    private var launchFinished = false
 
     @SuppressLint("VisibleForTests")
     override fun onViewReady() {
@@ -144,6 +150,52 @@ class BalancePresenter @Inject constructor(
         }
     }
 
+    /**
+     * Loads the next page of older transactions once the user has scrolled to within
+     * [PREFETCH_DISTANCE] items of the end of the list.
+     *
+     * @param lastVisiblePosition The position of the last visible item in the list
+     */
+    internal fun onTransactionsScrolled(lastVisiblePosition: Int) {
+        val itemAccount = chosenAccount ?: return
+        if (isLoadingPage
+                || lastVisiblePosition < displayList.size - PREFETCH_DISTANCE
+                || !transactionListDataManager.hasMoreTransactions(itemAccount)) return
+
+        isLoadingPage = true
+        transactionListDataManager.fetchNextTransactionPage(itemAccount, PAGE_SIZE)
+                .compose(RxUtil.addObservableToCompositeDisposable(this))
+                .doAfterTerminate { isLoadingPage = false }
+                .subscribe(
+                        { onTransactionPageLoaded(it) },
+                        { Timber.e(it) })
+    }
+
+    /**
+     * Prefetches the historic prices of the visible transactions and the next [PREFETCH_DISTANCE]
+     * rows, so that opening one in detail doesn't need a network request. Each transaction is only
+     * requested once per fiat currency, unless the prefetch fails.
+     *
+     * @param firstVisiblePosition The position of the first visible item in the list
+     * @param lastVisiblePosition The position of the last visible item in the list
+     */
+    internal fun onTransactionsVisible(firstVisiblePosition: Int, lastVisiblePosition: Int) {
+        if (firstVisiblePosition < 0) return
+
+        val end = Math.min(lastVisiblePosition + PREFETCH_DISTANCE + 1, displayList.size)
+        if (firstVisiblePosition >= end) return
+
+        val currency = getFiatCurrency()
+        if (currency != pricesPrefetchedCurrency) {
+            pricesPrefetchedCurrency = currency
+            pricesPrefetchedHashes.clear()
+        }
+        val transactions = displayList.subList(firstVisiblePosition, end)
+                .filterIsInstance<Displayable>()
+                .filter { pricesPrefetchedHashes.add(it.hash) }
+        if (transactions.isNotEmpty()) prefetchHistoricPrices(transactions, currency)
+    }
+
     internal fun setViewType(isBtc: Boolean) {
         currencyState.isDisplayingCryptoCurrency = isBtc
         view.onViewTypeChanged(isBtc, getBtcUnitType())
@@ -474,18 +526,61 @@ class BalancePresenter @Inject constructor(
     }
 
     private fun getTransactionsListObservable(itemAccount: ItemAccount) =
-            transactionListDataManager.fetchTransactions(itemAccount, 50, 0)
+            transactionListDataManager.fetchTransactions(itemAccount, PAGE_SIZE, 0)
                     .doAfterTerminate(this::storeSwipeReceiveAddresses)
-                    .doOnNext {
-                        displayList.removeAll { it is Displayable }
-                        displayList.addAll(it)
+                    .doOnNext { updateDisplayedTransactions(it) }
+
+    /**
+     * Appends a page of older transactions to the list. If the page changed anything other than
+     * the end of the list, such as when newer transactions arrived in the meantime, the entire
+     * list is updated instead.
+     */
+    private fun onTransactionPageLoaded(changeSet: TransactionChangeSet) {
+        if (changeSet.isEmpty()) return
+
+        // A page can also only remove or update rows which are already shown
+        val firstInserted = changeSet.insertedPositions.firstOrNull()
+        if (firstInserted == null) {
+            updateDisplayedTransactions(changeSet.transactions)
+            return
+        }
 
-                        when {
-                            displayList.isEmpty() -> view.setUiState(UiState.EMPTY)
-                            else -> view.setUiState(UiState.CONTENT)
-                        }
-                        view.onTransactionsUpdated(displayList)
+        val displayedCount = displayList.count { it is Displayable }
+        val isAppendOnly = changeSet.removedPositions.isEmpty()
+                && changeSet.changedPositions.isEmpty()
+                && firstInserted == displayedCount
+        val newTransactions = changeSet.transactions.subList(firstInserted, changeSet.transactions.size)
+
+        if (isAppendOnly && displayList.lastOrNull() is Displayable) {
+            displayList.addAll(newTransactions)
+            view.onTransactionsAppended(newTransactions)
+        } else {
+            updateDisplayedTransactions(changeSet.transactions)
+        }
+    }
+
+    private fun updateDisplayedTransactions(transactions: List<Displayable>) {
+        displayList.removeAll { it is Displayable }
+        displayList.addAll(transactions)
+
+        when {
+            displayList.isEmpty() -> view.setUiState(UiState.EMPTY)
+            else -> view.setUiState(UiState.CONTENT)
+        }
+        view.onTransactionsUpdated(displayList.toList())
+    }
+
+    private fun prefetchHistoricPrices(transactions: List<Displayable>, currency: String) {
+        exchangeRateFactory.prefetchHistoricPrices(transactions, currency)
+                .compose(RxUtil.addCompletableToCompositeDisposable(this))
+                .subscribe({ /* No-op */ }, { throwable ->
+                    Timber.e(throwable)
+                    // Allow these rows to be retried the next time they're visible
+                    if (currency == pricesPrefetchedCurrency) {
+                        pricesPrefetchedHashes.removeAll(transactions.map { it.hash })
                     }
+                })
+    }
 
     private fun getBalanceObservable(itemAccount: ItemAccount): Observable<Nothing> {
         return if (chosenAccount?.type == ItemAccount.TYPE.ETHEREUM) {
@@ -494,6 +589,7 @@ class BalancePresenter @Inject constructor(
                         val ethBalance = BigDecimal(it.getTotalBalance())
                         val ethString = getEthBalanceString(currencyState.isDisplayingCryptoCurrency, ethBalance)
                         view.onTotalBalanceUpdated(ethString)
+                        onBalanceShown()
                     }.flatMap { Observable.empty<Nothing>() }
         } else {
             payloadDataManager.updateAllBalances()
@@ -501,10 +597,21 @@ class BalancePresenter @Inject constructor(
                         val btcBalance = transactionListDataManager.getBtcBalance(itemAccount)
                         val balanceTotal = getBtcBalanceString(currencyState.isDisplayingCryptoCurrency, btcBalance)
                         view.onTotalBalanceUpdated(balanceTotal)
+                        onBalanceShown()
                     }.toObservable<Nothing>()
         }
     }
 
+    /**
+     * Ends the launch trace the first time a fetched balance is shown.
+     */
+    private fun onBalanceShown() {
+        if (!launchFinished) {
+            launchFinished = true
+            Tracer.finishLaunch()
+        }
+    }
+
     private fun getUpdateTickerObservable(): Observable<Map<String, PriceDatum>> {
         // Remove ETH from list of accounts
         val displayableAccounts = mutableListOf<ItemAccount>().apply {
@@ -597,10 +704,10 @@ class BalancePresenter @Inject constructor(
             displayList.add(0, stringUtils.getString(R.string.contacts_pending_transaction))
             displayList.addAll(1, reversed)
             displayList.add(reversed.size + 1, stringUtils.getString(R.string.contacts_transaction_history))
-            view.onTransactionsUpdated(displayList)
+            view.onTransactionsUpdated(displayList.toList())
             view.setUiState(UiState.CONTENT)
         } else {
-            view.onTransactionsUpdated(displayList)
+            view.onTransactionsUpdated(displayList.toList())
         }
     }
 
@@ -681,4 +788,11 @@ class BalancePresenter @Inject constructor(
                 }
                 .onErrorReturn { mutableMapOf() }
 
-}
\ No newline at end of file
+    companion object {
+
+        private const val PAGE_SIZE = 50
+        private const val PREFETCH_DISTANCE = 10
+
+    }
+
+}
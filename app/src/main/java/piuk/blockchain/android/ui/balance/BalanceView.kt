@@ -17,6 +17,8 @@ interface BalanceView : View {
 
     fun onTransactionsUpdated(displayObjects: List<Any>)
 
+    fun onTransactionsAppended(displayObjects: List<Any>)
+
     fun onTotalBalanceUpdated(balance: String)
 
     fun onExchangeRateUpdated(btcExchangeRate: Double, ethExchangeRate: Double, isBtc: Boolean, txNoteMap: MutableMap<String, String>)
@@ -2,10 +2,11 @@ package piuk.blockchain.android.ui.balance.adapter
 
 import android.app.Activity
 import piuk.blockchain.android.data.contacts.models.ContactTransactionDisplayModel
+import piuk.blockchain.android.data.contacts.models.ContactTransactionModel
+import piuk.blockchain.android.data.transactions.Displayable
 import piuk.blockchain.android.ui.adapters.AdapterDelegatesManager
+import piuk.blockchain.android.ui.adapters.AsyncListDiffer
 import piuk.blockchain.android.ui.adapters.DelegationAdapter
-import piuk.blockchain.android.util.extensions.autoNotify
-import kotlin.properties.Delegates
 
 class BalanceAdapter(
         activity: Activity,
@@ -29,28 +30,49 @@ class BalanceAdapter(
         setHasStableIds(true)
     }
 
+    private val differ = AsyncListDiffer(this, object : AsyncListDiffer.ItemCallback<Any>() {
+        override fun areItemsTheSame(oldItem: Any, newItem: Any) = getItemKey(oldItem) == getItemKey(newItem)
+    })
+
+    /**
+     * Replaces the list of items. The changes are calculated in the background, so that only rows
+     * which have been added, removed or changed are rebound.
+     */
+    fun submitItems(newItems: List<Any>) {
+        differ.submitList(newItems)
+    }
+
+    /**
+     * Adds items to the end of the list, such as a page of older transactions. Only the inserted
+     * range is notified, so the existing items aren't diffed.
+     */
+    fun appendItems(newItems: List<Any>) {
+        differ.appendItems(newItems)
+    }
+
     /**
-     * Observes the items list and automatically notifies the adapter of changes to the data based
-     * on the comparison we make here, which is a simple equality check.
+     * Discards any list which is still being diffed. This should be called when the view is
+     * destroyed.
      */
-    override var items: List<Any> by Delegates.observable(emptyList()) { _, oldList, newList ->
-        autoNotify(oldList, newList) { o, n -> o == n }
+    fun cancelPendingUpdates() {
+        differ.cancel()
     }
 
     /**
      * Required so that [setHasStableIds] = true doesn't break the RecyclerView and show duplicated
-     * layouts.
+     * layouts. Transactions are identified by their hash so that their ID survives changes to
+     * their contents, such as new confirmations.
      */
-    override fun getItemId(position: Int): Long = items[position].hashCode().toLong()
+    override fun getItemId(position: Int): Long = getItemKey(items[position]).hashCode().toLong()
 
     /**
      * Notifies the adapter that the View format (ie, whether or not to show BTC) has been changed.
-     * Will rebuild the entire adapter.
+     * Only the amount of each row is rebound.
      */
     fun onViewFormatUpdated(isBtc: Boolean, btcFormat: Int) {
         summaryDelegate.onViewFormatUpdated(isBtc, btcFormat)
         fctxDelegate.onViewFormatUpdated(isBtc, btcFormat)
-        notifyDataSetChanged()
+        notifyItemRangeChanged(0, itemCount, PAYLOAD_AMOUNT)
     }
 
     /**
@@ -66,19 +88,34 @@ class BalanceAdapter(
 
     /**
      * Notifies the adapter that the BTC & ETH exchange rate for the selected currency has been updated.
-     * Will rebuild the entire adapter.
+     * Only the amount of each row is rebound.
      */
     fun onPriceUpdated(lastBtcPrice: Double, lastEthPrice: Double) {
         summaryDelegate.onPriceUpdated(lastBtcPrice, lastEthPrice)
         fctxDelegate.onPriceUpdated(lastBtcPrice)
-        notifyDataSetChanged()
+        notifyItemRangeChanged(0, itemCount, PAYLOAD_AMOUNT)
+    }
+
+    private fun getItemKey(item: Any): Any = when (item) {
+        is Displayable -> item.hash
+        is ContactTransactionModel -> item.facilitatedTransaction.id
+        else -> item
+    }
+
+    companion object {
+
+        /**
+         * Payload sent to the delegates when only the displayed amounts need to be rebound
+         */
+        const val PAYLOAD_AMOUNT = "payload_amount"
+
     }
 
 }
 
 interface BalanceListClickListener {
 
-    fun onTransactionClicked(correctedPosition: Int, absolutePosition: Int)
+    fun onTransactionClicked(hash: String, absolutePosition: Int)
 
     fun onValueClicked(isBtc: Boolean)
 
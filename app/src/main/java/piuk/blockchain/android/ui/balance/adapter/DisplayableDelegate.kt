@@ -25,6 +25,7 @@ import piuk.blockchain.android.util.extensions.gone
 import piuk.blockchain.android.util.extensions.inflate
 import piuk.blockchain.android.util.extensions.visible
 import java.math.BigDecimal
+import java.math.BigInteger
 import java.text.DecimalFormat
 
 class DisplayableDelegate<in T>(
@@ -39,6 +40,11 @@ class DisplayableDelegate<in T>(
     private val prefsUtil = PrefsUtil(activity)
     private val monetaryUtil = MonetaryUtil(prefsUtil.getValue(PrefsUtil.KEY_BTC_UNITS, MonetaryUtil.UNIT_BTC))
     private val dateUtil = DateUtil(activity)
+    private val ethFormat = DecimalFormat.getInstance().apply { maximumFractionDigits = 8 }
+    private var btcUnit = monetaryUtil.getBtcUnit(prefsUtil.getValue(PrefsUtil.KEY_BTC_UNITS, MonetaryUtil.UNIT_BTC))
+    private var fiatString = getSelectedFiat()
+    // Formatted amounts by transaction hash for the current unit, fiat currency and exchange rates
+    private val displayTextCache = HashMap<String, DisplayText>()
     private var transactionDisplayMap = mutableMapOf<String, ContactTransactionDisplayModel>()
 
     override fun isForViewType(items: List<T>, position: Int): Boolean =
@@ -57,17 +63,10 @@ class DisplayableDelegate<in T>(
         val viewHolder = holder as TxViewHolder
         val tx = items[position] as Displayable
 
-        val fiatString = prefsUtil.getValue(PrefsUtil.KEY_SELECTED_FIAT, PrefsUtil.DEFAULT_CURRENCY)
-        val balance = when (tx.cryptoCurrency) {
-            CryptoCurrencies.BTC -> BigDecimal(tx.total).divide(BigDecimal.valueOf(1e8))
-            CryptoCurrencies.ETHER -> BigDecimal(tx.total).divide(BigDecimal.valueOf(1e18))
-            else -> throw IllegalArgumentException("BCH is not currently supported")
-        }
-
-        val fiatBalance = when (tx.cryptoCurrency) {
-            CryptoCurrencies.BTC -> balance.multiply(BigDecimal(btcExchangeRate))
-            CryptoCurrencies.ETHER -> balance.multiply(BigDecimal(ethExchangeRate))
-            else -> throw IllegalArgumentException("BCH is not currently supported")
+        // Price and unit changes only need the amount to be rebound
+        if (payloads.isNotEmpty() && payloads.all { it == BalanceAdapter.PAYLOAD_AMOUNT }) {
+            viewHolder.result.text = getCachedDisplayText(tx)
+            return
         }
 
         viewHolder.result.setTextColor(Color.WHITE)
@@ -98,12 +97,7 @@ class DisplayableDelegate<in T>(
 
         } ?: viewHolder.note.gone()
 
-        viewHolder.result.text = getDisplayText(
-                tx.cryptoCurrency,
-                tx.total.toDouble(),
-                fiatBalance.toDouble(),
-                fiatString
-        )
+        viewHolder.result.text = getCachedDisplayText(tx)
         viewHolder.watchOnly.visibility = if (tx.watchOnly) View.VISIBLE else View.GONE
         viewHolder.doubleSpend.visibility = if (tx.doubleSpend) View.VISIBLE else View.GONE
 
@@ -113,19 +107,22 @@ class DisplayableDelegate<in T>(
         }
 
         viewHolder.itemView.setOnClickListener {
-            listClickListener.onTransactionClicked(
-                    getRealTxPosition(viewHolder.adapterPosition, items), position)
+            listClickListener.onTransactionClicked(tx.hash, position)
         }
     }
 
     fun onViewFormatUpdated(isBtc: Boolean, btcFormat: Int) {
         this.showCrypto = isBtc
         monetaryUtil.updateUnit(btcFormat)
+        btcUnit = monetaryUtil.getBtcUnit(btcFormat)
+        displayTextCache.clear()
     }
 
     fun onPriceUpdated(btcExchangeRate: Double, ethExchangeRate: Double) {
         this.btcExchangeRate = btcExchangeRate
         this.ethExchangeRate = ethExchangeRate
+        fiatString = getSelectedFiat()
+        displayTextCache.clear()
     }
 
     fun onContactsMapUpdated(
@@ -188,31 +185,44 @@ class DisplayableDelegate<in T>(
         )
     }
 
-    private fun getDisplayText(
-            cryptoCurrency: CryptoCurrencies,
-            cryptoAmount: Double,
-            fiatAmount: Double,
-            fiatString: String
-    ): String {
-        var result: String
-        if (showCrypto) {
-            if (cryptoCurrency == CryptoCurrencies.BTC) {
-                result = "${monetaryUtil.getDisplayAmountWithFormatting(Math.abs(cryptoAmount))} ${getDisplayUnits()}"
-            } else {
-                val number = DecimalFormat.getInstance().apply { maximumFractionDigits = 8 }
-                        .run { format(cryptoAmount / 1e18) }
+    /**
+     * The same transaction can have a different total depending on the account it's viewed from,
+     * so cached text is only reused if the total matches.
+     */
+    private fun getCachedDisplayText(tx: Displayable): String {
+        val cached = displayTextCache[tx.hash]
+        if (cached != null && cached.total == tx.total) return cached.text
+
+        return getDisplayText(tx).also { displayTextCache.put(tx.hash, DisplayText(tx.total, it)) }
+    }
 
-                result = "$number ETH"
+    private fun getDisplayText(tx: Displayable): String {
+        val cryptoAmount = tx.total.toDouble()
+        if (showCrypto) {
+            return when (tx.cryptoCurrency) {
+                CryptoCurrencies.BTC ->
+                    "${monetaryUtil.getDisplayAmountWithFormatting(Math.abs(cryptoAmount))} $btcUnit"
+                else -> "${ethFormat.format(cryptoAmount / 1e18)} ETH"
             }
-        } else {
-            result = "${monetaryUtil.getFiatFormat(fiatString).format(Math.abs(fiatAmount))} $fiatString"
         }
 
-        return result
+        val balance = when (tx.cryptoCurrency) {
+            CryptoCurrencies.BTC -> BigDecimal(tx.total).divide(BigDecimal.valueOf(1e8))
+            CryptoCurrencies.ETHER -> BigDecimal(tx.total).divide(BigDecimal.valueOf(1e18))
+            else -> throw IllegalArgumentException("BCH is not currently supported")
+        }
+
+        val fiatBalance = when (tx.cryptoCurrency) {
+            CryptoCurrencies.BTC -> balance.multiply(BigDecimal(btcExchangeRate))
+            CryptoCurrencies.ETHER -> balance.multiply(BigDecimal(ethExchangeRate))
+            else -> throw IllegalArgumentException("BCH is not currently supported")
+        }
+
+        return "${monetaryUtil.getFiatFormat(fiatString).format(Math.abs(fiatBalance.toDouble()))} $fiatString"
     }
 
-    private fun getDisplayUnits(): String =
-            monetaryUtil.getBtcUnits()[prefsUtil.getValue(PrefsUtil.KEY_BTC_UNITS, MonetaryUtil.UNIT_BTC)]
+    private fun getSelectedFiat() =
+            prefsUtil.getValue(PrefsUtil.KEY_SELECTED_FIAT, PrefsUtil.DEFAULT_CURRENCY)
 
     private fun getColorForConfirmations(
             tx: Displayable,
@@ -223,10 +233,7 @@ class DisplayableDelegate<in T>(
     private fun getRequiredConfirmations(tx: Displayable) =
             if (tx.cryptoCurrency == CryptoCurrencies.BTC) CONFIRMATIONS_BTC else CONFIRMATIONS_ETH
 
-    private fun getRealTxPosition(position: Int, items: List<T>): Int {
-        val diff = items.size - items.count { it is Displayable }
-        return position - diff
-    }
+    private class DisplayText(val total: BigInteger, val text: String)
 
     private class TxViewHolder internal constructor(
             itemView: View
@@ -223,7 +223,7 @@ public class ContactDetailFragment extends BaseFragment<ContactDetailView, Conta
                 null,//TODO Check this when dev on Contacts resume
                 new BalanceListClickListener() {
                     @Override
-                    public void onTransactionClicked(int correctedPosition, int absolutePosition) {
+                    public void onTransactionClicked(@NonNull String hash, int absolutePosition) {
                         getPresenter().onCompletedTransactionClicked(absolutePosition);
                     }
 
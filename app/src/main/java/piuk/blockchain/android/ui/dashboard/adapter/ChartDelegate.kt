@@ -24,6 +24,7 @@ import com.github.mikephil.charting.utils.MPPointF
 import kotlinx.android.synthetic.main.item_chart.view.*
 import piuk.blockchain.android.R
 import piuk.blockchain.android.data.charts.TimeSpan
+import piuk.blockchain.android.data.charts.largestTriangleThreeBuckets
 import piuk.blockchain.android.data.currency.CryptoCurrencies
 import piuk.blockchain.android.ui.adapters.AdapterDelegate
 import piuk.blockchain.android.ui.customviews.ToastCustom
@@ -114,7 +115,8 @@ class ChartDelegate<in T>(
             it.chart.apply {
                 visible()
 
-                val entries = data.data.map { Entry(it.timestamp.toFloat(), it.price.toFloat()) }
+                val entries = largestTriangleThreeBuckets(data.data, getMaxPoints(this))
+                        .map { Entry(it.timestamp.toFloat(), it.price.toFloat()) }
                 this.data = LineData(LineDataSet(entries, null).apply {
                     color = ContextCompat.getColor(activity, R.color.primary_navy_medium)
                     lineWidth = 3f
@@ -134,6 +136,16 @@ class ChartDelegate<in T>(
         }
     }
 
+    /**
+     * Returns the number of points which can be drawn without overlapping, based on the rendered
+     * width of the chart, or of the screen if the chart hasn't been laid out yet.
+     */
+    private fun getMaxPoints(chart: LineChart): Int {
+        val displayMetrics = activity.resources.displayMetrics
+        val width = if (chart.width > 0) chart.width else displayMetrics.widthPixels
+        return (width / (POINT_SPACING_DP * displayMetrics.density)).toInt()
+    }
+
     @SuppressLint("SetTextI18n")
     private fun updatePercentChange(data: ChartsState.Data) {
         val first = data.data.first()
@@ -306,4 +318,11 @@ class ChartDelegate<in T>(
 
     }
 
+    companion object {
+
+        // Points spaced closer than this overdraw each other without adding any visible detail
+        private const val POINT_SPACING_DP = 2f
+
+    }
+
 }
\ No newline at end of file
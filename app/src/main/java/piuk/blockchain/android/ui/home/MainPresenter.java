@@ -10,13 +10,11 @@ import info.blockchain.wallet.exceptions.HDWalletException;
 import info.blockchain.wallet.exceptions.InvalidCredentialsException;
 import info.blockchain.wallet.metadata.MetadataNodeFactory;
 import info.blockchain.wallet.payload.PayloadManager;
-import info.blockchain.wallet.prices.data.PriceDatum;
 
 import org.bitcoinj.crypto.DeterministicKey;
 
 import java.math.BigInteger;
 import java.util.Collections;
-import java.util.Map;
 import java.util.NoSuchElementException;
 
 import javax.inject.Inject;
@@ -29,7 +27,6 @@ import piuk.blockchain.android.data.access.AccessState;
 import piuk.blockchain.android.data.answers.Logging;
 import piuk.blockchain.android.data.api.EnvironmentSettings;
 import piuk.blockchain.android.data.auth.AuthService;
-import piuk.blockchain.android.data.cache.DynamicFeeCache;
 import piuk.blockchain.android.data.contacts.ContactsDataManager;
 import piuk.blockchain.android.data.contacts.models.ContactsEvent;
 import piuk.blockchain.android.data.currency.CryptoCurrencies;
@@ -51,6 +48,7 @@ import piuk.blockchain.android.ui.customviews.ToastCustom;
 import piuk.blockchain.android.ui.home.models.MetadataEvent;
 import piuk.blockchain.android.ui.swipetoreceive.SwipeToReceiveHelper;
 import piuk.blockchain.android.util.AppUtil;
+import piuk.blockchain.android.util.ApplicationLifeCycle;
 import piuk.blockchain.android.util.ExchangeRateFactory;
 import piuk.blockchain.android.util.OSUtil;
 import piuk.blockchain.android.util.PrefsUtil;
@@ -72,7 +70,6 @@ public class MainPresenter extends BasePresenter<MainView> {
     private StringUtils stringUtils;
     private SettingsDataManager settingsDataManager;
     private BuyDataManager buyDataManager;
-    private DynamicFeeCache dynamicFeeCache;
     private ExchangeRateFactory exchangeRateFactory;
     private RxBus rxBus;
     private FeeDataManager feeDataManager;
@@ -81,6 +78,18 @@ public class MainPresenter extends BasePresenter<MainView> {
     private EthDataManager ethDataManager;
     private CurrencyState currencyState;
     private WalletOptionsDataManager walletOptionsDataManager;
+    private final ApplicationLifeCycle.LifeCycleListener lifeCycleListener =
+            new ApplicationLifeCycle.LifeCycleListener() {
+                @Override
+                public void onBecameForeground() {
+                    prefetchFeeOptions();
+                }
+
+                @Override
+                public void onBecameBackground() {
+                    // No-op
+                }
+            };
 
     @Inject
     MainPresenter(PrefsUtil prefs,
@@ -93,7 +102,6 @@ public class MainPresenter extends BasePresenter<MainView> {
                   StringUtils stringUtils,
                   SettingsDataManager settingsDataManager,
                   BuyDataManager buyDataManager,
-                  DynamicFeeCache dynamicFeeCache,
                   ExchangeRateFactory exchangeRateFactory,
                   RxBus rxBus,
                   FeeDataManager feeDataManager,
@@ -114,7 +122,6 @@ public class MainPresenter extends BasePresenter<MainView> {
         this.stringUtils = stringUtils;
         this.settingsDataManager = settingsDataManager;
         this.buyDataManager = buyDataManager;
-        this.dynamicFeeCache = dynamicFeeCache;
         this.exchangeRateFactory = exchangeRateFactory;
         this.rxBus = rxBus;
         this.feeDataManager = feeDataManager;
@@ -152,6 +159,7 @@ public class MainPresenter extends BasePresenter<MainView> {
 
             startWebSocketService();
             logEvents();
+            ApplicationLifeCycle.getInstance().addListener(lifeCycleListener);
 
             getView().showProgressDialog(R.string.please_wait);
 
@@ -204,17 +212,29 @@ public class MainPresenter extends BasePresenter<MainView> {
     }
 
     void initMetadataElements() {
-        initMetadataNodesObservable()
-                .compose(RxUtil.addObservableToCompositeDisposable(this))
-                .flatMap(metadataNodeFactory -> ethWalletObservable(metadataNodeFactory.getMetadataNode()))
-                .flatMapCompletable(metadataNodeFactory -> {
-                    //Initialise contacts
-                    //contactsDataManager.initContactsService(metadataNodeFactory.getMetadataNode(), metadataNodeFactory.getSharedMetadataNode());
-                    //payloadDataManager.registerMdid()
-                    //contactsDataManager.publishXpub()
-                    return Completable.complete();
-                })
-                .andThen(feesCompletable())
+        // Fees and tickers don't depend on metadata, so are fetched alongside it. Fees stay on the
+        // critical path, as several screens read them straight from DynamicFeeCache. Tickers don't,
+        // as the balance and dashboard screens fetch their own prices
+        StartupOrchestrator startup = new StartupOrchestrator()
+                .addCriticalStage("metadata", initMetadataNodesObservable()
+                        .flatMap(metadataNodeFactory -> ethWalletObservable(metadataNodeFactory.getMetadataNode()))
+                        //Initialise contacts
+                        //contactsDataManager.initContactsService(metadataNodeFactory.getMetadataNode(), metadataNodeFactory.getSharedMetadataNode());
+                        //payloadDataManager.registerMdid()
+                        //contactsDataManager.publishXpub()
+                        .ignoreElements())
+                .addCriticalStage("btc_fees", feeDataManager.getBtcFeeOptions().ignoreElements())
+                .addCriticalStage("eth_fees", feeDataManager.getEthFeeOptions().ignoreElements())
+                .addBackgroundStage("tickers", exchangeRateFactory.updateTickers().ignoreElements());
+
+        startup.runBackgroundStages()
+                .compose(RxUtil.applySchedulersToCompletable())
+                .compose(RxUtil.addCompletableToCompositeDisposable(this))
+                .subscribe(() -> { /* No-op */ }, Timber::e);
+
+        startup.runCriticalStages()
+                .compose(RxUtil.applySchedulersToCompletable())
+                .compose(RxUtil.addCompletableToCompositeDisposable(this))
                 .doAfterTerminate(() -> {
                             getView().hideProgressDialog();
 
@@ -230,7 +250,7 @@ public class MainPresenter extends BasePresenter<MainView> {
                             }
                         }
                 )
-                .subscribe(o -> {
+                .subscribe(() -> {
                     if (getView().isBuySellPermitted()) {
                         initBuyService();
                     } else {
@@ -283,13 +303,14 @@ public class MainPresenter extends BasePresenter<MainView> {
                 });
     }
 
-    private Observable<Map<String, PriceDatum>> feesCompletable() {
-        return feeDataManager.getBtcFeeOptions()
-                .doOnNext(btcFeeOptions -> dynamicFeeCache.setBtcFeeOptions(btcFeeOptions))
-                .flatMap(ignored -> feeDataManager.getEthFeeOptions())
-                .doOnNext(ethFeeOptions -> dynamicFeeCache.setEthFeeOptions(ethFeeOptions))
-                .compose(RxUtil.applySchedulersToObservable())
-                .flatMap(feeOptions -> exchangeRateFactory.updateTickers());
+    /**
+     * Refreshes fee options in the background if stale, so that the send screen can usually open
+     * without waiting for the network.
+     */
+    private void prefetchFeeOptions() {
+        feeDataManager.prefetchFeeOptions()
+                .compose(RxUtil.addCompletableToCompositeDisposable(this))
+                .subscribe(() -> { /* No-op */ }, Timber::e);
     }
 
     private void checkForMessages() {
@@ -339,6 +360,7 @@ public class MainPresenter extends BasePresenter<MainView> {
     @Override
     public void onViewDestroyed() {
         super.onViewDestroyed();
+        ApplicationLifeCycle.getInstance().removeListener(lifeCycleListener);
         rxBus.unregister(NotificationPayload.class, notificationObservable);
         appUtil.deleteQR();
         dismissAnnouncementIfOnboardingCompleted();
@@ -0,0 +1,71 @@
+package piuk.blockchain.android.ui.home
+
+import io.reactivex.Completable
+import io.reactivex.schedulers.Schedulers
+import piuk.blockchain.android.util.tracing.Tracer
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs the stages of loading a wallet after login concurrently, and records how long each stage
+ * took. Critical stages are the ones the UI has to wait for; background stages are only started
+ * at the same time, and their failures are logged rather than surfaced.
+ *
+ * Stages are expected to be independent of one another. Anything which has to happen in sequence
+ * should be chained within a single stage.
+ */
+class StartupOrchestrator {
+
+    private val criticalStages = mutableListOf<Completable>()
+    private val backgroundStages = mutableListOf<Completable>()
+    private val timings = LinkedHashMap<String, Long>()
+
+    fun addCriticalStage(name: String, stage: Completable): StartupOrchestrator {
+        criticalStages.add(timed(name, stage))
+        return this
+    }
+
+    fun addBackgroundStage(name: String, stage: Completable): StartupOrchestrator {
+        backgroundStages.add(timed(name, stage).doOnError { Timber.e(it, "Startup stage $name failed") })
+        return this
+    }
+
+    /**
+     * Returns a [Completable] which runs all critical stages concurrently, and completes once they
+     * have all completed. If any critical stage fails, the others are cancelled and the error is
+     * passed on.
+     */
+    fun runCriticalStages(): Completable = Completable.defer {
+        val start = now()
+        Completable.merge(criticalStages)
+                .doOnComplete { Timber.d("Startup critical path took %d ms %s", now() - start, getTimings()) }
+    }
+
+    /**
+     * Returns a [Completable] which runs all background stages concurrently. It never errors, as
+     * failed stages are logged and the remaining stages are left to finish.
+     */
+    fun runBackgroundStages(): Completable =
+            Completable.mergeDelayError(backgroundStages).onErrorComplete()
+
+    /**
+     * Returns the duration in milliseconds of every stage which has finished, in the order they
+     * finished.
+     */
+    @Synchronized
+    fun getTimings(): Map<String, Long> = LinkedHashMap(timings)
+
+    private fun timed(name: String, stage: Completable): Completable = Completable.defer {
+        val start = now()
+        Tracer.trace("startup:$name", stage)
+                .doOnTerminate { recordTiming(name, now() - start) }
+    }
+
+    @Synchronized
+    private fun recordTiming(name: String, durationMillis: Long) {
+        timings.put(name, durationMillis)
+    }
+
+    private fun now() = Schedulers.computation().now(TimeUnit.MILLISECONDS)
+
+}
@@ -15,6 +15,7 @@ import piuk.blockchain.android.ui.onboarding.OnboardingActivity
 import piuk.blockchain.android.ui.onboarding.OnboardingActivity.EXTRAS_EMAIL_ONLY
 import piuk.blockchain.android.ui.upgrade.UpgradeWalletActivity
 import piuk.blockchain.android.util.extensions.toast
+import piuk.blockchain.android.util.tracing.Tracer
 import javax.inject.Inject
 
 class LauncherActivity : BaseMvpActivity<LauncherView, LauncherPresenter>(), LauncherView {
@@ -42,14 +43,17 @@ class LauncherActivity : BaseMvpActivity<LauncherView, LauncherPresenter>(), Lau
     override fun getPageIntent(): Intent = intent
 
     override fun onNoGuid() {
+        Tracer.discardLaunch()
         startSingleActivity(LandingActivity::class.java, null)
     }
 
     override fun onRequestPin() {
+        Tracer.discardLaunch()
         startSingleActivity(PinEntryActivity::class.java, null)
     }
 
     override fun onCorruptPayload() {
+        Tracer.discardLaunch()
         AlertDialog.Builder(this, R.style.AlertDialogStyle)
                 .setTitle(R.string.app_name)
                 .setMessage(getString(R.string.not_sane_error))
@@ -61,6 +65,7 @@ class LauncherActivity : BaseMvpActivity<LauncherView, LauncherPresenter>(), Lau
     }
 
     override fun onRequestUpgrade() {
+        Tracer.discardLaunch()
         startActivity(Intent(this, UpgradeWalletActivity::class.java))
         finish()
     }
@@ -70,11 +75,13 @@ class LauncherActivity : BaseMvpActivity<LauncherView, LauncherPresenter>(), Lau
     }
 
     override fun onStartOnboarding(emailOnly: Boolean) {
+        Tracer.discardLaunch()
         val bundle = Bundle().apply { putBoolean(EXTRAS_EMAIL_ONLY, emailOnly) }
         startSingleActivity(OnboardingActivity::class.java, bundle)
     }
 
     override fun onReEnterPassword() {
+        Tracer.discardLaunch()
         startSingleActivity(PasswordRequiredActivity::class.java, null)
     }
 
@@ -1,9 +1,14 @@
 package piuk.blockchain.android.ui.receive
 
+import android.graphics.Bitmap
 import android.support.annotation.VisibleForTesting
 import info.blockchain.wallet.payload.data.Account
 import info.blockchain.wallet.payload.data.LegacyAddress
 import info.blockchain.wallet.util.FormatsUtil
+import io.reactivex.Observable
+import io.reactivex.android.schedulers.AndroidSchedulers
+import io.reactivex.disposables.Disposable
+import io.reactivex.subjects.PublishSubject
 import org.bitcoinj.core.Address
 import org.bitcoinj.core.Coin
 import org.bitcoinj.uri.BitcoinURI
@@ -27,6 +32,7 @@ import java.math.BigDecimal
 import java.math.BigInteger
 import java.text.DecimalFormat
 import java.util.*
+import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
 @Suppress("MemberVisibilityCanPrivate")
@@ -50,6 +56,9 @@ class ReceivePresenter @Inject internal constructor(
     internal val currencyHelper by unsafeLazy {
         ReceiveCurrencyHelper(monetaryUtil, Locale.getDefault(), prefsUtil, exchangeRateFactory, currencyState)
     }
+    private val qrCodeRequests = PublishSubject.create<QrCodeRequest>()
+    // Kept out of the CompositeDisposable, which is cleared whenever the selected currency changes
+    private val qrCodeDisposable: Disposable = subscribeToQrCodeRequests()
 
     override fun onViewReady() {
         if (view.isContactsEnabled) {
@@ -160,7 +169,7 @@ class ReceivePresenter @Inject internal constructor(
             view.showToast(R.string.invalid_amount, ToastCustom.TYPE_ERROR)
         }
 
-        generateQrCode(getBitcoinUri(selectedAddress!!, amount))
+        generateQrCode(getBitcoinUri(selectedAddress!!, amount), true)
     }
 
     internal fun getSelectedAccountPosition(): Int {
@@ -257,16 +266,46 @@ class ReceivePresenter @Inject internal constructor(
         return currencyHelper.getUndenominatedAmount(amountLong)
     }
 
-    private fun generateQrCode(uri: String) {
-        view.showQrLoading()
-        compositeDisposable.clear()
-        qrCodeDataManager.generateQrCode(uri, DIMENSION_QR_CODE)
-                .compose(RxUtil.addObservableToCompositeDisposable(this))
-                .subscribe(
-                        { view.showQrCode(it) },
-                        { view.showQrCode(null) })
+    override fun onViewDestroyed() {
+        qrCodeDisposable.dispose()
+        super.onViewDestroyed()
     }
 
+    /**
+     * Queues a QR code for the given URI. Amount edits are debounced so that a code is only
+     * generated once the user stops typing, and any encode that is still running when a newer
+     * request arrives is discarded.
+     *
+     * @param uri The URI to encode
+     * @param debounce True if the request comes from the user typing an amount
+     */
+    private fun generateQrCode(uri: String, debounce: Boolean = false) {
+        qrCodeRequests.onNext(QrCodeRequest(uri, debounce))
+    }
+
+    private fun subscribeToQrCodeRequests(): Disposable = qrCodeRequests
+            .debounce {
+                if (it.debounce) {
+                    Observable.timer(QR_CODE_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+                } else {
+                    Observable.empty<Long>()
+                }
+            }
+            // Debounced requests arrive on the timer's thread
+            .observeOn(AndroidSchedulers.mainThread())
+            .doOnNext { view.showQrLoading() }
+            .switchMap {
+                qrCodeDataManager.generateQrCode(it.uri, DIMENSION_QR_CODE)
+                        .observeOn(AndroidSchedulers.mainThread())
+                        .doOnError { view.showQrCode(null) }
+                        .onErrorResumeNext(Observable.empty<Bitmap>())
+            }
+            .subscribe(
+                    { view.showQrCode(it) },
+                    { Timber.e(it) })
+
+    private data class QrCodeRequest(val uri: String, val debounce: Boolean)
+
     /**
      * Returns BTC amount from satoshis.
      *
@@ -323,6 +362,7 @@ class ReceivePresenter @Inject internal constructor(
 
         @VisibleForTesting const val KEY_WARN_WATCH_ONLY_SPEND = "warn_watch_only_spend"
         private val DIMENSION_QR_CODE = 600
+        private const val QR_CODE_DEBOUNCE_MILLIS = 300L
 
     }
 
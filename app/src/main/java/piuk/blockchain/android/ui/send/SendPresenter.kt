@@ -30,6 +30,7 @@ import piuk.blockchain.android.data.answers.PaymentSentEvent
 import piuk.blockchain.android.data.api.EnvironmentSettings
 import piuk.blockchain.android.data.auth.AuthService
 import piuk.blockchain.android.data.cache.DynamicFeeCache
+import piuk.blockchain.android.data.cache.UnspentOutputsCache
 import piuk.blockchain.android.data.currency.CryptoCurrencies
 import piuk.blockchain.android.data.currency.CurrencyState
 import piuk.blockchain.android.data.datamanagers.FeeDataManager
@@ -37,6 +38,7 @@ import piuk.blockchain.android.data.datamanagers.TransactionListDataManager
 import piuk.blockchain.android.data.ethereum.EthDataManager
 import piuk.blockchain.android.data.ethereum.models.CombinedEthModel
 import piuk.blockchain.android.data.payload.PayloadDataManager
+import piuk.blockchain.android.data.payments.CoinSelection
 import piuk.blockchain.android.data.payments.SendDataManager
 import piuk.blockchain.android.data.rxjava.IgnorableDefaultObserver
 import piuk.blockchain.android.data.rxjava.RxUtil
@@ -52,7 +54,6 @@ import piuk.blockchain.android.util.*
 import piuk.blockchain.android.util.helperfunctions.unsafeLazy
 import timber.log.Timber
 import java.io.IOException
-import java.io.UnsupportedEncodingException
 import java.math.BigDecimal
 import java.math.BigInteger
 import java.math.RoundingMode
@@ -74,7 +75,8 @@ class SendPresenter @Inject constructor(
         private val feeDataManager: FeeDataManager,
         private val privateKeyFactory: PrivateKeyFactory,
         private val environmentSettings: EnvironmentSettings,
-        private val transactionListDataManager: TransactionListDataManager
+        private val transactionListDataManager: TransactionListDataManager,
+        private val unspentOutputsCache: UnspentOutputsCache
 ) : BasePresenter<SendView>() {
 
     private val locale: Locale by unsafeLazy { Locale.getDefault() }
@@ -83,10 +85,10 @@ class SendPresenter @Inject constructor(
     }
     private val monetaryUtil: MonetaryUtil by unsafeLazy { MonetaryUtil(getBtcUnitType()) }
     private val pendingTransaction by unsafeLazy { PendingTransaction() }
-    private val unspentApiResponses by unsafeLazy { HashMap<String, UnspentOutputs>() }
 
     private var feeOptions: FeeOptions? = null
     private var textChangeSubject = PublishSubject.create<String>()
+    private val coinSelectionRequests = PublishSubject.create<CoinSelectionRequest>()
     private var absoluteSuggestedFee = BigInteger.ZERO
     private var maxAvailable = BigInteger.ZERO
     private var verifiedSecondPassword: String? = null
@@ -105,6 +107,7 @@ class SendPresenter @Inject constructor(
     }
 
     override fun onViewReady() {
+        subscribeToCoinSelectionRequests()
         resetAccountList()
         setupTextChangeSubject()
         updateTicker()
@@ -142,6 +145,7 @@ class SendPresenter @Inject constructor(
 
     private fun resetState() {
         compositeDisposable.clear()
+        subscribeToCoinSelectionRequests()
         pendingTransaction.clear()
         view?.setSendButtonEnabled(true)
         updateTicker()
@@ -236,7 +240,7 @@ class SendPresenter @Inject constructor(
                             .putAmountForRange(pendingTransaction.bigIntAmount, CryptoCurrencies.ETHER)
                             .putCurrencyType(CryptoCurrencies.BTC))
 
-                    clearBtcUnspentResponseCache()
+                    markBtcOutputsSpent()
                     view.dismissProgressDialog()
                     view.dismissConfirmationDialog()
                     insertBtcPlaceHolderTransaction(hash, pendingTransaction)
@@ -343,14 +347,11 @@ class SendPresenter @Inject constructor(
                 }
     }
 
-    private fun clearBtcUnspentResponseCache() {
-        if (pendingTransaction.isHD) {
-            val account = pendingTransaction.sendingObject.accountObject as Account
-            unspentApiResponses.remove(account.xpub)
-        } else {
-            val legacyAddress = pendingTransaction.sendingObject.accountObject as LegacyAddress
-            unspentApiResponses.remove(legacyAddress.address)
-        }
+    private fun markBtcOutputsSpent() {
+        unspentOutputsCache.markSpent(
+                pendingTransaction.sendingObject.getAddressString(),
+                pendingTransaction.unspentOutputBundle.spendableOutputs
+        )
     }
 
     private fun incrementBtcReceiveAddress() {
@@ -366,7 +367,6 @@ class SendPresenter @Inject constructor(
         view?.showTransactionSuccess(hash, pendingTransaction.bigIntAmount.toLong(), cryptoCurrency)
 
         pendingTransaction.clear()
-        unspentApiResponses.clear()
 
         logAddressInputMetric()
 
@@ -633,11 +633,9 @@ class SendPresenter @Inject constructor(
         val observable = when (currencyState.cryptoCurrency) {
             CryptoCurrencies.BTC -> feeDataManager.btcFeeOptions
                     .doOnSubscribe { feeOptions = dynamicFeeCache.btcFeeOptions!! }
-                    .doOnNext { dynamicFeeCache.btcFeeOptions = it }
 
             CryptoCurrencies.ETHER -> feeDataManager.ethFeeOptions
                     .doOnSubscribe { feeOptions = dynamicFeeCache.ethFeeOptions!! }
-                    .doOnNext { dynamicFeeCache.ethFeeOptions = it }
 
             else -> throw IllegalArgumentException("BCH is not currently supported")
         }
@@ -688,32 +686,17 @@ class SendPresenter @Inject constructor(
     }
 
     /**
-     * Retrieves unspent api data in memory. If not in memory yet, it will be retrieved and added.
+     * Retrieves unspent api data from the [UnspentOutputsCache]. If not cached or stale, it will be
+     * retrieved and added.
      */
     private fun getUnspentApiResponse(address: String): Observable<UnspentOutputs> {
         return if (payloadDataManager.getAddressBalance(address).toLong() > 0) {
-            return if (unspentApiResponses.containsKey(address)) {
-                Observable.just(unspentApiResponses[address])
-            } else {
-                sendDataManager.getUnspentOutputs(address)
-            }
+            unspentOutputsCache.fetch(address, sendDataManager.getUnspentOutputs(address))
         } else {
             Observable.error(Throwable("No funds - skipping call to unspent API"))
         }
     }
 
-    @Throws(UnsupportedEncodingException::class)
-    private fun getSuggestedAbsoluteFee(
-            coins: UnspentOutputs,
-            amountToSend: BigInteger,
-            feePerKb: BigInteger
-    ): BigInteger {
-        val spendableCoins = sendDataManager.getSpendableCoins(coins,
-                amountToSend,
-                feePerKb)
-        return spendableCoins.absoluteFee
-    }
-
     /**
      * Update absolute fee with smallest denomination of crypto currency (satoshi, wei, etc)
      */
@@ -805,16 +788,37 @@ class SendPresenter @Inject constructor(
             amountToSendText: String?,
             feePerKb: BigInteger
     ) {
+        coinSelectionRequests.onNext(CoinSelectionRequest(
+                pendingTransaction.sendingObject.getAddressString(),
+                currencyHelper.getSatoshisFromText(amountToSendText, getDefaultDecimalSeparator()),
+                feePerKb,
+                spendAll
+        ))
+    }
 
-        val address = pendingTransaction.sendingObject.getAddressString()
-
-        getUnspentApiResponse(address)
-                .debounce(200, TimeUnit.MILLISECONDS)
-                .compose(RxUtil.applySchedulersToObservable<UnspentOutputs>())
+    /**
+     * Runs coin selection for the latest request only. Requests aren't debounced here, as the
+     * amount field already is, but a selection which is still running when a newer request arrives
+     * is discarded, so that an older result can never overwrite the pending transaction.
+     */
+    private fun subscribeToCoinSelectionRequests() {
+        coinSelectionRequests
+                .switchMap { request ->
+                    getUnspentApiResponse(request.address)
+                            .flatMap { coins ->
+                                sendDataManager.getCoinSelection(
+                                        coins,
+                                        request.amountToSend,
+                                        request.feePerKb,
+                                        request.spendAll
+                                ).map { Triple(request, coins, it) }
+                            }
+                            .doOnError { onCoinSelectionFailed(it) }
+                            .onErrorResumeNext(Observable.empty())
+                }
+                .compose(RxUtil.addObservableToCompositeDisposable(this))
                 .subscribe(
-                        { coins ->
-                            val amountToSend = currencyHelper.getSatoshisFromText(amountToSendText, getDefaultDecimalSeparator())
-
+                        { (request, coins, coinSelection) ->
                             // Future use. There might be some unconfirmed funds. Not displaying a warning currently (to line up with iOS and Web wallet)
                             if (coins.notice != null) {
                                 view.updateWarning(coins.notice)
@@ -822,54 +826,44 @@ class SendPresenter @Inject constructor(
                                 view.clearWarning()
                             }
 
-                            updateFee(getSuggestedAbsoluteFee(coins, amountToSend, feePerKb))
-
-                            suggestedFeePayment(coins, amountToSend, spendAll, feePerKb)
+                            updateFee(coinSelection.spendableCoins.absoluteFee)
+                            suggestedFeePayment(coinSelection, request.spendAll)
                         },
-                        { throwable ->
-                            Timber.e(throwable)
-                            // No unspent outputs
-                            updateMaxAvailable(BigInteger.ZERO)
-                            updateFee(BigInteger.ZERO)
-                            pendingTransaction.unspentOutputBundle = null
-                        })
+                        { Timber.e(it) })
+    }
+
+    private fun onCoinSelectionFailed(throwable: Throwable) {
+        Timber.e(throwable)
+        // No unspent outputs
+        updateMaxAvailable(BigInteger.ZERO)
+        updateFee(BigInteger.ZERO)
+        pendingTransaction.unspentOutputBundle = null
     }
 
+    private data class CoinSelectionRequest(
+            val address: String,
+            val amountToSend: BigInteger,
+            val feePerKb: BigInteger,
+            val spendAll: Boolean
+    )
+
     /**
      * Payment will use suggested dynamic fee
      */
-    @Throws(UnsupportedEncodingException::class)
-    private fun suggestedFeePayment(
-            coins: UnspentOutputs,
-            amountToSend: BigInteger,
-            spendAll: Boolean,
-            feePerKb: BigInteger
-    ) {
-        var amount = amountToSend
-
-        //Calculate sweepable amount to display max available
-        val sweepBundle = sendDataManager.getMaximumAvailable(coins, feePerKb)
-        val sweepableAmount = sweepBundle.left
-
-        updateMaxAvailable(sweepableAmount)
+    private fun suggestedFeePayment(coinSelection: CoinSelection, spendAll: Boolean) {
+        //Display max available
+        updateMaxAvailable(coinSelection.maximumAvailable)
 
         if (spendAll) {
-            amount = sweepableAmount
             view?.updateCryptoAmount(currencyHelper.getTextFromSatoshis(
-                    sweepableAmount.toLong(),
+                    coinSelection.amount.toLong(),
                     getDefaultDecimalSeparator()
             ))
         }
 
-        val unspentOutputBundle = sendDataManager.getSpendableCoins(
-                coins,
-                amount,
-                feePerKb
-        )
-
-        pendingTransaction.bigIntAmount = amount
-        pendingTransaction.unspentOutputBundle = unspentOutputBundle
-        pendingTransaction.bigIntFee = pendingTransaction.unspentOutputBundle.absoluteFee
+        pendingTransaction.bigIntAmount = coinSelection.amount
+        pendingTransaction.unspentOutputBundle = coinSelection.spendableCoins
+        pendingTransaction.bigIntFee = coinSelection.spendableCoins.absoluteFee
     }
 
     private fun getEthAccountResponse(spendAll: Boolean, amountToSendText: String?) {
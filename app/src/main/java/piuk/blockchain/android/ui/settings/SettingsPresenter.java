@@ -554,6 +554,9 @@ public class SettingsPresenter extends BasePresenter<SettingsView> {
         prefsUtil.removeValue(SwipeToReceiveHelper.KEY_SWIPE_RECEIVE_ACCOUNT_NAME);
         prefsUtil.removeValue(SwipeToReceiveHelper.KEY_SWIPE_RECEIVE_ADDRESSES);
         prefsUtil.removeValue(SwipeToReceiveHelper.KEY_SWIPE_RECEIVE_ETH_ADDRESS);
+        prefsUtil.removeValue(SwipeToReceiveHelper.KEY_SWIPE_RECEIVE_XPUB);
+        prefsUtil.removeValue(SwipeToReceiveHelper.KEY_SWIPE_RECEIVE_USED_ADDRESSES);
+        prefsUtil.removeValue(SwipeToReceiveHelper.KEY_SWIPE_RECEIVE_VERIFIED_AT);
     }
 
 }
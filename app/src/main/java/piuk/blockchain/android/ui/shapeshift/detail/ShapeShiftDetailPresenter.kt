@@ -4,7 +4,6 @@ import info.blockchain.wallet.shapeshift.ShapeShiftPairs
 import info.blockchain.wallet.shapeshift.data.Trade
 import info.blockchain.wallet.shapeshift.data.TradeStatusResponse
 import io.reactivex.Observable
-import io.reactivex.schedulers.Schedulers
 import piuk.blockchain.android.R
 import piuk.blockchain.android.data.currency.CryptoCurrencies
 import piuk.blockchain.android.data.rxjava.RxUtil
@@ -19,7 +18,6 @@ import timber.log.Timber
 import java.math.BigDecimal
 import java.math.RoundingMode
 import java.text.DecimalFormat
-import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
 @Mockable
@@ -63,12 +61,9 @@ class ShapeShiftDetailPresenter @Inject constructor(
                 .doOnTerminate { view.dismissProgressDialog() }
                 // Start polling for results anyway
                 .flatMap {
-                    Observable.interval(10, TimeUnit.SECONDS, Schedulers.io())
-                            .flatMap { shapeShiftDataManager.getTradeStatus(view.depositAddress) }
-                            .compose(RxUtil.applySchedulersToObservable())
+                    shapeShiftDataManager.pollTradeStatus(view.depositAddress)
                             .compose(RxUtil.addObservableToCompositeDisposable(this))
                             .doOnNext { handleTradeResponse(it) }
-                            .takeUntil { isInFinalState(it.status) }
                 }
                 .subscribe(
                         {
@@ -235,11 +230,6 @@ class ShapeShiftDetailPresenter @Inject constructor(
     }
     //endregion
 
-    private fun isInFinalState(status: Trade.STATUS) = when (status) {
-        Trade.STATUS.NO_DEPOSITS, Trade.STATUS.RECEIVED -> false
-        Trade.STATUS.COMPLETE, Trade.STATUS.FAILED, Trade.STATUS.RESOLVED -> true
-    }
-
     private fun getToFromPair(pair: String): ToFromPair = when (pair.toLowerCase()) {
         ShapeShiftPairs.ETH_BTC -> ToFromPair(CryptoCurrencies.BTC, CryptoCurrencies.ETHER)
         ShapeShiftPairs.BTC_ETH -> ToFromPair(CryptoCurrencies.ETHER, CryptoCurrencies.BTC)
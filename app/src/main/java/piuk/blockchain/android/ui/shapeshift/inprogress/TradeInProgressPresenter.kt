@@ -1,14 +1,12 @@
 package piuk.blockchain.android.ui.shapeshift.inprogress
 
 import info.blockchain.wallet.shapeshift.data.Trade
-import io.reactivex.Observable
 import piuk.blockchain.android.R
 import piuk.blockchain.android.data.rxjava.RxUtil
 import piuk.blockchain.android.data.shapeshift.ShapeShiftDataManager
 import piuk.blockchain.android.ui.base.BasePresenter
 import piuk.blockchain.android.ui.shapeshift.models.TradeProgressUiState
 import timber.log.Timber
-import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
 class TradeInProgressPresenter @Inject constructor(
@@ -20,11 +18,8 @@ class TradeInProgressPresenter @Inject constructor(
         onNoDeposit()
 
         // Poll for results
-        Observable.interval(10, TimeUnit.SECONDS)
-                .flatMap { shapeShiftDataManager.getTradeStatus(view.depositAddress) }
+        shapeShiftDataManager.pollTradeStatus(view.depositAddress)
                 .doOnNext { handleState(it.status) }
-                .takeUntil { isInFinalState(it.status) }
-                .compose(RxUtil.applySchedulersToObservable())
                 .compose(RxUtil.addObservableToCompositeDisposable(this))
                 .subscribe(
                         {
@@ -111,9 +106,4 @@ class TradeInProgressPresenter @Inject constructor(
         view.updateUi(state)
     }
 
-    private fun isInFinalState(status: Trade.STATUS) = when (status) {
-        Trade.STATUS.NO_DEPOSITS, Trade.STATUS.RECEIVED -> false
-        Trade.STATUS.COMPLETE, Trade.STATUS.FAILED, Trade.STATUS.RESOLVED -> true
-    }
-
 }
\ No newline at end of file
@@ -482,11 +482,9 @@ class NewExchangePresenter @Inject constructor(
     private fun fetchFeesObservable(selectedCurrency: CryptoCurrencies) = when (selectedCurrency) {
         CryptoCurrencies.BTC -> feeDataManager.btcFeeOptions
                 .doOnSubscribe { feeOptions = dynamicFeeCache.btcFeeOptions!! }
-                .doOnNext { dynamicFeeCache.btcFeeOptions = it }
 
         CryptoCurrencies.ETHER -> feeDataManager.ethFeeOptions
                 .doOnSubscribe { feeOptions = dynamicFeeCache.ethFeeOptions!! }
-                .doOnNext { dynamicFeeCache.ethFeeOptions = it }
 
         else -> throw IllegalArgumentException("BCH is not currently supported")
     }
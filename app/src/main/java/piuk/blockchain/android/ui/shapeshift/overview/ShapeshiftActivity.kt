@@ -49,6 +49,11 @@ class ShapeShiftActivity : BaseMvpActivity<ShapeShiftView, ShapeShiftPresenter>(
         presenter.onResume()
     }
 
+    override fun onDestroy() {
+        tradesAdapter?.cancelPendingUpdates()
+        super.onDestroy()
+    }
+
     override fun onActivityResult(requestCode: Int, resultCode: Int, data: Intent?) {
         super.onActivityResult(requestCode, resultCode, data)
 
@@ -18,7 +18,6 @@ import piuk.blockchain.android.util.PrefsUtil
 import piuk.blockchain.android.util.annotations.Mockable
 import piuk.blockchain.android.util.helperfunctions.unsafeLazy
 import timber.log.Timber
-import java.util.concurrent.TimeUnit
 import javax.inject.Inject
 
 @Mockable
@@ -89,8 +88,8 @@ class ShapeShiftPresenter @Inject constructor(
     }
 
     private fun pollForStatus(trades: List<Trade>) {
-
         Observable.fromIterable(trades)
+                .filter { !isInFinalState(it.status) }
                 .compose(RxUtil.addObservableToCompositeDisposable(this))
                 .flatMap { trade -> createPollObservable(trade) }
                 .subscribe(
@@ -125,10 +124,7 @@ class ShapeShiftPresenter @Inject constructor(
                     }
 
     private fun createPollObservable(trade: Trade): Observable<TradeStatusResponse> =
-            shapeShiftDataManager.getTradeStatus(trade.quote.deposit)
-                    .compose(RxUtil.addObservableToCompositeDisposable(this))
-                    .repeatWhen { it.delay(10, TimeUnit.SECONDS) }
-                    .takeUntil { isInFinalState(it.status) }
+            shapeShiftDataManager.pollTradeStatus(trade.quote.deposit)
                     .doOnNext { handleState(trade, it) }
 
     /**
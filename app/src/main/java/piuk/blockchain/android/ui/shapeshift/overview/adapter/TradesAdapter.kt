@@ -4,10 +4,9 @@ import android.app.Activity
 import info.blockchain.wallet.shapeshift.data.Trade
 import info.blockchain.wallet.shapeshift.data.TradeStatusResponse
 import piuk.blockchain.android.ui.adapters.AdapterDelegatesManager
+import piuk.blockchain.android.ui.adapters.AsyncListDiffer
 import piuk.blockchain.android.ui.adapters.DelegationAdapter
-import piuk.blockchain.android.util.extensions.autoNotify
 import java.math.BigDecimal
-import kotlin.properties.Delegates
 
 class TradesAdapter(
         activity: Activity,
@@ -27,19 +26,19 @@ class TradesAdapter(
         setHasStableIds(true)
     }
 
-    /**
-     * Observes the items list and automatically notifies the adapter of changes to the data based
-     * on the comparison we make here, which is a simple equality check.
-     */
-    override var items: List<Any> by Delegates.observable(emptyList()) { _, oldList, newList ->
-        autoNotify(oldList, newList) { o, n -> o == n }
-    }
+    private val differ = AsyncListDiffer(this, object : AsyncListDiffer.ItemCallback<Any>() {
+        override fun areItemsTheSame(oldItem: Any, newItem: Any) = getItemKey(oldItem) == getItemKey(newItem)
+
+        // The header rows hold no data, so only trades can change
+        override fun areContentsTheSame(oldItem: Any, newItem: Any) = oldItem !is Trade || oldItem == newItem
+    })
 
     /**
      * Required so that [setHasStableIds] = true doesn't break the RecyclerView and show duplicated
-     * layouts.
+     * layouts. Trades are identified by their deposit address so that their ID survives status
+     * updates.
      */
-    override fun getItemId(position: Int): Long = items[position].hashCode().toLong()
+    override fun getItemId(position: Int): Long = getItemKey(items[position]).hashCode().toLong()
 
     fun updateTradeList(trades: List<Any>) {
         val mutableList = trades.toMutableList()
@@ -49,35 +48,61 @@ class TradesAdapter(
             mutableList.add(1, ShapeshiftHeaderDisplayable())//Row title delegate
         }
 
-        items = mutableList
+        differ.submitList(mutableList)
+    }
+
+    /**
+     * Discards any list which is still being diffed. This should be called when the view is
+     * destroyed.
+     */
+    fun cancelPendingUpdates() {
+        differ.cancel()
     }
 
     /**
      * Notifies the adapter that the View format (ie, whether or not to show BTC) has been changed.
-     * Will rebuild the entire adapter.
+     * Only the amount of each row is rebound.
      */
     fun onViewFormatUpdated(isBtc: Boolean, btcFormat: Int) {
         tradesDelegate.onViewFormatUpdated(isBtc, btcFormat)
-        notifyDataSetChanged()
+        notifyItemRangeChanged(0, itemCount, PAYLOAD_AMOUNT)
     }
 
     /**
      * Notifies the adapter that the BTC & ETH exchange rate for the selected currency has been updated.
-     * Will rebuild the entire adapter.
+     * Only the amount of each row is rebound.
      */
     fun onPriceUpdated(lastBtcPrice: Double, lastEthPrice: Double) {
         tradesDelegate.onPriceUpdated(lastBtcPrice, lastEthPrice)
-        notifyDataSetChanged()
+        notifyItemRangeChanged(0, itemCount, PAYLOAD_AMOUNT)
     }
 
     fun updateTrade(trade: Trade, tradeResponse: TradeStatusResponse) {
 
-        val matchingTrade = items.filterIsInstance(Trade::class.java).find { it.quote.deposit == tradeResponse.address }
-        matchingTrade?.quote?.withdrawalAmount = trade.quote.withdrawalAmount ?: tradeResponse.incomingCoin ?: BigDecimal.ZERO
-        matchingTrade?.quote?.pair = tradeResponse.pair ?: trade.quote.pair
+        val position = items.indexOfFirst { it is Trade && it.quote.deposit == tradeResponse.address }
+        if (position == -1) return
+
+        val matchingTrade = items[position] as Trade
+        matchingTrade.quote?.withdrawalAmount = trade.quote.withdrawalAmount ?: tradeResponse.incomingCoin ?: BigDecimal.ZERO
+        matchingTrade.quote?.pair = tradeResponse.pair ?: trade.quote.pair
+
+        notifyItemChanged(position)
+    }
+
+    private fun getItemKey(item: Any): Any = when (item) {
+        is Trade -> item.quote.deposit
+        else -> item.javaClass
+    }
+
+    companion object {
+
+        /**
+         * Payload sent to the delegates when only the displayed amounts need to be rebound
+         */
+        const val PAYLOAD_AMOUNT = "payload_amount"
 
-        notifyDataSetChanged()
     }
+
 }
 
 interface TradesListClickListener {
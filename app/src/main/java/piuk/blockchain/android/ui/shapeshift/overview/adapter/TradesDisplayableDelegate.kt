@@ -58,6 +58,15 @@ class TradesDisplayableDelegate<in T>(
         val viewHolder = holder as TradeViewHolder
         val trade = items[position] as Trade
 
+        // Price and unit changes only need the amount to be rebound
+        if (payloads.isNotEmpty() && payloads.all { it == TradesAdapter.PAYLOAD_AMOUNT }) {
+            viewHolder.result.text = getDisplaySpannable(
+                    trade.acquiredCoinType,
+                    trade.quote.withdrawalAmount ?: BigDecimal.ZERO
+            )
+            return
+        }
+
         if (trade.timestamp > 0) {
             viewHolder.timeSince.text = dateUtil.formatted(trade.timestamp / 1000)
         } else {
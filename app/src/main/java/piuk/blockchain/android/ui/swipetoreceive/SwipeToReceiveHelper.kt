@@ -3,6 +3,7 @@ package piuk.blockchain.android.ui.swipetoreceive
 import info.blockchain.api.data.Balance
 import io.reactivex.Observable
 import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
 import piuk.blockchain.android.R
 import piuk.blockchain.android.data.ethereum.EthDataManager
 import piuk.blockchain.android.data.payload.PayloadDataManager
@@ -11,42 +12,66 @@ import piuk.blockchain.android.util.PrefsUtil
 import piuk.blockchain.android.util.StringUtils
 import piuk.blockchain.android.util.annotations.Mockable
 import timber.log.Timber
-import java.math.BigInteger
 import java.util.*
-
+import java.util.concurrent.TimeUnit
+
+/**
+ * Stores a pool of receive addresses for the default account so that funds can be received via
+ * swipe to receive without the wallet being decrypted. Addresses which have received funds are
+ * tracked locally, so the pool only needs to be checked against the server once it is stale.
+ *
+ * @param poolSize The number of receive addresses to keep derived ahead of the next unused address
+ * @param maxUnverifiedAgeMillis How long locally tracked usage is trusted before the balances of
+ * the pool are checked again
+ */
 @Mockable
-class SwipeToReceiveHelper(
+class SwipeToReceiveHelper @JvmOverloads constructor(
         private val payloadDataManager: PayloadDataManager,
         private val prefsUtil: PrefsUtil,
         private val ethDataManager: EthDataManager,
-        private val stringUtils: StringUtils
+        private val stringUtils: StringUtils,
+        private val poolSize: Int = DEFAULT_POOL_SIZE,
+        private val maxUnverifiedAgeMillis: Long = DEFAULT_MAX_UNVERIFIED_AGE_MILLIS
 ) {
 
     /**
-     * Derives 5 addresses from the current point on the receive chain. Stores them alongside the
-     * account name in SharedPrefs. Only stores addresses if enabled in SharedPrefs. This should be
-     * called on a Computation thread as it can take up to 2 seconds on a mid-range device.
+     * Derives [poolSize] addresses from the current point on the receive chain. Stores them
+     * alongside the account name in SharedPrefs. Only stores addresses if enabled in SharedPrefs.
+     * Addresses already stored for the same account which are still unused are kept, so only
+     * addresses beyond the end of the stored pool are derived. This should be called on a
+     * Computation thread as deriving a full pool can take several seconds on a mid-range device.
      */
     fun updateAndStoreBitcoinAddresses() {
         if (getIfSwipeEnabled()) {
-            val numOfAddresses = 5
-
             val defaultAccount = payloadDataManager.defaultAccount
             val receiveAccountName = defaultAccount.label
             storeAccountName(receiveAccountName)
 
-            val stringBuilder = StringBuilder()
+            val nextAddress = payloadDataManager.getReceiveAddressAtPosition(defaultAccount, 0) ?:
+                    // Likely not initialized yet
+                    return
 
-            for (i in 0 until numOfAddresses) {
+            val addresses = getReusableAddresses(defaultAccount.xpub, nextAddress)
+            for (i in addresses.size until poolSize) {
                 val receiveAddress = payloadDataManager.getReceiveAddressAtPosition(defaultAccount, i) ?:
-                        // Likely not initialized yet
                         break
 
-                stringBuilder.append(receiveAddress)
-                        .append(",")
+                addresses.add(receiveAddress)
             }
 
-            storeBitcoinAddresses(stringBuilder.toString())
+            storeBitcoinAddresses(defaultAccount.xpub, addresses)
+        }
+    }
+
+    /**
+     * Records that an address in the stored pool has received funds, so that it won't be offered
+     * again. Addresses which aren't in the pool are ignored.
+     *
+     * @param address The address which has received a transaction
+     */
+    fun markBitcoinAddressUsed(address: String) {
+        if (address in getBitcoinReceiveAddresses()) {
+            storeUsedBitcoinAddresses(getUsedBitcoinAddresses() + address)
         }
     }
 
@@ -66,33 +91,34 @@ class SwipeToReceiveHelper(
     }
 
     /**
-     * Returns the next unused address from the list of 5 stored for swipe to receive. Can return an
-     * empty String if no unused addresses are found.
+     * Returns the next unused address from the stored pool. The balances of the pool are only
+     * checked if they haven't been verified within [maxUnverifiedAgeMillis]. Can return an empty
+     * String if no unused addresses are found.
      */
     fun getNextAvailableBitcoinAddressSingle(): Single<String> {
-        return getBalanceOfAddresses(getBitcoinReceiveAddresses())
+        val usedAddresses = getUsedBitcoinAddresses()
+        val unusedAddresses = getBitcoinReceiveAddresses().filterNot { it in usedAddresses }
+
+        if (unusedAddresses.isEmpty()) return Single.just("")
+        if (now() - prefsUtil.getValue(KEY_SWIPE_RECEIVE_VERIFIED_AT, 0L) <= maxUnverifiedAgeMillis) {
+            return Single.just(unusedAddresses.first())
+        }
+
+        return getBalanceOfAddresses(unusedAddresses)
                 .map { map ->
-                    for ((address, value) in map) {
-                        val balance = value.finalBalance
-                        if (balance.compareTo(BigInteger.ZERO) == 0) {
-                            return@map address
-                        }
-                    }
-                    return@map ""
+                    val fundedAddresses = map.filterValues { it.finalBalance.signum() != 0 }.keys
+                    storeUsedBitcoinAddresses(usedAddresses + fundedAddresses)
+                    prefsUtil.setValue(KEY_SWIPE_RECEIVE_VERIFIED_AT, now())
+
+                    unusedAddresses.firstOrNull { map[it]?.finalBalance?.signum() == 0 } ?: ""
                 }.singleOrError()
     }
 
     /**
-     * Returns a List of the next 5 available unused (at the time of storage) receive addresses. Can
-     * return an empty list.
+     * Returns a List of the stored receive addresses, which were unused at the time of storage.
+     * Can return an empty list.
      */
-    fun getBitcoinReceiveAddresses(): List<String> {
-        val addressString = prefsUtil.getValue(KEY_SWIPE_RECEIVE_ADDRESSES, "")
-        return when {
-            addressString.isEmpty() -> emptyList()
-            else -> addressString.split(",").dropLastWhile { it.isEmpty() }
-        }
-    }
+    fun getBitcoinReceiveAddresses(): List<String> = getStoredList(KEY_SWIPE_RECEIVE_ADDRESSES)
 
     /**
      * Returns the previously stored Ethereum address, wrapped in a [Single].
@@ -122,10 +148,47 @@ class SwipeToReceiveHelper(
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
-    private fun storeBitcoinAddresses(addresses: String) {
-        prefsUtil.setValue(KEY_SWIPE_RECEIVE_ADDRESSES, addresses)
+    /**
+     * Returns the stored addresses from [nextAddress] onwards if they were derived from the same
+     * account, as everything before it has since been used. Otherwise returns just [nextAddress].
+     */
+    private fun getReusableAddresses(xpub: String, nextAddress: String): MutableList<String> {
+        val storedAddresses = getBitcoinReceiveAddresses()
+        val index = storedAddresses.indexOf(nextAddress)
+        return if (prefsUtil.getValue(KEY_SWIPE_RECEIVE_XPUB, "") == xpub && index > -1) {
+            storedAddresses.drop(index).take(poolSize).toMutableList()
+        } else {
+            mutableListOf(nextAddress)
+        }
+    }
+
+    private fun getUsedBitcoinAddresses(): Set<String> =
+            getStoredList(KEY_SWIPE_RECEIVE_USED_ADDRESSES).toSet()
+
+    private fun getStoredList(key: String): List<String> {
+        val value: String? = prefsUtil.getValue(key, "")
+        return when {
+            value.isNullOrEmpty() -> emptyList()
+            else -> value!!.split(",").dropLastWhile { it.isEmpty() }
+        }
+    }
+
+    private fun storeBitcoinAddresses(xpub: String, addresses: List<String>) {
+        prefsUtil.setValue(KEY_SWIPE_RECEIVE_XPUB, xpub)
+        prefsUtil.setValue(KEY_SWIPE_RECEIVE_ADDRESSES, joinList(addresses))
+        // The pool starts at the next unused address, so anything tracked before it can be dropped
+        storeUsedBitcoinAddresses(getUsedBitcoinAddresses().filter { it in addresses })
+        prefsUtil.setValue(KEY_SWIPE_RECEIVE_VERIFIED_AT, now())
     }
 
+    private fun storeUsedBitcoinAddresses(addresses: Collection<String>) {
+        prefsUtil.setValue(KEY_SWIPE_RECEIVE_USED_ADDRESSES, joinList(addresses))
+    }
+
+    private fun joinList(values: Collection<String>) = values.joinToString("") { "$it," }
+
+    private fun now() = Schedulers.computation().now(TimeUnit.MILLISECONDS)
+
     private fun storeEthAddress(address: String) {
         prefsUtil.setValue(KEY_SWIPE_RECEIVE_ETH_ADDRESS, address)
     }
@@ -138,6 +201,11 @@ class SwipeToReceiveHelper(
         const val KEY_SWIPE_RECEIVE_ADDRESSES = "swipe_receive_addresses"
         const val KEY_SWIPE_RECEIVE_ETH_ADDRESS = "swipe_receive_eth_address"
         const val KEY_SWIPE_RECEIVE_ACCOUNT_NAME = "swipe_receive_account_name"
+        const val KEY_SWIPE_RECEIVE_XPUB = "swipe_receive_xpub"
+        const val KEY_SWIPE_RECEIVE_USED_ADDRESSES = "swipe_receive_used_addresses"
+        const val KEY_SWIPE_RECEIVE_VERIFIED_AT = "swipe_receive_verified_at"
+        private const val DEFAULT_POOL_SIZE = 10
+        private val DEFAULT_MAX_UNVERIFIED_AGE_MILLIS = TimeUnit.HOURS.toMillis(1)
     }
 
 }
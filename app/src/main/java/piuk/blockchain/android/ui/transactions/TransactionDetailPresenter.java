@@ -46,7 +46,6 @@ import piuk.blockchain.android.util.PrefsUtil;
 import piuk.blockchain.android.util.StringUtils;
 
 import static piuk.blockchain.android.ui.balance.BalanceFragment.KEY_TRANSACTION_HASH;
-import static piuk.blockchain.android.ui.balance.BalanceFragment.KEY_TRANSACTION_LIST_POSITION;
 
 @SuppressWarnings("WeakerAccess")
 public class TransactionDetailPresenter extends BasePresenter<TransactionDetailView> {
@@ -93,15 +92,7 @@ public class TransactionDetailPresenter extends BasePresenter<TransactionDetailV
     @Override
     public void onViewReady() {
         Intent pageIntent = getView().getPageIntent();
-        if (pageIntent != null && pageIntent.hasExtra(KEY_TRANSACTION_LIST_POSITION)) {
-            int transactionPosition = pageIntent.getIntExtra(KEY_TRANSACTION_LIST_POSITION, -1);
-            if (transactionPosition != -1) {
-                displayable = transactionListDataManager.getTransactionList().get(transactionPosition);
-                updateUiFromTransaction(displayable);
-            } else {
-                getView().pageFinish();
-            }
-        } else if (pageIntent != null && pageIntent.hasExtra(KEY_TRANSACTION_HASH)) {
+        if (pageIntent != null && pageIntent.hasExtra(KEY_TRANSACTION_HASH)) {
             getCompositeDisposable().add(
                     transactionListDataManager.getTxFromHash(pageIntent.getStringExtra(KEY_TRANSACTION_HASH))
                             .doOnSuccess(displayable -> this.displayable = displayable)
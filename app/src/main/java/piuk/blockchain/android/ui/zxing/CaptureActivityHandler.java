@@ -48,8 +48,16 @@ public final class CaptureActivityHandler extends Handler {
 
   private static final String TAG = CaptureActivityHandler.class.getSimpleName();
 
+  /**
+   * The most decode workers to run at once. Each worker decodes its own preview frame, so on
+   * multi-core devices a new frame is being decoded while the previous one is still in progress.
+   */
+  private static final int MAX_DECODE_WORKERS = 2;
+
   private final CaptureActivity activity;
-  private final DecodeThread decodeThread;
+  private final DecodeThread[] decodeThreads;
+  // Workers which aren't waiting for or decoding a frame
+  private final boolean[] idleWorkers;
   private State state;
   private final CameraManager cameraManager;
 
@@ -65,9 +73,19 @@ public final class CaptureActivityHandler extends Handler {
                          String characterSet,
                          CameraManager cameraManager) {
     this.activity = activity;
-    decodeThread = new DecodeThread(activity, decodeFormats, baseHints, characterSet,
-        new ViewfinderResultPointCallback(activity.getViewfinderView()));
-    decodeThread.start();
+    // Leave a core free for the camera and UI
+    int workers = Math.max(1,
+        Math.min(MAX_DECODE_WORKERS, Runtime.getRuntime().availableProcessors() - 1));
+    decodeThreads = new DecodeThread[workers];
+    idleWorkers = new boolean[workers];
+    ViewfinderResultPointCallback resultPointCallback =
+        new ViewfinderResultPointCallback(activity.getViewfinderView());
+    for (int i = 0; i < workers; i++) {
+      decodeThreads[i] = new DecodeThread(activity, decodeFormats, baseHints, characterSet,
+          resultPointCallback, i);
+      decodeThreads[i].start();
+      idleWorkers[i] = true;
+    }
     state = State.SUCCESS;
 
     // Start ourselves capturing previews and decoding.
@@ -85,6 +103,11 @@ public final class CaptureActivityHandler extends Handler {
         break;
       case R.id.decode_succeeded:
         Log.d(TAG, "Got decode succeeded message");
+        idleWorkers[message.arg1] = true;
+        if (state != State.PREVIEW) {
+          // Another worker has already found a barcode
+          break;
+        }
         state = State.SUCCESS;
         Bundle bundle = message.getData();
         Bitmap barcode = bundle == null ? null :
@@ -93,8 +116,11 @@ public final class CaptureActivityHandler extends Handler {
         break;
       case R.id.decode_failed:
         // We're decoding as fast as possible, so when one decode fails, start another.
-        state = State.PREVIEW;
-        cameraManager.requestPreviewFrame(decodeThread.getHandler(), R.id.decode);
+        if (state == State.PREVIEW) {
+          requestPreviewFrame(message.arg1);
+        } else {
+          idleWorkers[message.arg1] = true;
+        }
         break;
       case R.id.return_scan_result:
         Log.d(TAG, "Got return scan result message");
@@ -136,11 +162,16 @@ public final class CaptureActivityHandler extends Handler {
   public void quitSynchronously() {
     state = State.DONE;
     cameraManager.stopPreview();
-    Message quit = Message.obtain(decodeThread.getHandler(), R.id.quit);
-    quit.sendToTarget();
+    for (DecodeThread decodeThread : decodeThreads) {
+      Message quit = Message.obtain(decodeThread.getHandler(), R.id.quit);
+      quit.sendToTarget();
+    }
     try {
       // Wait at most half a second; should be enough time, and onPause() will timeout quickly
-      decodeThread.join(500L);
+      long deadline = System.currentTimeMillis() + 500L;
+      for (DecodeThread decodeThread : decodeThreads) {
+        decodeThread.join(Math.max(1L, deadline - System.currentTimeMillis()));
+      }
     } catch (InterruptedException e) {
       // continue
     }
@@ -153,9 +184,18 @@ public final class CaptureActivityHandler extends Handler {
   private void restartPreviewAndDecode() {
     if (state == State.SUCCESS) {
       state = State.PREVIEW;
-      cameraManager.requestPreviewFrame(decodeThread.getHandler(), R.id.decode);
+      for (int i = 0; i < decodeThreads.length; i++) {
+        if (idleWorkers[i]) {
+          requestPreviewFrame(i);
+        }
+      }
       activity.drawViewfinder();
     }
   }
 
+  private void requestPreviewFrame(int worker) {
+    idleWorkers[worker] = false;
+    cameraManager.requestPreviewFrame(decodeThreads[worker].getHandler(), R.id.decode);
+  }
+
 }
@@ -16,6 +16,7 @@
 
 package piuk.blockchain.android.ui.zxing;
 
+import com.google.zxing.BarcodeFormat;
 import com.google.zxing.BinaryBitmap;
 import com.google.zxing.DecodeHintType;
 import com.google.zxing.MultiFormatReader;
@@ -23,12 +24,16 @@ import com.google.zxing.PlanarYUVLuminanceSource;
 import com.google.zxing.ReaderException;
 import com.google.zxing.Result;
 import com.google.zxing.common.HybridBinarizer;
+import com.google.zxing.qrcode.QRCodeReader;
 
+import android.graphics.Rect;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
 import android.util.Log;
 
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.Map;
 
 import piuk.blockchain.android.R;
@@ -38,16 +43,51 @@ final class DecodeHandler extends Handler {
 
     private static final String TAG = DecodeHandler.class.getSimpleName();
 
+    /**
+     * Every this many frames the whole preview frame is decoded as well as the viewfinder, in
+     * case the barcode isn't lined up with it.
+     */
+    private static final int FULL_FRAME_INTERVAL = 4;
+
     private final CaptureActivity activity;
+    private final int workerIndex;
+    private final QRCodeReader qrCodeReader = new QRCodeReader();
     private final MultiFormatReader multiFormatReader;
+    private final MultiFormatReader fullFrameReader;
+    private final Map<DecodeHintType, Object> hints;
+    private final boolean decodeQr;
+    private final boolean decodeOtherFormats;
     private boolean running = true;
     private RotationUtil _rotationHelper;
+    private int framesSinceFullFrame;
+    // Reused between frames, grown only if the framing rect or preview size gets bigger
+    private byte[] croppedData = new byte[0];
+    private byte[] fullFrameData = new byte[0];
 
-    DecodeHandler(CaptureActivity activity, Map<DecodeHintType, Object> hints) {
+    DecodeHandler(CaptureActivity activity, Map<DecodeHintType, Object> hints, int workerIndex) {
         _rotationHelper = new RotationUtil(activity);
+        this.hints = hints;
         multiFormatReader = new MultiFormatReader();
         multiFormatReader.setHints(hints);
+
+        // Result points found in the full frame don't line up with the viewfinder, so don't
+        // report them
+        Map<DecodeHintType, Object> fullFrameHints = new EnumMap<>(hints);
+        fullFrameHints.remove(DecodeHintType.NEED_RESULT_POINT_CALLBACK);
+        fullFrameReader = new MultiFormatReader();
+        fullFrameReader.setHints(fullFrameHints);
+
+        // An empty set of formats means that every format is allowed
+        @SuppressWarnings("unchecked")
+        Collection<BarcodeFormat> formats =
+                (Collection<BarcodeFormat>) hints.get(DecodeHintType.POSSIBLE_FORMATS);
+        boolean allFormats = formats == null || formats.isEmpty();
+        decodeQr = allFormats || formats.contains(BarcodeFormat.QR_CODE);
+        decodeOtherFormats = allFormats
+                || formats.size() > (formats.contains(BarcodeFormat.QR_CODE) ? 1 : 0);
+
         this.activity = activity;
+        this.workerIndex = workerIndex;
     }
 
     @Override
@@ -78,6 +118,10 @@ final class DecodeHandler extends Handler {
      * took. For efficiency, reuse the same reader objects from one decode to the
      * next.
      *
+     * A cheap QR code only pass is tried first, as that's what is almost always being scanned.
+     * Other formats are only tried if it fails, and the whole frame only every
+     * {@link #FULL_FRAME_INTERVAL} frames.
+     *
      * @param data
      *           The YUV preview frame.
      * @param width
@@ -87,24 +131,34 @@ final class DecodeHandler extends Handler {
      */
     private void decode(byte[] data, int width, int height) {
         long start = System.currentTimeMillis();
-        byte[] rotatedData = _rotationHelper.rotateImageData(data, width, height);
-        if (_rotationHelper.flipWidthAndHeight()) {
-            int tmp = width;
-            width = height;
-            height = tmp;
+
+        PlanarYUVLuminanceSource source;
+        PlanarYUVLuminanceSource fullFrameSource = null;
+        try {
+            source = buildLuminanceSource(data, width, height);
+            if (++framesSinceFullFrame >= FULL_FRAME_INTERVAL) {
+                framesSinceFullFrame = 0;
+                fullFrameSource = buildFullFrameLuminanceSource(data, width, height);
+            }
+        } finally {
+            // Everything needed has been copied out, so the camera can fill the frame again
+            activity.getCameraManager().releasePreviewBuffer(data);
         }
+
         Result rawResult = null;
-        PlanarYUVLuminanceSource source = activity.getCameraManager().buildLuminanceSource(rotatedData, width, height);
         if (source != null) {
             BinaryBitmap bitmap = new BinaryBitmap(new HybridBinarizer(source));
-            try {
-                rawResult = multiFormatReader.decodeWithState(bitmap);
-            } catch (ReaderException re) {
-                // continue
-            } finally {
-                multiFormatReader.reset();
+            if (decodeQr) {
+                rawResult = decodeQrCode(bitmap);
+            }
+            if (rawResult == null && decodeOtherFormats) {
+                rawResult = decodeWithState(multiFormatReader, bitmap);
             }
         }
+        if (rawResult == null && fullFrameSource != null) {
+            rawResult = decodeWithState(fullFrameReader,
+                    new BinaryBitmap(new HybridBinarizer(fullFrameSource)));
+        }
 
         Handler handler = activity.getHandler();
         if (rawResult != null) {
@@ -112,17 +166,70 @@ final class DecodeHandler extends Handler {
             long end = System.currentTimeMillis();
             Log.d(TAG, "Found barcode in " + (end - start) + " ms");
             if (handler != null) {
-                Message message = Message.obtain(handler, R.id.decode_succeeded, rawResult);
+                Message message = Message.obtain(handler, R.id.decode_succeeded, workerIndex, 0, rawResult);
                 // AP: we do not want a thumbnail of the captured private key flying
                 // around
                 message.sendToTarget();
             }
         } else {
             if (handler != null) {
-                Message message = Message.obtain(handler, R.id.decode_failed);
+                Message message = Message.obtain(handler, R.id.decode_failed, workerIndex, 0);
                 message.sendToTarget();
             }
         }
     }
 
-}
\ No newline at end of file
+    private Result decodeQrCode(BinaryBitmap bitmap) {
+        try {
+            return qrCodeReader.decode(bitmap, hints);
+        } catch (ReaderException re) {
+            return null;
+        } finally {
+            qrCodeReader.reset();
+        }
+    }
+
+    private static Result decodeWithState(MultiFormatReader reader, BinaryBitmap bitmap) {
+        try {
+            return reader.decodeWithState(bitmap);
+        } catch (ReaderException re) {
+            return null;
+        } finally {
+            reader.reset();
+        }
+    }
+
+    /**
+     * Rotates and crops the viewfinder rectangle out of a preview frame into a reused buffer, so
+     * that decoding a frame doesn't allocate a full size copy of it.
+     */
+    private PlanarYUVLuminanceSource buildLuminanceSource(byte[] data, int width, int height) {
+        Rect rect = activity.getCameraManager().getFramingRectInPreview();
+        if (rect == null) {
+            return null;
+        }
+
+        int size = rect.width() * rect.height();
+        if (croppedData.length < size) {
+            croppedData = new byte[size];
+        }
+        _rotationHelper.rotateAndCrop(data, width, height, rect, croppedData);
+        return new PlanarYUVLuminanceSource(croppedData, rect.width(), rect.height(), 0, 0,
+                rect.width(), rect.height(), false);
+    }
+
+    private PlanarYUVLuminanceSource buildFullFrameLuminanceSource(byte[] data, int width, int height) {
+        boolean flip = _rotationHelper.flipWidthAndHeight();
+        int rotatedWidth = flip ? height : width;
+        int rotatedHeight = flip ? width : height;
+
+        if (fullFrameData.length < width * height) {
+            fullFrameData = new byte[width * height];
+        }
+        _rotationHelper.rotateAndCrop(data, width, height,
+                new Rect(0, 0, rotatedWidth, rotatedHeight), fullFrameData);
+        return new PlanarYUVLuminanceSource(fullFrameData, rotatedWidth, rotatedHeight, 0, 0,
+                rotatedWidth, rotatedHeight, false);
+    }
+
+}
@@ -44,6 +44,7 @@ final class DecodeThread extends Thread {
 
     private final CaptureActivity activity;
     private final Map<DecodeHintType,Object> hints;
+    private final int workerIndex;
     private Handler handler;
     private final CountDownLatch handlerInitLatch;
 
@@ -51,9 +52,11 @@ final class DecodeThread extends Thread {
                  Collection<BarcodeFormat> decodeFormats,
                  Map<DecodeHintType,?> baseHints,
                  String characterSet,
-                 ResultPointCallback resultPointCallback) {
+                 ResultPointCallback resultPointCallback,
+                 int workerIndex) {
 
         this.activity = activity;
+        this.workerIndex = workerIndex;
         handlerInitLatch = new CountDownLatch(1);
 
         hints = new EnumMap<>(DecodeHintType.class);
@@ -96,7 +99,7 @@ final class DecodeThread extends Thread {
     @Override
     public void run() {
         Looper.prepare();
-        handler = new DecodeHandler(activity, hints);
+        handler = new DecodeHandler(activity, hints, workerIndex);
         handlerInitLatch.countDown();
         Looper.loop();
     }
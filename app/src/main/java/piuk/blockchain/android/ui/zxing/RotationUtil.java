@@ -2,6 +2,8 @@ package piuk.blockchain.android.ui.zxing;
 
 import android.content.Context;
 import android.content.res.Configuration;
+import android.graphics.Rect;
+import android.support.annotation.VisibleForTesting;
 import android.view.Surface;
 import android.view.WindowManager;
 
@@ -85,46 +87,81 @@ public class RotationUtil {
         }
     }
 
-    public byte[] rotateImageData(byte[] data, int width, int height) {
-        switch (getDisplayOrientationForCameraParameters()) {
-            case 0:
-                return data;
-            case 90:
-                return rotate90(data, width, height);
-            case 180:
-                return rotate180(data, width, height);
-            case 270:
-                return rotate270(data, width, height);
-            default:
-                return data;
-        }
+    /**
+     * Rotates the part of a YUV preview frame which falls within {@code crop} to match the
+     * display orientation, and writes its luminance plane into {@code out} as a {@code
+     * crop.width()} by {@code crop.height()} image. Only the pixels inside the crop are read, so
+     * no full size copy of the frame is made.
+     *
+     * @param data   The YUV preview frame
+     * @param width  The width of the preview frame
+     * @param height The height of the preview frame
+     * @param crop   The region to keep, in the coordinates of the rotated frame
+     * @param out    A buffer of at least {@code crop.width() * crop.height()} bytes
+     * @throws IllegalArgumentException if the crop doesn't fit inside the rotated frame
+     */
+    public void rotateAndCrop(byte[] data, int width, int height, Rect crop, byte[] out) {
+        rotateAndCrop(data,
+                width,
+                height,
+                getDisplayOrientationForCameraParameters(),
+                crop.left,
+                crop.top,
+                crop.width(),
+                crop.height(),
+                out);
     }
 
-    private static byte[] rotate90(byte[] data, int width, int height) {
-        byte[] rotatedData = new byte[data.length];
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++)
-                rotatedData[x * height + height - y - 1] = data[x + y * width];
+    @VisibleForTesting
+    static void rotateAndCrop(byte[] data,
+                              int width,
+                              int height,
+                              int degrees,
+                              int left,
+                              int top,
+                              int cropWidth,
+                              int cropHeight,
+                              byte[] out) {
+        boolean flipped = degrees == 90 || degrees == 270;
+        int rotatedWidth = flipped ? height : width;
+        int rotatedHeight = flipped ? width : height;
+        if (left < 0 || top < 0
+                || left + cropWidth > rotatedWidth
+                || top + cropHeight > rotatedHeight
+                || out.length < cropWidth * cropHeight) {
+            throw new IllegalArgumentException("Crop rectangle does not fit within image data.");
         }
-        return rotatedData;
-    }
 
-    private static byte[] rotate270(byte[] data, int width, int height) {
-        byte[] rotatedData = new byte[data.length];
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++)
-                rotatedData[(width - x - 1) * height + y] = data[x + y * width];
-        }
-        return rotatedData;
-    }
+        int outIndex = 0;
+        for (int y = top; y < top + cropHeight; y++) {
+            // Index of the source pixel for (left, y) in the rotated frame, and the step needed
+            // to move one pixel to the right in the rotated frame
+            int index;
+            int step;
+            switch (degrees) {
+                case 90:
+                    index = y + (height - 1 - left) * width;
+                    step = -width;
+                    break;
+                case 180:
+                    index = (width - 1 - left) + (height - 1 - y) * width;
+                    step = -1;
+                    break;
+                case 270:
+                    index = (width - 1 - y) + left * width;
+                    step = width;
+                    break;
+                default:
+                    System.arraycopy(data, left + y * width, out, outIndex, cropWidth);
+                    outIndex += cropWidth;
+                    continue;
+            }
 
-    private static byte[] rotate180(byte[] data, int width, int height) {
-        byte[] rotatedData = new byte[data.length];
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++)
-                rotatedData[(width - x - 1) + width * (height - y - 1)] = data[x + y * width];
+            for (int x = 0; x < cropWidth; x++) {
+                out[outIndex++] = data[index];
+                index += step;
+            }
         }
-        return rotatedData;
     }
 
 }
\ No newline at end of file
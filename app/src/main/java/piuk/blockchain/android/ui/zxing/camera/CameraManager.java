@@ -17,10 +17,13 @@
 package piuk.blockchain.android.ui.zxing.camera;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 import android.app.Activity;
 import android.content.Context;
 import android.content.res.Configuration;
+import android.graphics.ImageFormat;
 import android.graphics.Point;
 import android.graphics.Rect;
 import android.hardware.Camera;
@@ -29,8 +32,6 @@ import android.util.Log;
 import android.view.Surface;
 import android.view.SurfaceHolder;
 
-import com.google.zxing.PlanarYUVLuminanceSource;
-
 import piuk.blockchain.android.ui.zxing.CaptureActivity;
 import piuk.blockchain.android.ui.zxing.camera.open.OpenCameraManager;
 
@@ -66,6 +67,13 @@ public final class CameraManager {
    * clear the handler so it will only receive one message.
    */
   private final PreviewCallback previewCallback;
+  /**
+   * Preview buffers which aren't queued in the camera or being decoded. A buffer is handed to
+   * the camera for each requested frame and comes back here once the frame has been read, so
+   * scanning only ever allocates one buffer per decode worker.
+   */
+  private final Deque<byte[]> freePreviewBuffers = new ArrayDeque<>();
+  private int previewBufferSize;
 
   public CameraManager(Context context) {
     this.context = context;
@@ -162,6 +170,8 @@ public final class CameraManager {
     if (camera != null) {
       camera.release();
       camera = null;
+      freePreviewBuffers.clear();
+      previewBufferSize = 0;
       // Make sure to clear these each time we close the camera, so that any scanning rect
       // requested by intent is forgotten.
       framingRect = null;
@@ -175,6 +185,7 @@ public final class CameraManager {
   public synchronized void startPreview() {
     Camera theCamera = camera;
     if (theCamera != null && !previewing) {
+      theCamera.setPreviewCallbackWithBuffer(previewCallback);
       theCamera.startPreview();
       previewing = true;
       autoFocusManager = new AutoFocusManager(context, camera);
@@ -191,7 +202,9 @@ public final class CameraManager {
     }
     if (camera != null && previewing) {
       camera.stopPreview();
-      previewCallback.setHandler(null, 0);
+      // Also clears any queued preview buffers
+      camera.setPreviewCallbackWithBuffer(null);
+      previewCallback.clearHandlers();
       previewing = false;
     }
   }
@@ -214,7 +227,9 @@ public final class CameraManager {
   /**
    * A single preview frame will be returned to the handler supplied. The data will arrive as byte[]
    * in the message.obj field, with width and height encoded as message.arg1 and message.arg2,
-   * respectively.
+   * respectively. The receiver must pass the data to {@link #releasePreviewBuffer(byte[])} once
+   * it has finished reading it. Several frames may be requested at once, and are delivered in
+   * the order that they were requested.
    *
    * @param handler The handler to send the message to.
    * @param message The what field of the message to be sent.
@@ -222,9 +237,29 @@ public final class CameraManager {
   public synchronized void requestPreviewFrame(Handler handler, int message) {
     Camera theCamera = camera;
     if (theCamera != null && previewing) {
-      previewCallback.setHandler(handler, message);
-      theCamera.setOneShotPreviewCallback(previewCallback);
+      previewCallback.addHandler(handler, message);
+      theCamera.addCallbackBuffer(obtainPreviewBuffer(theCamera));
+    }
+  }
+
+  /**
+   * Returns a preview buffer delivered by {@link #requestPreviewFrame(Handler, int)} to the pool,
+   * so that it can be filled again. This may be called from any thread.
+   */
+  public synchronized void releasePreviewBuffer(byte[] buffer) {
+    if (buffer != null && buffer.length == previewBufferSize) {
+      freePreviewBuffers.push(buffer);
+    }
+  }
+
+  private byte[] obtainPreviewBuffer(Camera theCamera) {
+    if (previewBufferSize == 0) {
+      Point cameraResolution = configManager.getCameraResolution();
+      int bitsPerPixel = ImageFormat.getBitsPerPixel(theCamera.getParameters().getPreviewFormat());
+      previewBufferSize = cameraResolution.x * cameraResolution.y * bitsPerPixel / 8;
     }
+    byte[] buffer = freePreviewBuffers.poll();
+    return buffer != null ? buffer : new byte[previewBufferSize];
   }
 
   /**
@@ -338,23 +373,4 @@ public final class CameraManager {
     }
   }
 
-  /**
-   * A factory method to build the appropriate LuminanceSource object based on the format
-   * of the preview buffers, as described by Camera.Parameters.
-   *
-   * @param data A preview frame.
-   * @param width The width of the image.
-   * @param height The height of the image.
-   * @return A PlanarYUVLuminanceSource instance.
-   */
-  public PlanarYUVLuminanceSource buildLuminanceSource(byte[] data, int width, int height) {
-    Rect rect = getFramingRectInPreview();
-    if (rect == null) {
-      return null;
-    }
-    // Go ahead and assume it's YUV rather than die.
-    return new PlanarYUVLuminanceSource(data, width, height, rect.left, rect.top,
-        rect.width(), rect.height(), false);
-  }
-
 }
@@ -22,32 +22,41 @@ import android.os.Handler;
 import android.os.Message;
 import android.util.Log;
 
+import java.util.ArrayDeque;
+import java.util.Queue;
+
 final class PreviewCallback implements Camera.PreviewCallback {
 
   private static final String TAG = PreviewCallback.class.getSimpleName();
 
   private final CameraConfigurationManager configManager;
-  private Handler previewHandler;
-  private int previewMessage;
+  /**
+   * One message per requested frame, in the order that the frames were requested. Each request
+   * queues exactly one preview buffer, so frames arrive in the same order.
+   */
+  private final Queue<Message> pendingMessages = new ArrayDeque<>();
 
   PreviewCallback(CameraConfigurationManager configManager) {
     this.configManager = configManager;
   }
 
-  void setHandler(Handler previewHandler, int previewMessage) {
-    this.previewHandler = previewHandler;
-    this.previewMessage = previewMessage;
+  synchronized void addHandler(Handler previewHandler, int previewMessage) {
+    pendingMessages.add(previewHandler.obtainMessage(previewMessage));
+  }
+
+  synchronized void clearHandlers() {
+    pendingMessages.clear();
   }
 
   @Override
-  public void onPreviewFrame(byte[] data, Camera camera) {
+  public synchronized void onPreviewFrame(byte[] data, Camera camera) {
     Point cameraResolution = configManager.getCameraResolution();
-    Handler thePreviewHandler = previewHandler;
-    if (cameraResolution != null && thePreviewHandler != null) {
-      Message message = thePreviewHandler.obtainMessage(previewMessage, cameraResolution.x,
-          cameraResolution.y, data);
+    Message message = pendingMessages.poll();
+    if (cameraResolution != null && message != null) {
+      message.arg1 = cameraResolution.x;
+      message.arg2 = cameraResolution.y;
+      message.obj = data;
       message.sendToTarget();
-      previewHandler = null;
     } else {
       Log.d(TAG, "Got preview callback, but no handler or resolution available");
     }
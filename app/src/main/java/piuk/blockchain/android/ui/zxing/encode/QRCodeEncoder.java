@@ -20,9 +20,12 @@ import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.MultiFormatWriter;
 import com.google.zxing.WriterException;
+import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
 
 import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
 import android.os.Bundle;
 import android.provider.ContactsContract;
 import android.telephony.PhoneNumberUtils;
@@ -209,21 +212,38 @@ public final class QRCodeEncoder {
             hints = new EnumMap<>(EncodeHintType.class);
             hints.put(EncodeHintType.CHARACTER_SET, encoding);
         }
+        // Encode with one pixel per module and scale up when drawing, rather than asking ZXing
+        // for a full size matrix and reading it back one pixel at a time
         MultiFormatWriter writer = new MultiFormatWriter();
-        BitMatrix result = writer.encode(contents, format, dimension, dimension, hints);
-        int width = result.getWidth();
-        int height = result.getHeight();
-        int[] pixels = new int[width * height];
-        // All are 0, or black, by default
-        for (int y = 0; y < height; y++) {
-            int offset = y * width;
-            for (int x = 0; x < width; x++) {
-                pixels[offset + x] = result.get(x, y) ? BLACK : WHITE;
+        BitMatrix modules = writer.encode(contents, format, 0, 0, hints);
+        int moduleCount = modules.getWidth();
+        int size = Math.max(dimension, moduleCount);
+        int moduleSize = size / moduleCount;
+        // Centre the code, as ZXing does, with any remainder added to the quiet zone
+        int offset = (size - moduleCount * moduleSize) / 2;
+
+        // QR codes are black and white, so 16 bits per pixel is plenty
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.RGB_565);
+        bitmap.eraseColor(WHITE);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint();
+        paint.setColor(BLACK);
+        BitArray row = new BitArray(moduleCount);
+        for (int y = 0; y < moduleCount; y++) {
+            row = modules.getRow(y, row);
+            int top = offset + y * moduleSize;
+            // Draw each horizontal run of dark modules as a single rectangle
+            int x = row.getNextSet(0);
+            while (x < moduleCount) {
+                int end = row.getNextUnset(x);
+                canvas.drawRect(offset + x * moduleSize,
+                        top,
+                        offset + end * moduleSize,
+                        top + moduleSize,
+                        paint);
+                x = row.getNextSet(end);
             }
         }
-
-        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
-        bitmap.setPixels(pixels, 0, width, 0, 0, width, height);
         return bitmap;
     }
 
@@ -18,6 +18,11 @@ import javax.inject.Inject;
 import dagger.Lazy;
 import piuk.blockchain.android.R;
 import piuk.blockchain.android.data.access.AccessState;
+import piuk.blockchain.android.data.cache.HistoricPriceCache;
+import piuk.blockchain.android.data.cache.QrCodeCache;
+import piuk.blockchain.android.data.cache.UnspentOutputsCache;
+import piuk.blockchain.android.data.charts.datastore.ChartsDataStore;
+import piuk.blockchain.android.data.stores.TransactionDiskStore;
 import piuk.blockchain.android.injection.Injector;
 import piuk.blockchain.android.ui.customviews.ToastCustom;
 import piuk.blockchain.android.ui.launcher.LauncherActivity;
@@ -31,6 +36,11 @@ public class AppUtil {
 
     @Inject PrefsUtil prefs;
     @Inject Lazy<PayloadManager> payloadManager;
+    @Inject Lazy<TransactionDiskStore> transactionDiskStore;
+    @Inject Lazy<HistoricPriceCache> historicPriceCache;
+    @Inject Lazy<QrCodeCache> qrCodeCache;
+    @Inject Lazy<ChartsDataStore> chartsDataStore;
+    @Inject Lazy<UnspentOutputsCache> unspentOutputsCache;
     private Context context;
     private AlertDialog alertDialog;
 
@@ -41,6 +51,12 @@ public class AppUtil {
 
     public void clearCredentials() {
         payloadManager.get().wipe();
+        transactionDiskStore.get().invalidate();
+        historicPriceCache.get().invalidate();
+        qrCodeCache.get().invalidate();
+        chartsDataStore.get().invalidate();
+        unspentOutputsCache.get().invalidate();
+        ExchangeRateFactory.getInstance().invalidate();
         prefs.clear();
     }
 
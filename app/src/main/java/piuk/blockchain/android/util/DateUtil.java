@@ -3,82 +3,89 @@ package piuk.blockchain.android.util;
 import android.content.Context;
 import android.text.format.DateUtils;
 
-import java.text.SimpleDateFormat;
+import java.text.DateFormatSymbols;
 import java.util.Calendar;
-import java.util.Date;
 import java.util.Locale;
 
 import piuk.blockchain.android.R;
 
+/**
+ * Formats transaction timestamps for display in lists. The day and year boundaries used to decide
+ * between "today", "yesterday" and full dates are calculated once and only refreshed when midnight
+ * passes or the device locale changes, so that formatting a row doesn't create any formatters.
+ * Instances are not thread safe and are intended to be used from the main thread.
+ */
 public class DateUtil {
 
     private Context context = null;
+    private final Calendar calendar = Calendar.getInstance();
+    private final StringBuilder builder = new StringBuilder();
+    private Locale locale;
+    private String[] months;
+    private long yesterdayStart;
+    private long todayStart;
+    private long tomorrowStart;
+    private long yearStart;
 
     public DateUtil(Context context) {
         this.context = context;
     }
 
+    /**
+     * Returns a display string for a timestamp in seconds, eg. "5 minutes ago", "Yesterday",
+     * "April 15" or "April 15, 2015".
+     */
     public String formatted(long ts) {
-        String ret;
-
-        Date localTime = new Date(ts);
-        long date = localTime.getTime();
-
-        date *= 1000L;
-        long hours24 = 60L * 60L * 24L * 1000L;
+        long date = ts * 1000L;
         long now = System.currentTimeMillis();
+        updateBoundaries(now);
 
-        Calendar calNow = Calendar.getInstance();
-        calNow.setTime(new Date(now));
-
-        Calendar calThen = Calendar.getInstance();
-        calThen.setTime(new Date(date));
-        int thenDay = calThen.get(Calendar.DAY_OF_MONTH);
-
-        long yesterdayEnd = getDayEnd(now - hours24);
-        long yesterdayStart = getDayStart(now - hours24);
-        long yearStart = getYearStart(now);
-
-        if (date > yesterdayEnd) {
+        if (date >= todayStart) {
             //today
-            ret = (String) DateUtils.getRelativeTimeSpanString(date, now, DateUtils.SECOND_IN_MILLIS, 0);
-
-        } else if (date <= yesterdayEnd && date >= yesterdayStart) {
+            return DateUtils.getRelativeTimeSpanString(date, now, DateUtils.SECOND_IN_MILLIS, 0).toString();
+        } else if (date >= yesterdayStart) {
             //yesterday
-            ret = context.getString(R.string.YESTERDAY);
+            return context.getString(R.string.YESTERDAY);
+        }
 
-        } else if (date < yearStart) {
+        calendar.setTimeInMillis(date);
+        builder.setLength(0);
+        builder.append(months[calendar.get(Calendar.MONTH)])
+                .append(' ')
+                .append(calendar.get(Calendar.DAY_OF_MONTH));
+
+        if (date < yearStart) {
             //previous years
-            int year = calThen.get(Calendar.YEAR);
-            String month = calThen.getDisplayName(Calendar.MONTH, Calendar.LONG, Locale.getDefault());
-            ret = month + " " + thenDay + ", " + year;
-
-        } else {
-            //this year
-            String month = calThen.getDisplayName(Calendar.MONTH, Calendar.LONG, Locale.getDefault());
-            ret = month + " " + thenDay;
+            builder.append(", ").append(calendar.get(Calendar.YEAR));
         }
 
-        return ret;
+        return builder.toString();
     }
 
-    private long parseDateTime(String time) {
-        try {
-            return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse(time).getTime();
-        } catch (Exception e) {
+    private void updateBoundaries(long now) {
+        Locale current = Locale.getDefault();
+        if (current.equals(locale) && now >= todayStart && now < tomorrowStart) return;
+
+        if (!current.equals(locale)) {
+            locale = current;
+            months = DateFormatSymbols.getInstance(current).getMonths();
         }
-        return 0;
-    }
 
-    private long getDayStart(long time) {
-        return parseDateTime(new SimpleDateFormat("yyyy-MM-dd").format(new Date(time)) + " 00:00:00");
-    }
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        todayStart = calendar.getTimeInMillis();
 
-    private long getDayEnd(long time) {
-        return parseDateTime(new SimpleDateFormat("yyyy-MM-dd").format(new Date(time)) + " 23:59:59");
-    }
+        calendar.add(Calendar.DAY_OF_MONTH, -1);
+        yesterdayStart = calendar.getTimeInMillis();
+
+        calendar.add(Calendar.DAY_OF_MONTH, 2);
+        tomorrowStart = calendar.getTimeInMillis();
 
-    private long getYearStart(long time) {
-        return parseDateTime(new SimpleDateFormat("yyyy").format(new Date(time)) + "-01-01 00:00:00");
+        calendar.setTimeInMillis(todayStart);
+        calendar.set(Calendar.DAY_OF_YEAR, 1);
+        yearStart = calendar.getTimeInMillis();
     }
 }
@@ -2,18 +2,22 @@ package piuk.blockchain.android.util
 
 import info.blockchain.wallet.prices.PriceApi
 import info.blockchain.wallet.prices.data.PriceDatum
+import io.reactivex.Completable
 import io.reactivex.Observable
+import piuk.blockchain.android.data.cache.HistoricPriceCache
+import piuk.blockchain.android.data.cache.LastPriceCache
 import piuk.blockchain.android.data.currency.CryptoCurrencies
 import piuk.blockchain.android.data.rxjava.RxBus
 import piuk.blockchain.android.data.rxjava.RxPinning
 import piuk.blockchain.android.data.rxjava.RxUtil
-import piuk.blockchain.android.data.stores.Optional
+import piuk.blockchain.android.data.transactions.Displayable
 import piuk.blockchain.android.injection.Injector
 import piuk.blockchain.android.util.annotations.Mockable
 import piuk.blockchain.android.util.helperfunctions.unsafeLazy
 import java.math.BigDecimal
 import java.math.BigInteger
 import java.util.*
+import java.util.concurrent.atomic.AtomicReference
 import javax.inject.Inject
 
 /**
@@ -31,17 +35,17 @@ class ExchangeRateFactory private constructor() {
 
     private final val priceApi by unsafeLazy { PriceApi() }
     private final val rxPinning: RxPinning
-    // Ticker data
-    private var btcTickerData: Map<String, PriceDatum>? = null
-    private var ethTickerData: Map<String, PriceDatum>? = null
+    private final val lastPriceCache: LastPriceCache
 
     @Inject final lateinit var prefsUtil: PrefsUtil
     @Inject final lateinit var rxBus: RxBus
+    @Inject final lateinit var historicPriceCache: HistoricPriceCache
 
     init {
         @Suppress("LeakingThis") // This will be resolved in the future
         Injector.getInstance().appComponent.inject(this)
         rxPinning = RxPinning(rxBus)
+        lastPriceCache = LastPriceCache(prefsUtil)
     }
 
     fun updateTickers(): Observable<Map<String, PriceDatum>> = rxPinning.call<Map<String, PriceDatum>> {
@@ -67,7 +71,15 @@ class ExchangeRateFactory private constructor() {
         return Currency.getInstance(currency).getSymbol(Locale.getDefault())
     }
 
-    fun getCurrencyLabels(): Array<String> = btcTickerData!!.keys.toTypedArray()
+    fun getCurrencyLabels(): Array<String> = lastPriceCache.getCurrencies()!!.toTypedArray()
+
+    /**
+     * Forgets the last known prices held in memory. This should be called whenever the wallet is
+     * unpaired.
+     */
+    fun invalidate() {
+        lastPriceCache.invalidate()
+    }
 
     /**
      * Returns the historic value of a number of Satoshi at a given time in a given currency.
@@ -82,7 +94,7 @@ class ExchangeRateFactory private constructor() {
             currency: String,
             timeInSeconds: Long
     ): Observable<Double> = rxPinning.call<Double> {
-        priceApi.getHistoricPrice(CryptoCurrencies.BTC.symbol, currency, timeInSeconds)
+        getHistoricPrice(CryptoCurrencies.BTC, currency, timeInSeconds)
                 .map {
                     val exchangeRate = BigDecimal.valueOf(it)
                     val satoshiDecimal = BigDecimal.valueOf(satoshis)
@@ -105,7 +117,7 @@ class ExchangeRateFactory private constructor() {
             currency: String,
             timeInSeconds: Long
     ): Observable<Double> = rxPinning.call<Double> {
-        priceApi.getHistoricPrice(CryptoCurrencies.ETHER.symbol, currency, timeInSeconds)
+        getHistoricPrice(CryptoCurrencies.ETHER, currency, timeInSeconds)
                 .map {
                     val exchangeRate = BigDecimal.valueOf(it)
                     val ethDecimal = BigDecimal(wei)
@@ -115,80 +127,92 @@ class ExchangeRateFactory private constructor() {
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
-    private fun getLastPrice(currencyName: String, cryptoCurrency: CryptoCurrencies): Double {
-        val prefsKey: String
-        val tickerData: Map<String, PriceDatum>?
-
-        when (cryptoCurrency) {
-            CryptoCurrencies.BTC -> {
-                prefsKey = PREF_LAST_KNOWN_BTC_PRICE
-                tickerData = btcTickerData
-            }
-            CryptoCurrencies.ETHER -> {
-                prefsKey = PREF_LAST_KNOWN_ETH_PRICE
-                tickerData = ethTickerData
-            }
-            else -> throw IllegalArgumentException("BCH is not currently supported")
-        }
-        var currency = currencyName
-        if (currency.isEmpty()) {
-            currency = "USD"
-        }
-
-        var lastPrice: Double
-        val lastKnown = prefsUtil.getValue("$prefsKey$currency", "0.0").toDouble()
-
-        if (tickerData == null) {
-            lastPrice = lastKnown
+    /**
+     * Resolves and caches the historic prices for a set of transactions, so that opening any of
+     * them in detail doesn't require a network request. Transactions falling into the same
+     * [HistoricPriceCache.BUCKET_SECONDS] window share a single request, and all results are
+     * written to the cache in one pass. A failed request doesn't stop the others, but once they've
+     * all finished the first failure is passed on so that the caller can retry those transactions.
+     *
+     * @param transactions The transactions to be priced
+     * @param currency     The currency to be converted to as a 3 letter acronym, eg USD, GBP
+     */
+    fun prefetchHistoricPrices(transactions: List<Displayable>, currency: String): Completable =
+            Completable.defer {
+                val missing = transactions
+                        .filter { it.cryptoCurrency != CryptoCurrencies.BCH }
+                        .distinctBy {
+                            HistoricPriceCache.getKey(it.cryptoCurrency, currency, it.timeStamp)
+                        }
+                        .filterNot {
+                            historicPriceCache.contains(it.cryptoCurrency, currency, it.timeStamp)
+                        }
+                val firstError = AtomicReference<Throwable>()
+
+                Observable.fromIterable(missing)
+                        .flatMap({ transaction ->
+                            rxPinning.call<Double> {
+                                priceApi.getHistoricPrice(
+                                        transaction.cryptoCurrency.symbol,
+                                        currency,
+                                        transaction.timeStamp
+                                )
+                            }.map {
+                                HistoricPriceCache.HistoricPrice(
+                                        transaction.cryptoCurrency,
+                                        currency,
+                                        transaction.timeStamp,
+                                        it
+                                )
+                            }.onErrorResumeNext { throwable: Throwable ->
+                                firstError.compareAndSet(null, throwable)
+                                Observable.empty<HistoricPriceCache.HistoricPrice>()
+                            }
+                        }, MAX_CONCURRENT_PREFETCH_REQUESTS)
+                        .toList()
+                        .doOnSuccess { historicPriceCache.putAll(it) }
+                        .toCompletable()
+                        .andThen(Completable.defer {
+                            firstError.get()?.let { Completable.error(it) } ?: Completable.complete()
+                        })
+            }.compose(RxUtil.applySchedulersToCompletable())
+
+    private fun getHistoricPrice(
+            cryptoCurrency: CryptoCurrencies,
+            currency: String,
+            timeInSeconds: Long
+    ): Observable<Double> = Observable.defer {
+        val cached = historicPriceCache.get(cryptoCurrency, currency, timeInSeconds)
+        if (cached != null) {
+            Observable.just(cached)
         } else {
-            val tickerItem = when (cryptoCurrency) {
-                CryptoCurrencies.BTC -> getTickerItem(currency, btcTickerData)
-                CryptoCurrencies.ETHER -> getTickerItem(currency, ethTickerData)
-                else -> throw IllegalArgumentException("BCH is not currently supported")
-            }
-
-            lastPrice = when (tickerItem) {
-                is Optional.Some -> tickerItem.element.price ?: 0.0
-                else -> 0.0
-            }
-
-            if (lastPrice > 0.0) {
-                prefsUtil.setValue("$prefsKey$currency", lastPrice.toString())
-            } else {
-                lastPrice = lastKnown
-            }
+            priceApi.getHistoricPrice(cryptoCurrency.symbol, currency, timeInSeconds)
+                    .doOnNext { historicPriceCache.put(cryptoCurrency, currency, timeInSeconds, it) }
         }
-
-        return lastPrice
     }
 
+    private fun getLastPrice(currencyName: String, cryptoCurrency: CryptoCurrencies): Double =
+            lastPriceCache.getLastPrice(cryptoCurrency, if (currencyName.isEmpty()) "USD" else currencyName)
+
     private fun getBtcTicker() = rxPinning.call<Map<String, PriceDatum>> {
         priceApi.getPriceIndexes(CryptoCurrencies.BTC.symbol)
-                .doOnNext { this.btcTickerData = it.toMap() }
+                .doOnNext { publishPrices(CryptoCurrencies.BTC, it) }
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
     private fun getEthTicker() = rxPinning.call<Map<String, PriceDatum>> {
         priceApi.getPriceIndexes(CryptoCurrencies.ETHER.symbol)
-                .doOnNext { this.ethTickerData = it.toMap() }
+                .doOnNext { publishPrices(CryptoCurrencies.ETHER, it) }
                 .compose(RxUtil.applySchedulersToObservable())
     }
 
-    private fun getTickerItem(
-            currencyName: String,
-            tickerData: Map<String, PriceDatum>?
-    ): Optional<PriceDatum> {
-        val priceDatum = tickerData?.get(currencyName)
-        return when {
-            priceDatum != null -> Optional.Some(priceDatum)
-            else -> Optional.None
-        }
+    private fun publishPrices(cryptoCurrency: CryptoCurrencies, tickerData: Map<String, PriceDatum>) {
+        lastPriceCache.updatePrices(cryptoCurrency, tickerData.mapValues { it.value.price ?: 0.0 })
     }
 
     companion object {
 
-        private const val PREF_LAST_KNOWN_BTC_PRICE = "LAST_KNOWN_BTC_VALUE_FOR_CURRENCY_"
-        private const val PREF_LAST_KNOWN_ETH_PRICE = "LAST_KNOWN_ETH_VALUE_FOR_CURRENCY_"
+        private const val MAX_CONCURRENT_PREFETCH_REQUESTS = 4
 
         private val SATOSHIS_PER_BITCOIN = BigDecimal.valueOf(100_000_000L)
         private val WEI_PER_ETHER = BigDecimal.valueOf(1e18)
@@ -15,6 +15,7 @@ class MonetaryUtil(unit: Int) {
     private lateinit var btcFormat: DecimalFormat
     private lateinit var ethFormat: DecimalFormat
     private lateinit var fiatFormat: DecimalFormat
+    private lateinit var denominatedFormat: DecimalFormat
     private var unit: Int = 0
 
     init {
@@ -50,6 +51,12 @@ class MonetaryUtil(unit: Int) {
             maximumFractionDigits = 18
             minimumFractionDigits = 2
         }
+
+        denominatedFormat = DecimalFormat().apply {
+            minimumIntegerDigits = 1
+            minimumFractionDigits = 1
+            maximumFractionDigits = 8
+        }
     }
 
     /**
@@ -66,7 +73,9 @@ class MonetaryUtil(unit: Int) {
      * @return A [NumberFormat] object with the correct decimal fractions for the chosen Fiat format
      * @see ExchangeRateFactory.getCurrencyLabels
      */
-    fun getFiatFormat(fiat: String) = fiatFormat.apply { currency = Currency.getInstance(fiat) }
+    fun getFiatFormat(fiat: String) = fiatFormat.apply {
+        if (currency?.currencyCode != fiat) currency = Currency.getInstance(fiat)
+    }
 
     /**
      * Returns the current BTC format as a [NumberFormat] object.
@@ -172,18 +181,10 @@ class MonetaryUtil(unit: Int) {
      * @param value The amount to be formatted in Satoshis
      * @return An amount formatted as a [String]
      */
-    fun getDisplayAmountWithFormatting(value: Long): String {
-        val df = DecimalFormat().apply {
-            minimumIntegerDigits = 1
-            minimumFractionDigits = 1
-            maximumFractionDigits = 8
-        }
-
-        return when (unit) {
-            MonetaryUtil.MICRO_BTC -> df.format((value * MICRO_LONG).toDouble() / BTC_DEC)
-            MonetaryUtil.MILLI_BTC -> df.format((value * MILLI_LONG).toDouble() / BTC_DEC)
-            else -> getBtcFormat().format(value / BTC_DEC)
-        }
+    fun getDisplayAmountWithFormatting(value: Long): String = when (unit) {
+        MonetaryUtil.MICRO_BTC -> denominatedFormat.format((value * MICRO_LONG).toDouble() / BTC_DEC)
+        MonetaryUtil.MILLI_BTC -> denominatedFormat.format((value * MILLI_LONG).toDouble() / BTC_DEC)
+        else -> getBtcFormat().format(value / BTC_DEC)
     }
 
     /**
@@ -195,18 +196,10 @@ class MonetaryUtil(unit: Int) {
      * @param value The amount to be formatted in Satoshis
      * @return An amount formatted as a [String]
      */
-    fun getDisplayAmountWithFormatting(value: Double): String {
-        val df = DecimalFormat().apply {
-            minimumIntegerDigits = 1
-            minimumFractionDigits = 1
-            maximumFractionDigits = 8
-        }
-
-        return when (unit) {
-            MonetaryUtil.MICRO_BTC -> df.format(value * MICRO_DOUBLE / BTC_DEC)
-            MonetaryUtil.MILLI_BTC -> df.format(value * MILLI_DOUBLE / BTC_DEC)
-            else -> getBtcFormat().format(value / BTC_DEC)
-        }
+    fun getDisplayAmountWithFormatting(value: Double): String = when (unit) {
+        MonetaryUtil.MICRO_BTC -> denominatedFormat.format(value * MICRO_DOUBLE / BTC_DEC)
+        MonetaryUtil.MILLI_BTC -> denominatedFormat.format(value * MILLI_DOUBLE / BTC_DEC)
+        else -> getBtcFormat().format(value / BTC_DEC)
     }
 
     /**
@@ -1,5 +1,7 @@
 package piuk.blockchain.android.util;
 
+import java.util.Map;
+
 interface PersistentPrefs {
 
     String DEFAULT_CURRENCY = "USD";
@@ -61,6 +63,8 @@ interface PersistentPrefs {
 
     void setValue(String name, boolean value);
 
+    void setValues(Map<String, String> values);
+
     boolean has(String name);
 
     void removeValue(String name);
@@ -5,6 +5,8 @@ import android.content.SharedPreferences;
 import android.content.SharedPreferences.Editor;
 import android.preference.PreferenceManager;
 
+import java.util.Map;
+
 public class PrefsUtil implements PersistentPrefs {
 
     private SharedPreferences preferenceManager;
@@ -70,6 +72,19 @@ public class PrefsUtil implements PersistentPrefs {
         editor.apply();
     }
 
+    /**
+     * Writes several String values in a single edit, rather than one disk write per value
+     */
+    @Override
+    public void setValues(Map<String, String> values) {
+        Editor editor = preferenceManager.edit();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            String value = entry.getValue();
+            editor.putString(entry.getKey(), (value == null || value.isEmpty()) ? "" : value);
+        }
+        editor.apply();
+    }
+
     @Override
     public boolean has(String name) {
         return preferenceManager.contains(name);
@@ -0,0 +1,236 @@
+package piuk.blockchain.android.util.tracing
+
+import io.reactivex.Completable
+import io.reactivex.Observable
+import io.reactivex.Single
+import io.reactivex.schedulers.Schedulers
+import timber.log.Timber
+import java.io.File
+import java.io.IOException
+import java.util.concurrent.TimeUnit
+
+/**
+ * A lightweight tracer for measuring where time goes during app launch. Named spans are timed with
+ * [System.nanoTime], so they're unaffected by changes to the wall clock, and completed spans are
+ * kept in a fixed size ring buffer so that tracing never grows unbounded.
+ *
+ * Spans started with [begin] are nested under the innermost open [begin] span on the same thread,
+ * and must be ended on that thread. Spans started with [beginAsync], which is what the Rx helpers
+ * use, can be ended on any thread; they're nested under the span which was open on the thread that
+ * started them, but never become a parent themselves.
+ *
+ * The whole launch, from `BlockchainApplication.onCreate` until the first balance is shown, is
+ * covered by the span started in [startLaunch] and ended in [finishLaunch], at which point the
+ * trace can be written to a file in the Chrome trace event format. Launches which stop for user
+ * input, such as PIN entry, are dropped with [discardLaunch] as their duration means nothing.
+ */
+object Tracer {
+
+    private const val CAPACITY = 256
+    private const val LAUNCH_SPAN_NAME = "launch"
+
+    private val origin = System.nanoTime()
+    private val completed = arrayOfNulls<Span>(CAPACITY)
+    private var nextSlot = 0
+    private var completedCount = 0
+    private var nextId = 1
+    private val openSpans = HashMap<Int, OpenSpan>()
+    private val threadStacks = object : ThreadLocal<ArrayList<Int>>() {
+        override fun initialValue() = ArrayList<Int>()
+    }
+    private var launchSpanId = 0
+    private var launchExportFile: File? = null
+
+    /**
+     * Starts a span nested under the innermost open span on the current thread.
+     *
+     * @return An ID which must be passed to [end] on the same thread
+     */
+    @JvmStatic
+    fun begin(name: String): Int {
+        val id = beginAsync(name)
+        threadStacks.get().add(id)
+        return id
+    }
+
+    /**
+     * Starts a span which may be ended on any thread.
+     *
+     * @return An ID which must be passed to [end]
+     */
+    @JvmStatic
+    fun beginAsync(name: String): Int {
+        val now = System.nanoTime()
+        val thread = Thread.currentThread()
+        val parentId = threadStacks.get().lastOrNull() ?: 0
+        synchronized(this) {
+            val id = nextId++
+            openSpans.put(id, OpenSpan(name, parentId, thread.id, thread.name, now))
+            return id
+        }
+    }
+
+    /**
+     * Ends a span started with [begin] or [beginAsync]. Ending a span twice has no effect.
+     */
+    @JvmStatic
+    fun end(id: Int) {
+        val now = System.nanoTime()
+        threadStacks.get().remove(id)
+        synchronized(this) {
+            val open = openSpans.remove(id) ?: return
+            completed[nextSlot] = Span(
+                    id,
+                    open.parentId,
+                    open.name,
+                    open.threadId,
+                    open.threadName,
+                    open.startNanos - origin,
+                    now - open.startNanos
+            )
+            nextSlot = (nextSlot + 1) % CAPACITY
+            if (completedCount < CAPACITY) completedCount++
+        }
+    }
+
+    /**
+     * Wraps an [Observable] in a span which starts on subscription and ends when it terminates or
+     * is disposed.
+     */
+    @JvmStatic
+    fun <T> trace(name: String, observable: Observable<T>): Observable<T> = Observable.defer {
+        val id = beginAsync(name)
+        observable.doFinally { end(id) }
+    }
+
+    @JvmStatic
+    fun <T> trace(name: String, single: Single<T>): Single<T> = Single.defer {
+        val id = beginAsync(name)
+        single.doFinally { end(id) }
+    }
+
+    @JvmStatic
+    fun trace(name: String, completable: Completable): Completable = Completable.defer {
+        val id = beginAsync(name)
+        completable.doFinally { end(id) }
+    }
+
+    /**
+     * Starts the span covering the whole launch. Should be called as early as possible in
+     * [android.app.Application.onCreate].
+     *
+     * @param exportFile The file the trace is written to once the launch finishes, or null if it
+     * shouldn't be written at all
+     */
+    @JvmStatic
+    @Synchronized
+    fun startLaunch(exportFile: File?) {
+        if (launchSpanId == 0) {
+            launchSpanId = beginAsync(LAUNCH_SPAN_NAME)
+            launchExportFile = exportFile
+        }
+    }
+
+    /**
+     * Ends the launch span, if it hasn't been ended or discarded already, and writes the trace to
+     * the file passed to [startLaunch] on the IO scheduler.
+     */
+    @JvmStatic
+    fun finishLaunch() {
+        val (id, file) = synchronized(this) {
+            (launchSpanId to launchExportFile).also { launchSpanId = -1 }
+        }
+        if (id <= 0) return
+
+        end(id)
+        getSpans().lastOrNull { it.id == id }
+                ?.let { Timber.d("Launch took %d ms", TimeUnit.NANOSECONDS.toMillis(it.durationNanos)) }
+        if (file != null) {
+            Completable.fromAction { exportTo(file) }
+                    .subscribeOn(Schedulers.io())
+                    .subscribe({ /* No-op */ }, { Timber.e(it) })
+        }
+    }
+
+    /**
+     * Drops the launch span without recording it, for launches which won't reach the balance
+     * screen without user input. Has no effect once the launch has finished.
+     */
+    @JvmStatic
+    @Synchronized
+    fun discardLaunch() {
+        if (launchSpanId > 0) openSpans.remove(launchSpanId)
+        launchSpanId = -1
+    }
+
+    /**
+     * Returns all completed spans still held in the buffer, oldest first.
+     */
+    @JvmStatic
+    @Synchronized
+    fun getSpans(): List<Span> {
+        val start = if (completedCount < CAPACITY) 0 else nextSlot
+        return (0 until completedCount).map { completed[(start + it) % CAPACITY]!! }
+    }
+
+    /**
+     * Writes all completed spans to a file as JSON in the Chrome trace event format, which can be
+     * opened in chrome://tracing. Errors are logged rather than thrown, as tracing should never
+     * affect the app.
+     */
+    @JvmStatic
+    fun exportTo(file: File) {
+        val json = getSpans().joinToString(",\n", "[\n", "\n]\n") { it.toTraceEvent() }
+        try {
+            file.writeText(json)
+        } catch (e: IOException) {
+            Timber.e(e)
+        }
+    }
+
+    @Synchronized
+    internal fun reset() {
+        completed.fill(null)
+        nextSlot = 0
+        completedCount = 0
+        openSpans.clear()
+        threadStacks.get().clear()
+        launchSpanId = 0
+        launchExportFile = null
+    }
+
+    private fun Span.toTraceEvent() =
+            "{\"name\":\"${escape(name)}\",\"ph\":\"X\",\"pid\":0,\"tid\":$threadId," +
+                    "\"ts\":${TimeUnit.NANOSECONDS.toMicros(startNanos)}," +
+                    "\"dur\":${TimeUnit.NANOSECONDS.toMicros(durationNanos)}," +
+                    "\"args\":{\"id\":$id,\"parent\":$parentId,\"thread\":\"${escape(threadName)}\"}}"
+
+    private fun escape(value: String) = value.replace("\\", "\\\\").replace("\"", "\\\"")
+
+    private class OpenSpan(
+            val name: String,
+            val parentId: Int,
+            val threadId: Long,
+            val threadName: String,
+            val startNanos: Long
+    )
+
+}
+
+/**
+ * A completed span.
+ *
+ * @param id The ID returned when the span was started
+ * @param parentId The ID of the span this was nested under, or 0 if none
+ * @param startNanos The time the span started, relative to when the [Tracer] was first used
+ * @param durationNanos How long the span was open for
+ */
+data class Span(
+        val id: Int,
+        val parentId: Int,
+        val name: String,
+        val threadId: Long,
+        val threadName: String,
+        val startNanos: Long,
+        val durationNanos: Long
+)
@@ -0,0 +1,89 @@
+package piuk.blockchain.android.data.cache
+
+import info.blockchain.wallet.api.data.FeeOptions
+import io.reactivex.Observable
+import io.reactivex.subjects.PublishSubject
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.mock
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+import java.util.concurrent.TimeUnit
+
+class DynamicFeeCacheTest : RxTest() {
+
+    private lateinit var subject: DynamicFeeCache
+    private var webCalls = 0
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        subject = DynamicFeeCache(MAX_AGE)
+    }
+
+    @Test
+    fun `fetch should call web source and cache result`() {
+        // Arrange
+        val feeOptions: FeeOptions = mock()
+        // Act
+        val testObserver = subject.fetchBtcFeeOptions(webSource(Observable.just(feeOptions))).test()
+        // Assert
+        webCalls `should equal to` 1
+        testObserver.assertValue(feeOptions)
+        subject.btcFeeOptions `should be` feeOptions
+        subject.isBtcFeeOptionsStale `should be` false
+    }
+
+    @Test
+    fun `fetch should return cached value until max age has passed`() {
+        // Arrange
+        val cached: FeeOptions = mock()
+        val fresh: FeeOptions = mock()
+        subject.btcFeeOptions = cached
+        // Act
+        val first = subject.fetchBtcFeeOptions(webSource(Observable.just(fresh))).test()
+        testScheduler.advanceTimeBy(MAX_AGE + 1, TimeUnit.MILLISECONDS)
+        val second = subject.fetchBtcFeeOptions(webSource(Observable.just(fresh))).test()
+        // Assert
+        webCalls `should equal to` 1
+        first.assertValue(cached)
+        second.assertValue(fresh)
+    }
+
+    @Test
+    fun `concurrent fetches should share a single request`() {
+        // Arrange
+        val feeOptions: FeeOptions = mock()
+        val request = PublishSubject.create<FeeOptions>()
+        // Act
+        val first = subject.fetchEthFeeOptions(webSource(request)).test()
+        val second = subject.fetchEthFeeOptions(webSource(request)).test()
+        request.onNext(feeOptions)
+        request.onComplete()
+        // Assert
+        webCalls `should equal to` 1
+        first.assertValue(feeOptions)
+        second.assertValue(feeOptions)
+    }
+
+    @Test
+    fun `invalidate should mark fee options as stale`() {
+        // Arrange
+        subject.ethFeeOptions = mock()
+        // Act
+        subject.invalidate()
+        // Assert
+        subject.isEthFeeOptionsStale `should be` true
+    }
+
+    private fun webSource(source: Observable<FeeOptions>): Observable<FeeOptions> =
+            Observable.defer { webCalls++; source }
+
+    companion object {
+
+        private const val MAX_AGE = 1000L
+
+    }
+
+}
@@ -0,0 +1,67 @@
+package piuk.blockchain.android.data.cache
+
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import java.io.File
+
+class HistoricPriceCacheTest {
+
+    @Rule @JvmField val folder = TemporaryFolder()
+
+    @Test
+    fun `get should return price within the same time bucket`() {
+        // Arrange
+        val subject = HistoricPriceCache(File(folder.root, "historic_prices"))
+        subject.put(CryptoCurrencies.BTC, "USD", 1_500_000_000L, 4000.0)
+        // Act
+        val price = subject.get(CryptoCurrencies.BTC, "usd", 1_500_000_010L)
+        // Assert
+        price `should equal` 4000.0
+        subject.get(CryptoCurrencies.ETHER, "USD", 1_500_000_000L) `should be` null
+        subject.get(CryptoCurrencies.BTC, "GBP", 1_500_000_000L) `should be` null
+    }
+
+    @Test
+    fun `putAll should evict least recently used prices`() {
+        // Arrange
+        val subject = HistoricPriceCache(File(folder.root, "historic_prices"), 2)
+        subject.put(CryptoCurrencies.BTC, "USD", 0L, 1.0)
+        subject.put(CryptoCurrencies.BTC, "USD", 1000L, 2.0)
+        subject.get(CryptoCurrencies.BTC, "USD", 0L)
+        // Act
+        subject.putAll(listOf(HistoricPriceCache.HistoricPrice(CryptoCurrencies.BTC, "USD", 2000L, 3.0)))
+        // Assert
+        subject.contains(CryptoCurrencies.BTC, "USD", 0L) `should be` true
+        subject.contains(CryptoCurrencies.BTC, "USD", 1000L) `should be` false
+        subject.contains(CryptoCurrencies.BTC, "USD", 2000L) `should be` true
+    }
+
+    @Test
+    fun `prices should be restored from disk`() {
+        // Arrange
+        val file = File(folder.root, "historic_prices")
+        HistoricPriceCache(file).put(CryptoCurrencies.ETHER, "EUR", 1000L, 250.0)
+        // Act
+        val price = HistoricPriceCache(file).get(CryptoCurrencies.ETHER, "EUR", 1000L)
+        // Assert
+        price `should equal` 250.0
+    }
+
+    @Test
+    fun `invalidate should delete all prices`() {
+        // Arrange
+        val file = File(folder.root, "historic_prices")
+        HistoricPriceCache(file).put(CryptoCurrencies.BTC, "USD", 1000L, 4000.0)
+        val subject = HistoricPriceCache(file)
+        // Act
+        subject.invalidate()
+        // Assert
+        subject.contains(CryptoCurrencies.BTC, "USD", 1000L) `should be` false
+        file.exists() `should be` false
+    }
+
+}
@@ -0,0 +1,72 @@
+package piuk.blockchain.android.data.cache
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.times
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import org.amshove.kluent.`should equal`
+import org.amshove.kluent.`should equal to`
+import org.junit.Test
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.util.PrefsUtil
+
+class LastPriceCacheTest {
+
+    private val prefsUtil: PrefsUtil = mock()
+    private val subject = LastPriceCache(prefsUtil)
+
+    @Test
+    fun `getLastPrice should return ticker price`() {
+        // Arrange
+        subject.updatePrices(CryptoCurrencies.BTC, mapOf("USD" to 4000.0))
+        subject.updatePrices(CryptoCurrencies.ETHER, mapOf("USD" to 300.0))
+        // Act
+        val btcPrice = subject.getLastPrice(CryptoCurrencies.BTC, "USD")
+        val ethPrice = subject.getLastPrice(CryptoCurrencies.ETHER, "USD")
+        // Assert
+        btcPrice `should equal to` 4000.0
+        ethPrice `should equal to` 300.0
+        subject.getCurrencies() `should equal` setOf("USD")
+        verify(prefsUtil, never()).getValue(any<String>(), any<String>())
+    }
+
+    @Test
+    fun `updatePrices should persist only valid prices`() {
+        // Arrange
+        // Act
+        subject.updatePrices(CryptoCurrencies.BTC, mapOf("USD" to 4000.0, "GBP" to 0.0))
+        // Assert
+        verify(prefsUtil).setValues(mapOf("LAST_KNOWN_BTC_VALUE_FOR_CURRENCY_USD" to "4000.0"))
+    }
+
+    @Test
+    fun `getLastPrice should fall back to last known price and read prefs once`() {
+        // Arrange
+        whenever(prefsUtil.getValue("LAST_KNOWN_ETH_VALUE_FOR_CURRENCY_GBP", "0.0")).thenReturn("250.0")
+        subject.updatePrices(CryptoCurrencies.ETHER, mapOf("GBP" to 0.0))
+        // Act
+        val first = subject.getLastPrice(CryptoCurrencies.ETHER, "GBP")
+        val second = subject.getLastPrice(CryptoCurrencies.ETHER, "GBP")
+        // Assert
+        first `should equal to` 250.0
+        second `should equal to` 250.0
+        verify(prefsUtil, times(1)).getValue("LAST_KNOWN_ETH_VALUE_FOR_CURRENCY_GBP", "0.0")
+    }
+
+    @Test
+    fun `invalidate should forget last known prices`() {
+        // Arrange
+        whenever(prefsUtil.getValue("LAST_KNOWN_BTC_VALUE_FOR_CURRENCY_EUR", "0.0"))
+                .thenReturn("3000.0")
+                .thenReturn("0.0")
+        subject.getLastPrice(CryptoCurrencies.BTC, "EUR") `should equal to` 3000.0
+        // Act
+        subject.invalidate()
+        // Assert
+        subject.getLastPrice(CryptoCurrencies.BTC, "EUR") `should equal to` 0.0
+        verify(prefsUtil, times(2)).getValue("LAST_KNOWN_BTC_VALUE_FOR_CURRENCY_EUR", "0.0")
+    }
+
+}
@@ -0,0 +1,119 @@
+package piuk.blockchain.android.data.cache
+
+import com.nhaarman.mockito_kotlin.mock
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.api.data.UnspentOutput
+import info.blockchain.api.data.UnspentOutputs
+import io.reactivex.Observable
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+import piuk.blockchain.android.data.rxjava.RxBus
+import piuk.blockchain.android.data.websocket.WebSocketReceiveEvent
+import java.util.concurrent.TimeUnit
+
+class UnspentOutputsCacheTest : RxTest() {
+
+    private lateinit var subject: UnspentOutputsCache
+    private val rxBus = RxBus()
+    private var webCalls = 0
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        subject = UnspentOutputsCache(rxBus, MAX_AGE, MAX_SPENT_AGE)
+    }
+
+    @Test
+    fun `fetch should return cached outputs until max age has passed`() {
+        // Arrange
+        val cached = unspentOutputs(output("hash0", 0))
+        val fresh = unspentOutputs(output("hash1", 0))
+        // Act
+        val first = subject.fetch(ADDRESS, webSource(cached)).test()
+        val second = subject.fetch(ADDRESS, webSource(fresh)).test()
+        testScheduler.advanceTimeBy(MAX_AGE + 1, TimeUnit.MILLISECONDS)
+        val third = subject.fetch(ADDRESS, webSource(fresh)).test()
+        // Assert
+        webCalls `should equal to` 2
+        first.assertValue(cached)
+        second.assertValue(cached)
+        third.assertValue(fresh)
+    }
+
+    @Test
+    fun `websocket receive event should invalidate all entries`() {
+        // Arrange
+        val cached = unspentOutputs(output("hash0", 0))
+        subject.put(ADDRESS, cached)
+        // Act
+        rxBus.emitEvent(WebSocketReceiveEvent::class.java, WebSocketReceiveEvent(ADDRESS, "hash"))
+        subject.fetch(ADDRESS, webSource(cached)).test()
+        // Assert
+        webCalls `should equal to` 1
+    }
+
+    @Test
+    fun `markSpent should exclude spent outputs from later responses`() {
+        // Arrange
+        val spent = output("hash0", 0)
+        val unspent = output("hash0", 1)
+        subject.put(ADDRESS, unspentOutputs(spent, unspent))
+        // Act
+        subject.markSpent(ADDRESS, listOf(spent))
+        val testObserver = subject.fetch(ADDRESS, webSource(unspentOutputs(spent, unspent))).test()
+        // Assert
+        webCalls `should equal to` 1
+        testObserver.values().first().unspentOutputs `should equal` listOf(unspent)
+    }
+
+    @Test
+    fun `spent outputs should be returned again once max spent age has passed`() {
+        // Arrange
+        val spent = output("hash0", 0)
+        subject.markSpent(ADDRESS, listOf(spent))
+        // Act
+        testScheduler.advanceTimeBy(MAX_SPENT_AGE + 1, TimeUnit.MILLISECONDS)
+        val stored = subject.put(ADDRESS, unspentOutputs(spent))
+        // Assert
+        stored.unspentOutputs `should equal` listOf(spent)
+    }
+
+    @Test
+    fun `invalidate should drop cached and spent outputs`() {
+        // Arrange
+        val spent = output("hash0", 0)
+        subject.put(ADDRESS, unspentOutputs(spent))
+        subject.markSpent(ADDRESS, listOf(spent))
+        // Act
+        subject.invalidate()
+        val testObserver = subject.fetch(ADDRESS, webSource(unspentOutputs(spent))).test()
+        // Assert
+        webCalls `should equal to` 1
+        testObserver.values().first().unspentOutputs `should equal` listOf(spent)
+    }
+
+    private fun webSource(source: UnspentOutputs): Observable<UnspentOutputs> =
+            Observable.defer { webCalls++; Observable.just(source) }
+
+    private fun unspentOutputs(vararg outputs: UnspentOutput) =
+            UnspentOutputs().apply { unspentOutputs = arrayListOf(*outputs) }
+
+    private fun output(hash: String, n: Int): UnspentOutput {
+        val output: UnspentOutput = mock()
+        whenever(output.txHash).thenReturn(hash)
+        whenever(output.txOutputN).thenReturn(n)
+        return output
+    }
+
+    companion object {
+
+        private const val ADDRESS = "xpub"
+        private const val MAX_AGE = 1000L
+        private const val MAX_SPENT_AGE = 5000L
+
+    }
+
+}
@@ -8,13 +8,16 @@ import info.blockchain.wallet.prices.PriceApi
 import info.blockchain.wallet.prices.Scale
 import info.blockchain.wallet.prices.data.PriceDatum
 import io.reactivex.Observable
+import org.amshove.kluent.`should equal`
 import org.amshove.kluent.any
 import org.amshove.kluent.mock
 import org.junit.Before
 import org.junit.Test
 import piuk.blockchain.android.RxTest
+import piuk.blockchain.android.data.charts.datastore.ChartsDataStore
 import piuk.blockchain.android.data.currency.CryptoCurrencies
 import piuk.blockchain.android.data.rxjava.RxBus
+import java.util.concurrent.TimeUnit
 
 class ChartsDataManagerTest : RxTest() {
 
@@ -25,7 +28,7 @@ class ChartsDataManagerTest : RxTest() {
     @Before
     override fun setUp() {
         super.setUp()
-        subject = ChartsDataManager(historicPriceApi, rxBus)
+        subject = ChartsDataManager(historicPriceApi, ChartsDataStore(), rxBus)
     }
 
     @Test
@@ -184,4 +187,76 @@ class ChartsDataManagerTest : RxTest() {
         verifyNoMoreInteractions(historicPriceApi)
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun `getDayPrice should return cached data before expiry`() {
+        // Arrange
+        val btc = CryptoCurrencies.BTC
+        val fiat = "USD"
+        val now = System.currentTimeMillis() / 1000
+        val datum = priceDatum(now, 1.0)
+        whenever(historicPriceApi.getHistoricPriceSeries(
+                eq(btc.symbol),
+                eq(fiat),
+                any(),
+                eq(Scale.FIFTEEN_MINUTES)
+        )).thenReturn(Observable.just(listOf(datum)))
+        subject.getDayPrice(btc, fiat).test()
+        // Act
+        val testObserver = subject.getDayPrice(btc, fiat).test()
+        // Assert
+        testObserver.assertComplete()
+        testObserver.values().map { it.timestamp } `should equal` listOf(now)
+        verify(historicPriceApi).getHistoricPriceSeries(
+                eq(btc.symbol),
+                eq(fiat),
+                any(),
+                eq(Scale.FIFTEEN_MINUTES)
+        )
+        verifyNoMoreInteractions(historicPriceApi)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `getDayPrice should only fetch newer points after expiry`() {
+        // Arrange
+        val btc = CryptoCurrencies.BTC
+        val fiat = "USD"
+        val now = System.currentTimeMillis() / 1000
+        val first = priceDatum(now - 900, 1.0)
+        whenever(historicPriceApi.getHistoricPriceSeries(
+                eq(btc.symbol),
+                eq(fiat),
+                any(),
+                eq(Scale.FIFTEEN_MINUTES)
+        )).thenReturn(Observable.just(listOf(first)))
+        subject.getDayPrice(btc, fiat).test()
+        val second = priceDatum(now, 2.0)
+        whenever(historicPriceApi.getHistoricPriceSeries(
+                btc.symbol,
+                fiat,
+                now - 899,
+                Scale.FIFTEEN_MINUTES
+        )).thenReturn(Observable.just(listOf(first, second)))
+        testScheduler.advanceTimeBy(16, TimeUnit.MINUTES)
+        // Act
+        val testObserver = subject.getDayPrice(btc, fiat).test()
+        // Assert
+        testObserver.assertComplete()
+        testObserver.values().map { it.price } `should equal` listOf(1.0, 2.0)
+        verify(historicPriceApi).getHistoricPriceSeries(
+                btc.symbol,
+                fiat,
+                now - 899,
+                Scale.FIFTEEN_MINUTES
+        )
+    }
+
+    private fun priceDatum(timestamp: Long, price: Double): PriceDatum {
+        val priceDatum: PriceDatum = mock(PriceDatum::class)
+        whenever(priceDatum.timestamp).thenReturn(timestamp)
+        whenever(priceDatum.price).thenReturn(price)
+        return priceDatum
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package piuk.blockchain.android.data.charts
+
+import com.nhaarman.mockito_kotlin.whenever
+import info.blockchain.wallet.prices.data.PriceDatum
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.`should equal`
+import org.amshove.kluent.mock
+import org.junit.Test
+import piuk.blockchain.android.data.charts.models.ChartDatumDto
+
+class ChartsDownsamplingTest {
+
+    @Test
+    fun `series below threshold should be returned unchanged`() {
+        // Arrange
+        val data = (0L until 10L).map { chartDatum(it, it.toDouble()) }
+        // Act
+        val result = largestTriangleThreeBuckets(data, 10)
+        // Assert
+        result `should be` data
+    }
+
+    @Test
+    fun `series should be reduced to threshold keeping first and last points`() {
+        // Arrange
+        val data = (0L until 100L).map { chartDatum(it, (it % 7).toDouble()) }
+        // Act
+        val result = largestTriangleThreeBuckets(data, 20)
+        // Assert
+        result.size `should equal to` 20
+        result.first() `should be` data.first()
+        result.last() `should be` data.last()
+        result.map { it.timestamp } `should equal` result.map { it.timestamp }.sorted()
+    }
+
+    @Test
+    fun `spikes should be preserved`() {
+        // Arrange
+        val data = (0L until 100L).map { chartDatum(it, if (it == 50L) 1000.0 else 1.0) }
+        // Act
+        val result = largestTriangleThreeBuckets(data, 10)
+        // Assert
+        result.any { it.price == 1000.0 } `should be` true
+    }
+
+    private fun chartDatum(timestamp: Long, price: Double): ChartDatumDto {
+        val priceDatum: PriceDatum = mock(PriceDatum::class)
+        whenever(priceDatum.timestamp).thenReturn(timestamp)
+        whenever(priceDatum.price).thenReturn(price)
+        return ChartDatumDto(priceDatum)
+    }
+
+}
@@ -14,8 +14,10 @@ import io.reactivex.observers.TestObserver;
 import piuk.blockchain.android.BlockchainTestApplication;
 import piuk.blockchain.android.BuildConfig;
 import piuk.blockchain.android.RxTest;
+import piuk.blockchain.android.data.cache.QrCodeCache;
 
 import static junit.framework.Assert.assertNotNull;
+import static junit.framework.Assert.assertSame;
 import static junit.framework.TestCase.assertEquals;
 
 @Config(sdk = 23, constants = BuildConfig.class, application = BlockchainTestApplication.class)
@@ -28,7 +30,7 @@ public class QrCodeDataManagerTest extends RxTest {
     @Before
     public void setUp() throws Exception {
         super.setUp();
-        subject = new QrCodeDataManager();
+        subject = new QrCodeDataManager(new QrCodeCache());
     }
 
     @Test
@@ -47,6 +49,19 @@ public class QrCodeDataManagerTest extends RxTest {
         observer.assertNoErrors();
     }
 
+    @Test
+    public void generateQrCodeCached() throws Exception {
+        // Arrange
+        TestObserver<Bitmap> first = subject.generateQrCode(TEST_URI, 100).test();
+        getTestScheduler().triggerActions();
+        // Act
+        TestObserver<Bitmap> second = subject.generateQrCode(TEST_URI, 100).test();
+        // Assert
+        second.assertComplete();
+        second.assertValueCount(1);
+        assertSame(first.values().get(0), second.values().get(0));
+    }
+
     @Test
     public void generatePairingCode() throws Exception {
         // Arrange
@@ -24,9 +24,11 @@ import io.reactivex.observers.TestObserver;
 import piuk.blockchain.android.RxTest;
 import piuk.blockchain.android.data.ethereum.EthDataManager;
 import piuk.blockchain.android.data.ethereum.models.CombinedEthModel;
+import piuk.blockchain.android.data.stores.TransactionDiskStore;
 import piuk.blockchain.android.data.stores.TransactionListStore;
 import piuk.blockchain.android.data.transactions.BtcDisplayable;
 import piuk.blockchain.android.data.transactions.Displayable;
+import piuk.blockchain.android.data.transactions.TransactionChangeSet;
 import piuk.blockchain.android.ui.account.ItemAccount;
 
 import static junit.framework.Assert.assertNotNull;
@@ -39,6 +41,7 @@ public class TransactionListDataManagerTest extends RxTest {
 
     @Mock private PayloadManager payloadManager;
     @Mock private EthDataManager ethDataManager;
+    @Mock private TransactionDiskStore transactionDiskStore;
     private TransactionListStore transactionListStore;
     private TransactionListDataManager subject;
 
@@ -52,7 +55,8 @@ public class TransactionListDataManagerTest extends RxTest {
         subject = new TransactionListDataManager(
                 payloadManager,
                 ethDataManager,
-                transactionListStore);
+                transactionListStore,
+                transactionDiskStore);
     }
 
     @Test
@@ -188,6 +192,33 @@ public class TransactionListDataManagerTest extends RxTest {
         testObserver.assertNoErrors();
     }
 
+    @Test
+    public void fetchNextTransactionPage() throws Exception {
+        // Arrange
+        TransactionSummary newer = summary("hash1", 2000L);
+        TransactionSummary older = summary("hash0", 1000L);
+        when(payloadManager.getAllTransactions(1, 0)).thenReturn(Collections.singletonList(newer));
+        when(payloadManager.getAllTransactions(1, 1)).thenReturn(Collections.singletonList(older));
+        when(payloadManager.getAllTransactions(1, 2)).thenReturn(Collections.emptyList());
+        ItemAccount itemAccount = new ItemAccount();
+        itemAccount.setType(ItemAccount.TYPE.ALL_ACCOUNTS_AND_LEGACY);
+        subject.fetchTransactions(itemAccount, 1, 0).test();
+        // Act
+        TestObserver<TransactionChangeSet> testObserver =
+                subject.fetchNextTransactionPage(itemAccount, 1).test();
+        boolean hasMoreAfterSecondPage = subject.hasMoreTransactions(itemAccount);
+        subject.fetchNextTransactionPage(itemAccount, 1).test();
+        // Assert
+        testObserver.assertComplete();
+        assertEquals(Collections.singletonList(1), testObserver.values().get(0).getInsertedPositions());
+        assertEquals(2, subject.getTransactionList().size());
+        assertEquals(true, hasMoreAfterSecondPage);
+        assertEquals(false, subject.hasMoreTransactions(itemAccount));
+        // Refreshing the first page keeps older pages
+        subject.fetchTransactions(itemAccount, 1, 0).test();
+        assertEquals(2, subject.getTransactionList().size());
+    }
+
     @Test
     public void getTransactionList() throws Exception {
         // Arrange
@@ -202,7 +233,9 @@ public class TransactionListDataManagerTest extends RxTest {
     @Test
     public void clearTransactionList() throws Exception {
         // Arrange
-        transactionListStore.getList().add(mock(Displayable.class));
+        Displayable tx0 = mock(BtcDisplayable.class);
+        when(tx0.getHash()).thenReturn("hash0");
+        transactionListStore.insertTransactionIntoListAndSort(tx0);
         // Act
         subject.clearTransactionList();
         // Assert
@@ -213,10 +246,13 @@ public class TransactionListDataManagerTest extends RxTest {
     public void insertTransactionIntoListAndReturnSorted() throws Exception {
         // Arrange
         Displayable tx0 = mock(BtcDisplayable.class);
+        when(tx0.getHash()).thenReturn("hash0");
         when(tx0.getTimeStamp()).thenReturn(0L);
         Displayable tx1 = mock(BtcDisplayable.class);
+        when(tx1.getHash()).thenReturn("hash1");
         when(tx1.getTimeStamp()).thenReturn(500L);
         Displayable tx2 = mock(BtcDisplayable.class);
+        when(tx2.getHash()).thenReturn("hash2");
         when(tx2.getTimeStamp()).thenReturn(1000L);
         transactionListStore.insertTransactions(Arrays.asList(tx1, tx0));
         // Act
@@ -353,4 +389,17 @@ public class TransactionListDataManagerTest extends RxTest {
         assertNotNull(result);
     }
 
-}
\ No newline at end of file
+    private TransactionSummary summary(String hash, long time) {
+        TransactionSummary summary = new TransactionSummary();
+        summary.setConfirmations(3);
+        summary.setDirection(TransactionSummary.Direction.RECEIVED);
+        summary.setFee(BigInteger.ONE);
+        summary.setTotal(BigInteger.TEN);
+        summary.setHash(hash);
+        summary.setInputsMap(new HashMap<>());
+        summary.setOutputsMap(new HashMap<>());
+        summary.setTime(time);
+        return summary;
+    }
+
+}
@@ -1,5 +1,6 @@
 package piuk.blockchain.android.data.datamanagers;
 
+import info.blockchain.api.data.UnspentOutput;
 import info.blockchain.api.data.UnspentOutputs;
 import info.blockchain.wallet.payload.data.Account;
 import info.blockchain.wallet.payload.data.LegacyAddress;
@@ -16,6 +17,7 @@ import org.mockito.MockitoAnnotations;
 
 import java.math.BigInteger;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import io.reactivex.Completable;
@@ -29,11 +31,17 @@ import piuk.blockchain.android.data.walletoptions.WalletOptionsDataManager;
 import piuk.blockchain.android.ui.account.ItemAccount;
 import piuk.blockchain.android.ui.send.PendingTransaction;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class TransferFundsDataManagerTest extends RxTest {
@@ -77,6 +85,59 @@ public class TransferFundsDataManagerTest extends RxTest {
         testObserver.assertNoErrors();
     }
 
+    @Test
+    public void getTransferableFundTransactionsReportsProgress() throws Exception {
+        // Arrange
+        LegacyAddress funded = new LegacyAddress();
+        funded.setAddress("funded");
+        funded.setPrivateKey("");
+        LegacyAddress unconfirmed = new LegacyAddress();
+        unconfirmed.setAddress("unconfirmed");
+        unconfirmed.setPrivateKey("");
+        LegacyAddress empty = new LegacyAddress();
+        empty.setAddress("empty");
+        empty.setPrivateKey("");
+        when(dynamicFeeCache.getBtcFeeOptions().getRegularFee()).thenReturn(1L);
+        when(payloadDataManager.getWallet().getLegacyAddressList())
+                .thenReturn(Arrays.asList(funded, unconfirmed, empty));
+        when(payloadDataManager.getAddressBalance("funded")).thenReturn(BigInteger.TEN);
+        when(payloadDataManager.getAddressBalance("unconfirmed")).thenReturn(BigInteger.TEN);
+        when(payloadDataManager.getAddressBalance("empty")).thenReturn(BigInteger.ZERO);
+        UnspentOutputs fundedOutputs = mock(UnspentOutputs.class);
+        UnspentOutputs unconfirmedOutputs = mock(UnspentOutputs.class);
+        when(unconfirmedOutputs.getNotice()).thenReturn("notice");
+        when(sendDataManager.getUnspentOutputs("funded")).thenReturn(Observable.just(fundedOutputs));
+        when(sendDataManager.getUnspentOutputs("unconfirmed")).thenReturn(Observable.just(unconfirmedOutputs));
+        when(sendDataManager.getMaximumAvailable(any(UnspentOutputs.class), any(BigInteger.class)))
+                .thenReturn(Pair.of(BigInteger.valueOf(1_000_000L), BigInteger.TEN));
+        SpendableUnspentOutputs spendableUnspentOutputs = new SpendableUnspentOutputs();
+        spendableUnspentOutputs.setAbsoluteFee(BigInteger.TEN);
+        when(sendDataManager.getSpendableCoins(any(UnspentOutputs.class), any(BigInteger.class), any(BigInteger.class)))
+                .thenReturn(spendableUnspentOutputs);
+        // Act
+        TestObserver<TransferFundsProgress> progressObserver =
+                subject.getTransferableFundTransactions(1).test();
+        TestObserver<Triple<List<PendingTransaction>, Long, Long>> listObserver =
+                subject.getTransferableFundTransactionList(1).test();
+        // Assert
+        progressObserver.assertComplete();
+        progressObserver.assertValueCount(2);
+        TransferFundsProgress first = progressObserver.values().get(0);
+        TransferFundsProgress second = progressObserver.values().get(1);
+        assertEquals(1, first.getChecked());
+        assertEquals(2, first.getTotal());
+        assertEquals(funded, first.getPendingTransaction().sendingObject.getAccountObject());
+        assertEquals(1, first.getPendingTransaction().addressToReceiveIndex);
+        assertEquals(2, second.getChecked());
+        assertNull(second.getPendingTransaction());
+        listObserver.assertComplete();
+        Triple<List<PendingTransaction>, Long, Long> triple = listObserver.values().get(0);
+        assertEquals(1, triple.getLeft().size());
+        assertEquals(1_000_000L, (long) triple.getMiddle());
+        assertEquals(10L, (long) triple.getRight());
+        verify(sendDataManager, never()).getUnspentOutputs("empty");
+    }
+
     @Test
     public void sendPaymentSuccess() throws Exception {
         // Arrange
@@ -113,6 +174,81 @@ public class TransferFundsDataManagerTest extends RxTest {
         testObserver.assertValues("hash", "hash", "hash");
     }
 
+    @Test
+    public void getTransferableFundsConsolidated() throws Exception {
+        // Arrange
+        LegacyAddress legacyAddress = new LegacyAddress();
+        legacyAddress.setAddress("address");
+        legacyAddress.setPrivateKey("");
+        when(dynamicFeeCache.getBtcFeeOptions().getRegularFee()).thenReturn(1L);
+        when(payloadDataManager.getWallet().getLegacyAddressList())
+                .thenReturn(Arrays.asList(legacyAddress, legacyAddress));
+        when(payloadDataManager.getAddressBalance(anyString())).thenReturn(BigInteger.TEN);
+        UnspentOutputs unspentOutputs = mock(UnspentOutputs.class);
+        when(sendDataManager.getUnspentOutputs(anyString())).thenReturn(Observable.just(unspentOutputs));
+        when(sendDataManager.getMaximumAvailable(any(UnspentOutputs.class), any(BigInteger.class)))
+                .thenReturn(Pair.of(BigInteger.valueOf(1_000_000L), BigInteger.TEN))
+                .thenReturn(Pair.of(BigInteger.valueOf(1_000_000L), BigInteger.TEN))
+                .thenReturn(Pair.of(BigInteger.valueOf(2_000_005L), BigInteger.valueOf(15L)));
+        SpendableUnspentOutputs spendableUnspentOutputs = new SpendableUnspentOutputs();
+        spendableUnspentOutputs.setAbsoluteFee(BigInteger.TEN);
+        spendableUnspentOutputs.setSpendableOutputs(Collections.singletonList(mock(UnspentOutput.class)));
+        SpendableUnspentOutputs consolidatedOutputs = new SpendableUnspentOutputs();
+        consolidatedOutputs.setAbsoluteFee(BigInteger.valueOf(15L));
+        when(sendDataManager.getSpendableCoins(any(UnspentOutputs.class), any(BigInteger.class), any(BigInteger.class)))
+                .thenReturn(spendableUnspentOutputs)
+                .thenReturn(spendableUnspentOutputs)
+                .thenReturn(consolidatedOutputs);
+        // Act
+        TestObserver<TransferableFunds> testObserver = subject.getTransferableFunds(0, true).test();
+        // Assert
+        testObserver.assertComplete();
+        TransferableFunds funds = testObserver.values().get(0);
+        assertEquals(2, funds.getPendingTransactions().size());
+        assertEquals(consolidatedOutputs, funds.getConsolidated().unspentOutputBundle);
+        assertEquals(2_000_005L, funds.getTotalToSend());
+        assertEquals(15L, funds.getTotalFee());
+    }
+
+    @Test
+    public void sendConsolidatedPayment() throws Exception {
+        // Arrange
+        PendingTransaction transaction1 = pendingSweep("address1", 1_000_000L, 100L);
+        PendingTransaction transaction2 = pendingSweep("address2", 2_000_000L, 100L);
+        PendingTransaction consolidated = pendingSweep("address1", 3_000_050L, 150L);
+        when(sendDataManager.submitPayment(
+                any(SpendableUnspentOutputs.class),
+                anyList(),
+                anyString(),
+                anyString(),
+                any(BigInteger.class),
+                any(BigInteger.class))).thenReturn(Observable.just("hash"));
+        when(payloadDataManager.syncPayloadWithServer()).thenReturn(Completable.complete());
+        when(payloadDataManager.getNextReceiveAddress(anyInt())).thenReturn(Observable.just("receive"));
+        when(payloadDataManager.getAddressECKey(any(LegacyAddress.class), anyString()))
+                .thenReturn(mock(ECKey.class));
+        when(payloadDataManager.getWallet().getHdWallets().get(0).getAccounts().get(anyInt()))
+                .thenReturn(mock(Account.class));
+        // Act
+        TestObserver<String> testObserver = subject.sendConsolidatedPayment(
+                consolidated, Arrays.asList(transaction1, transaction2), "password").test();
+        // Assert
+        testObserver.assertComplete();
+        testObserver.assertValues("hash");
+        verify(sendDataManager).submitPayment(
+                eq(consolidated.unspentOutputBundle),
+                argThat(keys -> keys.size() == 2),
+                eq("receive"),
+                eq("address1"),
+                eq(BigInteger.valueOf(150L)),
+                eq(BigInteger.valueOf(3_000_050L)));
+        // The transaction shown to the user is sent as is, rather than rebuilt at the current fee
+        verify(sendDataManager, never()).getMaximumAvailable(any(UnspentOutputs.class), any(BigInteger.class));
+        verify(payloadDataManager).subtractAmountFromAddressBalance("address1", 1_000_100L);
+        verify(payloadDataManager).subtractAmountFromAddressBalance("address2", 2_000_100L);
+        verify(payloadDataManager).syncPayloadWithServer();
+    }
+
     @Test
     public void sendPaymentError() throws Exception {
         // Arrange
@@ -149,4 +285,17 @@ public class TransferFundsDataManagerTest extends RxTest {
         testObserver.assertNoValues();
     }
 
-}
\ No newline at end of file
+    private PendingTransaction pendingSweep(String address, long amount, long fee) {
+        LegacyAddress legacyAddress = new LegacyAddress();
+        legacyAddress.setAddress(address);
+        PendingTransaction pendingTransaction = new PendingTransaction();
+        pendingTransaction.sendingObject = new ItemAccount("", "", null, null, legacyAddress);
+        pendingTransaction.unspentOutputBundle = new SpendableUnspentOutputs();
+        pendingTransaction.unspentOutputBundle.setSpendableOutputs(
+                Collections.singletonList(mock(UnspentOutput.class)));
+        pendingTransaction.bigIntAmount = BigInteger.valueOf(amount);
+        pendingTransaction.bigIntFee = BigInteger.valueOf(fee);
+        return pendingTransaction;
+    }
+
+}
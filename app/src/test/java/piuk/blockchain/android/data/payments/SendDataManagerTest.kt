@@ -142,6 +142,48 @@ class SendDataManagerTest : RxTest() {
         verifyNoMoreInteractions(mockPaymentService)
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun `getSpendableCoins should memoise results for same unspent outputs`() {
+        // Arrange
+        val mockUnspent: UnspentOutputs = mock()
+        val mockOutputs: SpendableUnspentOutputs = mock()
+        val payment = BigInteger.valueOf(1000L)
+        val fee = BigInteger.valueOf(10L)
+        whenever(mockPaymentService.getSpendableCoins(mockUnspent, payment, fee))
+                .thenReturn(mockOutputs)
+        // Act
+        subject.getSpendableCoins(mockUnspent, payment, fee)
+        val result = subject.getSpendableCoins(mockUnspent, BigInteger.valueOf(1000L), fee)
+        // Assert
+        result shouldEqual mockOutputs
+        verify(mockPaymentService).getSpendableCoins(mockUnspent, payment, fee)
+        verifyNoMoreInteractions(mockPaymentService)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `getCoinSelection spend all`() {
+        // Arrange
+        val mockUnspent: UnspentOutputs = mock()
+        val mockOutputs: SpendableUnspentOutputs = mock()
+        val fee = BigInteger.valueOf(10L)
+        val maxAvailable = BigInteger.valueOf(5000L)
+        whenever(mockPaymentService.getMaximumAvailable(mockUnspent, fee))
+                .thenReturn(Pair.of(maxAvailable, BigInteger.valueOf(100L)))
+        whenever(mockPaymentService.getSpendableCoins(mockUnspent, maxAvailable, fee))
+                .thenReturn(mockOutputs)
+        // Act
+        val testObserver = subject.getCoinSelection(mockUnspent, BigInteger.ZERO, fee, true).test()
+        testScheduler.triggerActions()
+        // Assert
+        testObserver.assertComplete()
+        testObserver.values()[0] shouldEqual CoinSelection(maxAvailable, maxAvailable, mockOutputs)
+        verify(mockPaymentService).getMaximumAvailable(mockUnspent, fee)
+        verify(mockPaymentService).getSpendableCoins(mockUnspent, maxAvailable, fee)
+        verifyNoMoreInteractions(mockPaymentService)
+    }
+
     @Test
     @Throws(Exception::class)
     fun isAdequateFee() {
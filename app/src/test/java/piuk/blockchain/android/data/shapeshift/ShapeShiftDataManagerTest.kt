@@ -25,13 +25,20 @@ class ShapeShiftDataManagerTest : RxTest() {
     private val shapeShiftApi: ShapeShiftApi = mock()
     private val shapeShiftDataStore: ShapeShiftDataStore = mock()
     private val payloadManager: PayloadManager = mock()
+    private val tradeStatusPoller: TradeStatusPoller = mock()
     private val rxBus: RxBus = RxBus()
 
     @Before
     @Throws(Exception::class)
     override fun setUp() {
         super.setUp()
-        subject = ShapeShiftDataManager(shapeShiftApi, shapeShiftDataStore, payloadManager, rxBus)
+        subject = ShapeShiftDataManager(
+                shapeShiftApi,
+                shapeShiftDataStore,
+                payloadManager,
+                tradeStatusPoller,
+                rxBus
+        )
     }
 
     @Test
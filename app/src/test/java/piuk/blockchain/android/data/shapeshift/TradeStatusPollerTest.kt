@@ -0,0 +1,115 @@
+package piuk.blockchain.android.data.shapeshift
+
+import info.blockchain.wallet.shapeshift.data.Trade
+import info.blockchain.wallet.shapeshift.data.TradeStatusResponse
+import io.reactivex.Observable
+import org.amshove.kluent.`should equal to`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+import java.util.concurrent.TimeUnit
+
+class TradeStatusPollerTest : RxTest() {
+
+    private lateinit var subject: TradeStatusPoller
+    private var statuses = mutableListOf<Trade.STATUS>()
+    private var requests = 0
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        subject = TradeStatusPoller(BASE_INTERVAL, MAX_INTERVAL, TICK, 1)
+    }
+
+    @Test
+    fun `watchers of the same trade should share polls until final state`() {
+        // Arrange
+        statuses = mutableListOf(Trade.STATUS.RECEIVED, Trade.STATUS.COMPLETE)
+        // Act
+        val first = subject.watch(DEPOSIT_ADDRESS, source()).test()
+        val second = subject.watch(DEPOSIT_ADDRESS, source()).test()
+        testScheduler.advanceTimeBy(BASE_INTERVAL * 2, TimeUnit.MILLISECONDS)
+        // Assert
+        requests `should equal to` 2
+        first.assertValueCount(2)
+        first.assertComplete()
+        second.assertValueCount(2)
+        second.assertComplete()
+    }
+
+    @Test
+    fun `new trade should be polled on the next tick`() {
+        // Arrange
+        statuses = MutableList(10) { Trade.STATUS.NO_DEPOSITS }
+        // Act
+        val testObserver = subject.watch(DEPOSIT_ADDRESS, source()).test()
+        testScheduler.advanceTimeBy(TICK, TimeUnit.MILLISECONDS)
+        // Assert
+        requests `should equal to` 1
+        testObserver.assertValueCount(1)
+    }
+
+    @Test
+    fun `unchanged status should back off exponentially`() {
+        // Arrange
+        statuses = MutableList(10) { Trade.STATUS.NO_DEPOSITS }
+        // Act
+        val testObserver = subject.watch(DEPOSIT_ADDRESS, source()).test()
+        testScheduler.advanceTimeBy(BASE_INTERVAL, TimeUnit.MILLISECONDS)
+        val afterFirst = requests
+        testScheduler.advanceTimeBy(BASE_INTERVAL, TimeUnit.MILLISECONDS)
+        val afterSecond = requests
+        testScheduler.advanceTimeBy(BASE_INTERVAL, TimeUnit.MILLISECONDS)
+        val afterThird = requests
+        testScheduler.advanceTimeBy(BASE_INTERVAL, TimeUnit.MILLISECONDS)
+        // Assert
+        afterFirst `should equal to` 1
+        afterSecond `should equal to` 2
+        // The status didn't change on the second poll, so the next one is 20 seconds later
+        afterThird `should equal to` 2
+        requests `should equal to` 3
+        testObserver.assertNotComplete()
+    }
+
+    @Test
+    fun `polling should pause while in the background`() {
+        // Arrange
+        statuses = MutableList(10) { Trade.STATUS.NO_DEPOSITS }
+        subject.watch(DEPOSIT_ADDRESS, source()).test()
+        // Act
+        subject.onBecameBackground()
+        testScheduler.advanceTimeBy(BASE_INTERVAL * 2, TimeUnit.MILLISECONDS)
+        val whilePaused = requests
+        subject.onBecameForeground()
+        testScheduler.advanceTimeBy(TICK, TimeUnit.MILLISECONDS)
+        // Assert
+        whilePaused `should equal to` 0
+        requests `should equal to` 1
+    }
+
+    @Test
+    fun `trades with no watchers should not be polled`() {
+        // Arrange
+        statuses = MutableList(10) { Trade.STATUS.NO_DEPOSITS }
+        val testObserver = subject.watch(DEPOSIT_ADDRESS, source()).test()
+        // Act
+        testObserver.dispose()
+        testScheduler.advanceTimeBy(BASE_INTERVAL * 2, TimeUnit.MILLISECONDS)
+        // Assert
+        requests `should equal to` 0
+    }
+
+    private fun source(): Observable<TradeStatusResponse> = Observable.fromCallable {
+        TradeStatusResponse().apply { setStatus(statuses[requests++].name) }
+    }
+
+    companion object {
+
+        private const val DEPOSIT_ADDRESS = "DEPOSIT_ADDRESS"
+        private const val BASE_INTERVAL = 10_000L
+        private const val MAX_INTERVAL = 40_000L
+        private const val TICK = 1_000L
+
+    }
+
+}
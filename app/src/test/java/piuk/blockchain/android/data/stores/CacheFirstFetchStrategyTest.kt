@@ -0,0 +1,70 @@
+package piuk.blockchain.android.data.stores
+
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import io.reactivex.Observable
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.mock
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+
+class CacheFirstFetchStrategyTest : RxTest() {
+
+    lateinit var subject: CacheFirstFetchStrategy<String>
+    lateinit var webSource: Observable<String>
+    lateinit var cacheSource: Observable<Optional<String>>
+    val cacheStore: PersistentStore<String> = mock()
+
+    @Test
+    fun `fetch should return cached value followed by web source`() {
+        // Arrange
+        val cached = "CACHED"
+        val value = "VALUE"
+        cacheSource = Observable.just(Optional.Some(cached))
+        webSource = Observable.just(value)
+        whenever(cacheStore.store(value)).thenReturn(Observable.just(value))
+        subject = CacheFirstFetchStrategy(webSource, cacheSource, cacheStore)
+        // Act
+        val testObserver = subject.fetch().test()
+        // Assert
+        verify(cacheStore).store(value)
+        testObserver.assertComplete()
+        testObserver.values().size `should equal to` 2
+        testObserver.values()[0] `should equal to` cached
+        testObserver.values()[1] `should equal to` value
+    }
+
+    @Test
+    fun `fetch should only return web source if cache is empty`() {
+        // Arrange
+        val value = "VALUE"
+        cacheSource = Observable.just(Optional.None)
+        webSource = Observable.just(value)
+        whenever(cacheStore.store(value)).thenReturn(Observable.just(value))
+        subject = CacheFirstFetchStrategy(webSource, cacheSource, cacheStore)
+        // Act
+        val testObserver = subject.fetch().test()
+        // Assert
+        testObserver.assertComplete()
+        testObserver.values().size `should equal to` 1
+        testObserver.values()[0] `should equal to` value
+    }
+
+    @Test
+    fun `fetch should ignore cache errors and return web source`() {
+        // Arrange
+        val value = "VALUE"
+        cacheSource = Observable.error { Throwable() }
+        webSource = Observable.just(value)
+        whenever(cacheStore.store(value)).thenReturn(Observable.just(value))
+        subject = CacheFirstFetchStrategy(webSource, cacheSource, cacheStore)
+        // Act
+        val testObserver = subject.fetch().test()
+        // Assert
+        testObserver.assertComplete()
+        testObserver.assertNoErrors()
+        testObserver.values().size `should equal to` 1
+        testObserver.values()[0] `should equal to` value
+    }
+
+}
@@ -0,0 +1,87 @@
+package piuk.blockchain.android.data.stores
+
+import com.nhaarman.mockito_kotlin.any
+import com.nhaarman.mockito_kotlin.never
+import com.nhaarman.mockito_kotlin.verify
+import com.nhaarman.mockito_kotlin.whenever
+import io.reactivex.Observable
+import io.reactivex.subjects.PublishSubject
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.mock
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+import java.util.concurrent.TimeUnit
+
+class StaleWhileRevalidateFetchStrategyTest : RxTest() {
+
+    lateinit var subject: StaleWhileRevalidateFetchStrategy<String>
+    val memoryStore: PersistentStore<String> = mock()
+    private var webCalls = 0
+
+    @Test
+    fun `fetch should call web source if nothing stored`() {
+        // Arrange
+        val value = "VALUE"
+        whenever(memoryStore.store(value)).thenReturn(Observable.just(value))
+        subject = createSubject(Observable.just(Optional.None), Observable.just(value))
+        // Act
+        val testObserver = subject.fetch().test()
+        // Assert
+        verify(memoryStore).store(value)
+        webCalls `should equal to` 1
+        testObserver.values()[0] `should equal to` value
+    }
+
+    @Test
+    fun `fetch should return stored value and refresh once stale`() {
+        // Arrange
+        val cached = "CACHED"
+        val value = "VALUE"
+        whenever(memoryStore.store(value)).thenReturn(Observable.just(value))
+        subject = createSubject(Observable.just(Optional.Some(cached)), Observable.just(value))
+        // Populate the timestamp
+        subject.refresh().test()
+        // Act
+        val fresh = subject.fetch().test()
+        val freshCalls = webCalls
+        testScheduler.advanceTimeBy(MAX_AGE + 1, TimeUnit.MILLISECONDS)
+        val stale = subject.fetch().test()
+        // Assert
+        freshCalls `should equal to` 1
+        webCalls `should equal to` 2
+        fresh.values()[0] `should equal to` cached
+        stale.values()[0] `should equal to` cached
+    }
+
+    @Test
+    fun `concurrent fetches should share a single request`() {
+        // Arrange
+        val webSubject = PublishSubject.create<String>()
+        subject = createSubject(Observable.just(Optional.None), webSubject)
+        // Act
+        val first = subject.fetch().test()
+        val second = subject.fetch().test()
+        // Assert
+        webCalls `should equal to` 1
+        verify(memoryStore, never()).store(any())
+        first.assertNoValues()
+        second.assertNoValues()
+    }
+
+    private fun createSubject(
+            memorySource: Observable<Optional<String>>,
+            webSource: Observable<String>
+    ) = StaleWhileRevalidateFetchStrategy(
+            Observable.defer { webCalls++; webSource },
+            memorySource,
+            memoryStore,
+            MAX_AGE
+    )
+
+    companion object {
+
+        private const val MAX_AGE = 1000L
+
+    }
+
+}
@@ -0,0 +1,113 @@
+package piuk.blockchain.android.data.stores
+
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal`
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import org.spongycastle.util.encoders.Base64
+import piuk.blockchain.android.data.currency.CryptoCurrencies
+import piuk.blockchain.android.data.transactions.CachedDisplayable
+import piuk.blockchain.android.data.transactions.Displayable
+import java.io.File
+import java.math.BigInteger
+
+class TransactionDiskStoreTest {
+
+    @Rule @JvmField val folder = TemporaryFolder()
+
+    private val transactions: List<Displayable> = listOf(
+            CachedDisplayable(
+                    cryptoCurrency = CryptoCurrencies.BTC,
+                    direction = TransactionSummary.Direction.RECEIVED,
+                    timeStamp = 1_500_000_000L,
+                    total = BigInteger("2100000000000000"),
+                    fee = BigInteger.valueOf(-1L),
+                    hash = "hash1",
+                    inputsMap = hashMapOf("input" to BigInteger.ZERO),
+                    outputsMap = hashMapOf("output1" to BigInteger.TEN, "output2" to BigInteger("123456789012345678901234567890")),
+                    confirmations = 0,
+                    watchOnly = false,
+                    doubleSpend = true,
+                    isPending = true
+            ),
+            CachedDisplayable(
+                    cryptoCurrency = CryptoCurrencies.ETHER,
+                    direction = TransactionSummary.Direction.SENT,
+                    timeStamp = 1_400_000_000L,
+                    total = BigInteger.ONE,
+                    fee = BigInteger.ZERO,
+                    hash = "hash2",
+                    inputsMap = hashMapOf(),
+                    outputsMap = hashMapOf(),
+                    confirmations = 12,
+                    watchOnly = true,
+                    doubleSpend = false,
+                    isPending = false
+            )
+    )
+
+    @Test
+    fun `store then read should return the same transactions`() {
+        // Arrange
+        val subject = TransactionDiskStore(File(folder.root, "transactions"))
+        subject.store("xpub", "password", transactions).test()
+        // Act
+        val result = subject.read("xpub", "password").test().values().first()
+        // Assert
+        (result as Optional.Some).element `should equal` transactions
+    }
+
+    @Test
+    fun `read should decrypt cache written by a previous session`() {
+        // Arrange
+        val directory = File(folder.root, "transactions")
+        TransactionDiskStore(directory).store("xpub", "password", transactions).test()
+        // Act
+        val result = TransactionDiskStore(directory).read("xpub", "password").test().values().first()
+        // Assert
+        (result as Optional.Some).element `should equal` transactions
+    }
+
+    @Test
+    fun `read with wrong password should return none`() {
+        // Arrange
+        val subject = TransactionDiskStore(File(folder.root, "transactions"))
+        subject.store("xpub", "password", transactions).test()
+        // Act
+        val result = subject.read("xpub", "wrong password").test().values().first()
+        // Assert
+        (result is Optional.None) `should be` true
+    }
+
+    @Test
+    fun `read of modified cache should return none`() {
+        // Arrange
+        val directory = File(folder.root, "transactions")
+        val subject = TransactionDiskStore(directory)
+        subject.store("xpub", "password", transactions).test()
+        val file = directory.listFiles().first { it.name != "salt" }
+        val data = Base64.decode(file.readText())
+        data[data.size / 2] = (data[data.size / 2].toInt() xor 1).toByte()
+        file.writeText(Base64.toBase64String(data))
+        // Act
+        val result = subject.read("xpub", "password").test().values().first()
+        // Assert
+        (result is Optional.None) `should be` true
+    }
+
+    @Test
+    fun `invalidate should delete cache`() {
+        // Arrange
+        val directory = File(folder.root, "transactions")
+        val subject = TransactionDiskStore(directory)
+        subject.store("xpub", "password", transactions).test()
+        // Act
+        subject.invalidate()
+        // Assert
+        (subject.read("xpub", "password").test().values().first() is Optional.None) `should be` true
+        directory.listFiles().isEmpty() `should be` true
+    }
+
+}
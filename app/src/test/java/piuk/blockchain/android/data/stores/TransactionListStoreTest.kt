@@ -0,0 +1,170 @@
+package piuk.blockchain.android.data.stores
+
+import info.blockchain.wallet.multiaddress.TransactionSummary
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.android.data.transactions.BtcDisplayable
+import piuk.blockchain.android.data.transactions.Displayable
+import java.math.BigInteger
+
+class TransactionListStoreTest {
+
+    private val subject = TransactionListStore()
+
+    @Test
+    fun `insertTransactions should sort newest first`() {
+        // Arrange
+        val tx0 = displayable("hash0", 0L)
+        val tx1 = displayable("hash1", 500L)
+        val tx2 = displayable("hash2", 1000L)
+        // Act
+        subject.insertTransactions(listOf(tx1, tx0, tx2))
+        // Assert
+        subject.list `should equal` listOf(tx2, tx1, tx0)
+    }
+
+    @Test
+    fun `insert with existing hash should replace entry`() {
+        // Arrange
+        val tx0 = displayable("hash0", 0L)
+        val tx1 = displayable("hash1", 500L)
+        val updated = displayable("hash0", 1000L, confirmations = 6)
+        subject.insertTransactions(listOf(tx0, tx1))
+        // Act
+        subject.insertTransactionIntoListAndSort(updated)
+        // Assert
+        subject.size() `should equal to` 2
+        subject.list `should equal` listOf(updated, tx1)
+        subject.getTransaction("hash0") `should be` updated
+        subject.txConfirmationsMap["hash0"] `should equal` 6
+    }
+
+    @Test
+    fun `identical timestamps should keep insertion order`() {
+        // Arrange
+        val tx0 = displayable("hash0", 500L)
+        val tx1 = displayable("hash1", 500L)
+        // Act
+        subject.insertTransactions(listOf(tx0, tx1))
+        // Assert
+        subject.list `should equal` listOf(tx0, tx1)
+    }
+
+    @Test
+    fun `removeTransaction should remove entry by hash`() {
+        // Arrange
+        val tx0 = displayable("hash0", 0L)
+        val tx1 = displayable("hash1", 500L)
+        subject.insertTransactions(listOf(tx0, tx1))
+        // Act
+        val removed = subject.removeTransaction("hash1")
+        // Assert
+        removed `should be` tx1
+        subject.list `should equal` listOf(tx0)
+        subject.containsTransaction("hash1") `should be` false
+        subject.removeTransaction("hash1") `should be` null
+    }
+
+    @Test
+    fun `getList should return same snapshot until modified`() {
+        // Arrange
+        subject.insertTransactions(listOf(displayable("hash0", 0L)))
+        val snapshot = subject.list
+        // Act
+        val second = subject.list
+        subject.insertTransactionIntoListAndSort(displayable("hash1", 500L))
+        val third = subject.list
+        // Assert
+        (snapshot === second) `should be` true
+        (snapshot === third) `should be` false
+        snapshot.size `should equal to` 1
+        third.size `should equal to` 2
+    }
+
+    @Test
+    fun `mergeTransactions should report inserted, changed and removed positions`() {
+        // Arrange
+        val tx0 = displayable("hash0", 0L)
+        val tx1 = displayable("hash1", 500L)
+        val tx2 = displayable("hash2", 1000L)
+        subject.insertTransactions(listOf(tx0, tx1, tx2))
+        val tx1Updated = displayable("hash1", 500L, confirmations = 3)
+        val tx3 = displayable("hash3", 1500L)
+        // Act
+        val changeSet = subject.mergeTransactions(listOf(tx3, tx2, tx1Updated))
+        // Assert
+        changeSet.transactions `should equal` listOf(tx3, tx2, tx1Updated)
+        changeSet.removedPositions `should equal` listOf(2)
+        changeSet.insertedPositions `should equal` listOf(0)
+        changeSet.changedPositions `should equal` listOf(2)
+        subject.txConfirmationsMap["hash1"] `should equal` 3
+        subject.txConfirmationsMap.containsKey("hash0") `should be` false
+    }
+
+    @Test
+    fun `mergeTransactions should keep unchanged instances and pending transactions`() {
+        // Arrange
+        val tx0 = displayable("hash0", 0L)
+        val pending = displayable("pending", 500L, pending = true)
+        subject.insertTransactions(listOf(tx0, pending))
+        val snapshot = subject.list
+        // Act
+        val changeSet = subject.mergeTransactions(listOf(displayable("hash0", 0L)))
+        // Assert
+        changeSet.isEmpty() `should be` true
+        (changeSet.transactions === snapshot) `should be` true
+        subject.getTransaction("hash0") `should be` tx0
+        subject.containsTransaction("pending") `should be` true
+    }
+
+    @Test
+    fun `mergeFirstPage should only remove transactions within the page`() {
+        // Arrange
+        val tx0 = displayable("hash0", 0L)
+        val tx1 = displayable("hash1", 500L)
+        val tx2 = displayable("hash2", 1000L)
+        val removed = displayable("removed", 1200L)
+        subject.insertTransactions(listOf(tx0, tx1, tx2, removed))
+        val tx3 = displayable("hash3", 1500L)
+        // Act
+        val changeSet = subject.mergeFirstPage(listOf(tx3, displayable("hash2", 1000L)))
+        // Assert
+        subject.list `should equal` listOf(tx3, tx2, tx1, tx0)
+        changeSet.removedPositions `should equal` listOf(0)
+        changeSet.insertedPositions `should equal` listOf(0)
+    }
+
+    @Test
+    fun `appendPage should insert older transactions without removing any`() {
+        // Arrange
+        val tx1 = displayable("hash1", 500L)
+        val tx2 = displayable("hash2", 1000L)
+        subject.insertTransactions(listOf(tx1, tx2))
+        val tx0 = displayable("hash0", 0L)
+        // Act
+        val changeSet = subject.appendPage(listOf(tx0))
+        // Assert
+        subject.list `should equal` listOf(tx2, tx1, tx0)
+        changeSet.removedPositions `should equal` emptyList<Int>()
+        changeSet.insertedPositions `should equal` listOf(2)
+        subject.settledCount `should equal to` 3
+    }
+
+    private fun displayable(
+            hash: String,
+            time: Long,
+            confirmations: Int = 0,
+            pending: Boolean = false
+    ): Displayable = BtcDisplayable(TransactionSummary().apply {
+        this.hash = hash
+        this.time = time
+        this.confirmations = confirmations
+        this.isPending = pending
+        this.total = BigInteger.TEN
+        this.fee = BigInteger.ONE
+        this.direction = TransactionSummary.Direction.RECEIVED
+    })
+
+}
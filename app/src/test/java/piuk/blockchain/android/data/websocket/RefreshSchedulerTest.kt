@@ -0,0 +1,122 @@
+package piuk.blockchain.android.data.websocket
+
+import io.reactivex.Completable
+import io.reactivex.schedulers.TestScheduler
+import org.amshove.kluent.`should equal to`
+import org.junit.Test
+import java.util.concurrent.TimeUnit
+
+class RefreshSchedulerTest {
+
+    private val testScheduler = TestScheduler()
+    private var refreshCount = 0
+    private var refreshedCount = 0
+
+    @Test
+    fun `burst of requests should trigger a single refresh`() {
+        // Arrange
+        val subject = createSubject(Completable.fromAction { refreshCount++ })
+        // Act
+        repeat(10) {
+            subject.requestRefresh()
+            testScheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        }
+        testScheduler.advanceTimeBy(1, TimeUnit.SECONDS)
+        // Assert
+        refreshCount `should equal to` 1
+        refreshedCount `should equal to` 1
+    }
+
+    @Test
+    fun `continuous requests should still refresh within max latency`() {
+        // Arrange
+        val subject = createSubject(Completable.fromAction { refreshCount++ })
+        // Act
+        repeat(100) {
+            subject.requestRefresh()
+            testScheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        }
+        // Assert
+        refreshCount `should equal to` 2
+        refreshedCount `should equal to` 2
+    }
+
+    @Test
+    fun `request during refresh should cancel superseded refresh`() {
+        // Arrange
+        val slowRefresh = Completable.defer {
+            refreshCount++
+            Completable.timer(5, TimeUnit.SECONDS, testScheduler)
+        }
+        val subject = createSubject(slowRefresh)
+        subject.requestRefresh()
+        testScheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+        // Act
+        subject.requestRefresh()
+        testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+        // Assert
+        refreshCount `should equal to` 2
+        refreshedCount `should equal to` 1
+    }
+
+    @Test
+    fun `cancel should drop pending request`() {
+        // Arrange
+        val subject = createSubject(Completable.fromAction { refreshCount++ })
+        subject.requestRefresh()
+        // Act
+        subject.cancel()
+        testScheduler.advanceTimeBy(5, TimeUnit.SECONDS)
+        // Assert
+        refreshCount `should equal to` 0
+        refreshedCount `should equal to` 0
+    }
+
+    @Test
+    fun `dispose should cancel refresh and ignore later requests`() {
+        // Arrange
+        val slowRefresh = Completable.defer {
+            refreshCount++
+            Completable.timer(5, TimeUnit.SECONDS, testScheduler)
+        }
+        val subject = createSubject(slowRefresh)
+        subject.requestRefresh()
+        testScheduler.advanceTimeBy(2, TimeUnit.SECONDS)
+        // Act
+        subject.dispose()
+        subject.requestRefresh()
+        testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
+        // Assert
+        refreshCount `should equal to` 1
+        refreshedCount `should equal to` 0
+    }
+
+    @Test
+    fun `failed refresh should not stop later refreshes`() {
+        // Arrange
+        var fail = true
+        val subject = createSubject(Completable.defer {
+            refreshCount++
+            if (fail) Completable.error(Throwable()) else Completable.complete()
+        })
+        subject.requestRefresh()
+        testScheduler.advanceTimeBy(5, TimeUnit.SECONDS)
+        fail = false
+        // Act
+        subject.requestRefresh()
+        testScheduler.advanceTimeBy(5, TimeUnit.SECONDS)
+        // Assert
+        refreshCount `should equal to` 2
+        refreshedCount `should equal to` 1
+    }
+
+    private fun createSubject(refresh: Completable) = RefreshScheduler(
+            refresh,
+            { refreshedCount++ },
+            1000,
+            5000,
+            TimeUnit.MILLISECONDS,
+            testScheduler
+    )
+
+}
@@ -0,0 +1,64 @@
+package piuk.blockchain.android.data.websocket
+
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+import piuk.blockchain.android.data.websocket.models.BtcWebsocketMessage
+import java.math.BigInteger
+
+class WebSocketMessageParserTest {
+
+    private val subject = WebSocketMessageParser()
+
+    @Test
+    fun `parseBtcMessage utx`() {
+        // Arrange
+        val message = """{"op":"utx","x":{"lock_time":0,"ver":1,"size":192,"hash":"HASH",
+            |"inputs":[{"sequence":4294967295,"prev_out":{"spent":true,"tx_index":99005468,
+            |"type":0,"addr":"ADDR_IN","value":65574000,"n":0,"script":"76a914"}}],
+            |"out":[{"spent":false,"tx_index":99005468,"type":0,"addr":"ADDR_OUT","value":1000,
+            |"xpub":{"m":"xpub123","path":"M/0/1"},"n":0}]}}""".trimMargin()
+        // Act
+        val result = subject.parseBtcMessage(message)
+        // Assert
+        result.op `should equal` BtcWebsocketMessage.OP_UTX
+        result.x.hash `should equal` "HASH"
+        result.x.inputs.size `should equal to` 1
+        result.x.inputs[0].prevOut.addr `should equal` "ADDR_IN"
+        result.x.inputs[0].prevOut.value `should equal to` 65574000L
+        result.x.inputs[0].prevOut.hasXpub() `should be` false
+        result.x.out[0].addr `should equal` "ADDR_OUT"
+        result.x.out[0].value `should equal to` 1000L
+        result.x.out[0].hasXpub() `should be` true
+    }
+
+    @Test
+    fun `parseBtcMessage on_change`() {
+        // Arrange
+        val message = """{"op":"on_change","x":{"checksum":"CHECKSUM"}}"""
+        // Act
+        val result = subject.parseBtcMessage(message)
+        // Assert
+        result.op `should equal` BtcWebsocketMessage.OP_ON_CHANGE
+        result.x.checksum `should equal` "CHECKSUM"
+        result.x.inputs.isEmpty() `should be` true
+        result.x.out.isEmpty() `should be` true
+    }
+
+    @Test
+    fun `parseEthMessage account_sub`() {
+        // Arrange
+        val message = """{"op":"account_sub","account":"0xTO","tx":{"from":"0xFROM",
+            |"to":"0xTO","value":1000000000000000000,"hash":"0xHASH"}}""".trimMargin()
+        // Act
+        val btcResult = subject.parseBtcMessage(message)
+        val ethResult = subject.parseEthMessage(message)
+        // Assert
+        btcResult.op `should equal` BtcWebsocketMessage.OP_ACCOUNT_SUB
+        ethResult.tx.from `should equal` "0xFROM"
+        ethResult.tx.to `should equal` "0xTO"
+        ethResult.tx.value `should equal` BigInteger.TEN.pow(18)
+    }
+
+}
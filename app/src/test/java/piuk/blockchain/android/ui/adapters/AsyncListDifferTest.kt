@@ -0,0 +1,77 @@
+package piuk.blockchain.android.ui.adapters
+
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.annotation.Config
+import piuk.blockchain.android.BlockchainTestApplication
+import piuk.blockchain.android.BuildConfig
+import piuk.blockchain.android.RxTest
+
+@Config(sdk = intArrayOf(23), constants = BuildConfig::class, application = BlockchainTestApplication::class)
+@RunWith(RobolectricTestRunner::class)
+class AsyncListDifferTest : RxTest() {
+
+    private lateinit var adapter: TestAdapter
+    private lateinit var subject: AsyncListDiffer<String>
+
+    @Before
+    @Throws(Exception::class)
+    override fun setUp() {
+        super.setUp()
+        adapter = TestAdapter()
+        subject = AsyncListDiffer(adapter, object : AsyncListDiffer.ItemCallback<String>() {
+            override fun areItemsTheSame(oldItem: String, newItem: String) = oldItem == newItem
+        })
+    }
+
+    @Test
+    fun `submitList should apply only the latest list`() {
+        // Arrange
+        subject.submitList(listOf("a", "b"))
+        // Act
+        subject.submitList(listOf("b", "c"))
+        testScheduler.triggerActions()
+        // Assert
+        adapter.items `should equal` listOf("b", "c")
+    }
+
+    @Test
+    fun `appendItems while diff is pending should append to pending list`() {
+        // Arrange
+        subject.submitList(listOf("a", "b"))
+        // Act
+        subject.appendItems(listOf("c"))
+        adapter.items `should equal` emptyList<String>()
+        testScheduler.triggerActions()
+        // Assert
+        adapter.items `should equal` listOf("a", "b", "c")
+    }
+
+    @Test
+    fun `appendItems with no pending diff should append immediately`() {
+        // Arrange
+        subject.submitList(listOf("a"))
+        testScheduler.triggerActions()
+        // Act
+        subject.appendItems(listOf("b"))
+        // Assert
+        adapter.items `should equal` listOf("a", "b")
+    }
+
+    @Test
+    fun `cancel should discard pending diff`() {
+        // Arrange
+        subject.submitList(listOf("a"))
+        // Act
+        subject.cancel()
+        testScheduler.triggerActions()
+        // Assert
+        adapter.items `should equal` emptyList<String>()
+    }
+
+    private class TestAdapter : DelegationAdapter<String>(AdapterDelegatesManager(), emptyList())
+
+}
@@ -7,16 +7,17 @@ import info.blockchain.wallet.payload.data.LegacyAddress
 import info.blockchain.wallet.payload.data.Wallet
 import io.reactivex.Completable
 import io.reactivex.Observable
-import org.apache.commons.lang3.tuple.Triple
 import org.junit.Assert.*
 import org.junit.Before
 import org.junit.Test
+import org.mockito.ArgumentMatchers.any
 import org.mockito.ArgumentMatchers.anyInt
 import org.mockito.ArgumentMatchers.anyList
 import org.mockito.ArgumentMatchers.anyString
 import org.mockito.Mock
 import org.mockito.Mockito.RETURNS_DEEP_STUBS
 import org.mockito.Mockito.mock
+import org.mockito.Mockito.never
 import org.mockito.Mockito.times
 import org.mockito.Mockito.verify
 import org.mockito.Mockito.verifyNoMoreInteractions
@@ -24,6 +25,7 @@ import org.mockito.MockitoAnnotations
 import piuk.blockchain.android.R
 import piuk.blockchain.android.data.payload.PayloadDataManager
 import piuk.blockchain.android.data.datamanagers.TransferFundsDataManager
+import piuk.blockchain.android.data.datamanagers.TransferableFunds
 import piuk.blockchain.android.ui.account.ItemAccount
 import piuk.blockchain.android.ui.customviews.ToastCustom
 import piuk.blockchain.android.ui.receive.WalletAccountHelper
@@ -70,14 +72,35 @@ class ConfirmFundsTransferPresenterTest {
         whenever(mockPayload.hdWallets[0].defaultAccountIdx).thenReturn(0)
         val transaction = PendingTransaction()
         val transactions = Arrays.asList(transaction, transaction)
-        val triple = Triple.of(transactions, 100000000L, 10000L)
-        whenever(transferFundsDataManager.getTransferableFundTransactionList(0))
-                .thenReturn(Observable.just(triple))
+        val funds = TransferableFunds(transactions, null, 100000000L, 10000L)
+        whenever(transferFundsDataManager.getTransferableFunds(0, false))
+                .thenReturn(Observable.just(funds))
         // Act
         subject.onViewReady()
         // Assert
         verify(view).setPaymentButtonEnabled(false)
+        verify(view).showConsolidateOption(true)
         assertEquals(2, subject.pendingTransactions.size)
+        assertNull(subject.consolidatedTransaction)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `onConsolidateChanged fetches consolidated transaction`() {
+        // Arrange
+        whenever(payloadDataManager.defaultAccountIndex).thenReturn(0)
+        val transaction = PendingTransaction()
+        val consolidated = PendingTransaction()
+        whenever(transferFundsDataManager.getTransferableFunds(0, false))
+                .thenReturn(Observable.just(TransferableFunds(listOf(transaction, transaction), null, 200L, 20L)))
+        whenever(transferFundsDataManager.getTransferableFunds(0, true))
+                .thenReturn(Observable.just(TransferableFunds(listOf(transaction, transaction), consolidated, 210L, 10L)))
+        subject.onViewReady()
+        // Act
+        subject.onConsolidateChanged(true)
+        // Assert
+        verify(transferFundsDataManager).getTransferableFunds(0, true)
+        assertEquals(consolidated, subject.consolidatedTransaction)
     }
 
     @Test
@@ -85,8 +108,8 @@ class ConfirmFundsTransferPresenterTest {
     fun `accountSelected error`() {
         // Arrange
         whenever(payloadDataManager.getPositionOfAccountFromActiveList(0)).thenReturn(1)
-        whenever(transferFundsDataManager.getTransferableFundTransactionList(1))
-                .thenReturn(Observable.error<Triple<List<PendingTransaction>, Long, Long>>(Throwable()))
+        whenever(transferFundsDataManager.getTransferableFunds(1, false))
+                .thenReturn(Observable.error<TransferableFunds>(Throwable()))
         // Act
         subject.accountSelected(0)
         // Assert
@@ -146,6 +169,28 @@ class ConfirmFundsTransferPresenterTest {
         verifyNoMoreInteractions(view)
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun `sendPayment should send consolidated transaction`() {
+        // Arrange
+        val consolidated = PendingTransaction()
+        whenever(transferFundsDataManager.sendConsolidatedPayment(
+                any(PendingTransaction::class.java),
+                anyList<PendingTransaction>(),
+                anyString()
+        )).thenReturn(Observable.just("hash"))
+        whenever(view.getIfArchiveChecked()).thenReturn(false)
+        subject.pendingTransactions = mutableListOf(PendingTransaction(), PendingTransaction())
+        subject.consolidatedTransaction = consolidated
+        // Act
+        subject.sendPayment("password")
+        // Assert
+        verify(transferFundsDataManager).sendConsolidatedPayment(consolidated, subject.pendingTransactions, "password")
+        verify(transferFundsDataManager, never()).sendPayment(anyList<PendingTransaction>(), anyString())
+        verify(view).showToast(R.string.transfer_confirmed, ToastCustom.TYPE_OK)
+        verify(view).dismissDialog()
+    }
+
     @Test
     @Throws(Exception::class)
     fun `sendPayment no archive`() {
@@ -26,6 +26,7 @@ import piuk.blockchain.android.data.payload.PayloadDataManager
 import piuk.blockchain.android.data.rxjava.RxBus
 import piuk.blockchain.android.data.shapeshift.ShapeShiftDataManager
 import piuk.blockchain.android.data.transactions.Displayable
+import piuk.blockchain.android.data.transactions.TransactionChangeSet
 import piuk.blockchain.android.ui.account.ItemAccount
 import piuk.blockchain.android.ui.base.UiState
 import piuk.blockchain.android.ui.customviews.ToastCustom
@@ -369,6 +370,76 @@ class BalancePresenterTest {
         verifyNoMoreInteractions(view)
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun `onTransactionsScrolled page without insertions updates list`() {
+        // Arrange
+        val itemAccount = ItemAccount()
+        subject.chosenAccount = itemAccount
+        val transaction: Displayable = mock()
+        val changeSet = TransactionChangeSet(listOf(transaction), listOf(1), emptyList(), emptyList())
+        whenever(transactionListDataManager.hasMoreTransactions(itemAccount)).thenReturn(true)
+        whenever(transactionListDataManager.fetchNextTransactionPage(eq(itemAccount), any()))
+                .thenReturn(Observable.just(changeSet))
+        // Act
+        subject.onTransactionsScrolled(0)
+        // Assert
+        verify(view).setUiState(UiState.CONTENT)
+        verify(view).onTransactionsUpdated(listOf(transaction))
+        verify(view, never()).onTransactionsAppended(any())
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `onTransactionsVisible prefetches historic prices once`() {
+        // Arrange
+        val itemAccount = ItemAccount()
+        subject.chosenAccount = itemAccount
+        val transaction1: Displayable = mock { on { hash } doReturn "hash1" }
+        val transaction2: Displayable = mock { on { hash } doReturn "hash2" }
+        val changeSet = TransactionChangeSet(listOf(transaction1, transaction2), emptyList(), listOf(0, 1), emptyList())
+        whenever(transactionListDataManager.hasMoreTransactions(itemAccount)).thenReturn(true)
+        whenever(transactionListDataManager.fetchNextTransactionPage(eq(itemAccount), any()))
+                .thenReturn(Observable.just(changeSet))
+        whenever(prefsUtil.getValue(PrefsUtil.KEY_SELECTED_FIAT, PrefsUtil.DEFAULT_CURRENCY))
+                .thenReturn("USD")
+        whenever(exchangeRateFactory.prefetchHistoricPrices(any(), any()))
+                .thenReturn(Completable.complete())
+        subject.onTransactionsScrolled(0)
+        // Act
+        subject.onTransactionsVisible(0, 0)
+        subject.onTransactionsVisible(0, 1)
+        // Assert
+        verify(exchangeRateFactory).prefetchHistoricPrices(listOf(transaction1, transaction2), "USD")
+        verifyNoMoreInteractions(exchangeRateFactory)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `onTransactionsVisible retries historic prices after a failed prefetch`() {
+        // Arrange
+        val itemAccount = ItemAccount()
+        subject.chosenAccount = itemAccount
+        val transaction: Displayable = mock { on { hash } doReturn "hash1" }
+        val changeSet = TransactionChangeSet(listOf(transaction), emptyList(), listOf(0), emptyList())
+        whenever(transactionListDataManager.hasMoreTransactions(itemAccount)).thenReturn(true)
+        whenever(transactionListDataManager.fetchNextTransactionPage(eq(itemAccount), any()))
+                .thenReturn(Observable.just(changeSet))
+        whenever(prefsUtil.getValue(PrefsUtil.KEY_SELECTED_FIAT, PrefsUtil.DEFAULT_CURRENCY))
+                .thenReturn("USD")
+        whenever(exchangeRateFactory.prefetchHistoricPrices(any(), any()))
+                .thenReturn(Completable.error(Throwable()))
+                .thenReturn(Completable.complete())
+        subject.onTransactionsScrolled(0)
+        // Act
+        subject.onTransactionsVisible(0, 0)
+        subject.onTransactionsVisible(0, 0)
+        subject.onTransactionsVisible(0, 0)
+        // Assert
+        verify(exchangeRateFactory, times(2)).prefetchHistoricPrices(listOf(transaction), "USD")
+        verifyNoMoreInteractions(exchangeRateFactory)
+    }
+
     @Test
     @Throws(Exception::class)
     fun setViewType() {
@@ -0,0 +1,60 @@
+package piuk.blockchain.android.ui.home
+
+import io.reactivex.Completable
+import org.amshove.kluent.`should equal`
+import org.junit.Before
+import org.junit.Test
+import piuk.blockchain.android.RxTest
+import java.util.concurrent.TimeUnit
+
+class StartupOrchestratorTest : RxTest() {
+
+    private lateinit var subject: StartupOrchestrator
+
+    @Before
+    override fun setUp() {
+        super.setUp()
+        subject = StartupOrchestrator()
+    }
+
+    @Test
+    fun `runCriticalStages should run stages concurrently and record their timings`() {
+        // Arrange
+        subject.addCriticalStage("metadata", Completable.timer(300, TimeUnit.MILLISECONDS))
+                .addCriticalStage("tickers", Completable.timer(100, TimeUnit.MILLISECONDS))
+        // Act
+        val testObserver = subject.runCriticalStages().test()
+        testScheduler.advanceTimeBy(200, TimeUnit.MILLISECONDS)
+        testObserver.assertNotComplete()
+        testScheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        // Assert
+        testObserver.assertComplete()
+        subject.getTimings() `should equal` mapOf("tickers" to 100L, "metadata" to 300L)
+    }
+
+    @Test
+    fun `runCriticalStages should fail if any critical stage fails`() {
+        // Arrange
+        val throwable = Throwable()
+        subject.addCriticalStage("metadata", Completable.error(throwable))
+                .addCriticalStage("tickers", Completable.timer(100, TimeUnit.MILLISECONDS))
+        // Act
+        val testObserver = subject.runCriticalStages().test()
+        // Assert
+        testObserver.assertError(throwable)
+    }
+
+    @Test
+    fun `runBackgroundStages should finish remaining stages when one fails`() {
+        // Arrange
+        subject.addBackgroundStage("btc_fees", Completable.error(Throwable()))
+                .addBackgroundStage("eth_fees", Completable.timer(100, TimeUnit.MILLISECONDS))
+        // Act
+        val testObserver = subject.runBackgroundStages().test()
+        testScheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        // Assert
+        testObserver.assertComplete()
+        subject.getTimings() `should equal` mapOf("btc_fees" to 0L, "eth_fees" to 100L)
+    }
+
+}
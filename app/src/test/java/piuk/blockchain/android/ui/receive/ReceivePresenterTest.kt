@@ -1,5 +1,6 @@
 package piuk.blockchain.android.ui.receive
 
+import android.graphics.Bitmap
 import com.nhaarman.mockito_kotlin.mock
 import com.nhaarman.mockito_kotlin.whenever
 import info.blockchain.wallet.BlockchainFramework
@@ -10,6 +11,8 @@ import info.blockchain.wallet.payload.data.Account
 import info.blockchain.wallet.payload.data.LegacyAddress
 import io.reactivex.Completable
 import io.reactivex.Observable
+import io.reactivex.android.plugins.RxAndroidPlugins
+import io.reactivex.schedulers.TestScheduler
 import org.amshove.kluent.`should be`
 import org.amshove.kluent.`should equal to`
 import org.apache.commons.lang3.NotImplementedException
@@ -21,6 +24,7 @@ import org.mockito.ArgumentMatchers.anyInt
 import org.mockito.ArgumentMatchers.anyString
 import org.mockito.Mockito.*
 import piuk.blockchain.android.R
+import piuk.blockchain.android.RxTest
 import piuk.blockchain.android.data.api.EnvironmentSettings
 import piuk.blockchain.android.data.currency.CryptoCurrencies
 import piuk.blockchain.android.data.currency.CurrencyState
@@ -34,8 +38,9 @@ import piuk.blockchain.android.util.MonetaryUtil
 import piuk.blockchain.android.util.PrefsUtil
 import retrofit2.Retrofit
 import java.util.*
+import java.util.concurrent.TimeUnit
 
-class ReceivePresenterTest {
+class ReceivePresenterTest : RxTest() {
 
     private lateinit var subject: ReceivePresenter
     private val payloadDataManager: PayloadDataManager = mock(defaultAnswer = RETURNS_DEEP_STUBS)
@@ -50,7 +55,8 @@ class ReceivePresenterTest {
 
     @Before
     @Throws(Exception::class)
-    fun setUp() {
+    override fun setUp() {
+        super.setUp()
         initFramework()
 
         subject = ReceivePresenter(
@@ -364,6 +370,7 @@ class ReceivePresenterTest {
                 .thenReturn(Observable.empty())
         // Act
         subject.onBitcoinAmountChanged(amount)
+        testScheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS)
         // Assert
         verify(activity).showQrLoading()
         verify(activity).showToast(R.string.invalid_amount, ToastCustom.TYPE_ERROR)
@@ -372,6 +379,57 @@ class ReceivePresenterTest {
         verifyNoMoreInteractions(qrCodeDataManager)
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun `onBitcoinAmountChanged only encodes once typing stops`() {
+        // Arrange
+        val address = "1ATy3ktyaYjzZZQQnhvPsuBVheUDYcUP7V"
+        subject.selectedAddress = address
+        whenever(qrCodeDataManager.generateQrCode(anyString(), anyInt()))
+                .thenReturn(Observable.empty())
+        // Act
+        subject.onBitcoinAmountChanged("1")
+        testScheduler.advanceTimeBy(100, TimeUnit.MILLISECONDS)
+        subject.onBitcoinAmountChanged("1.5")
+        testScheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS)
+        // Assert
+        verify(activity).showQrLoading()
+        verify(qrCodeDataManager).generateQrCode(anyString(), anyInt())
+        verifyNoMoreInteractions(qrCodeDataManager)
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `onBitcoinAmountChanged updates view on main thread`() {
+        // Arrange
+        val mainScheduler = TestScheduler()
+        RxAndroidPlugins.setMainThreadSchedulerHandler { mainScheduler }
+        subject = ReceivePresenter(
+                prefsUtil,
+                qrCodeDataManager,
+                walletAccountHelper,
+                payloadDataManager,
+                exchangeRateFactory,
+                ethDataStore,
+                environmentSettings,
+                currencyState
+        )
+        subject.initView(activity)
+        subject.selectedAddress = "1ATy3ktyaYjzZZQQnhvPsuBVheUDYcUP7V"
+        val bitmap: Bitmap = mock()
+        whenever(qrCodeDataManager.generateQrCode(anyString(), anyInt()))
+                .thenReturn(Observable.just(bitmap))
+        // Act
+        subject.onBitcoinAmountChanged("1")
+        testScheduler.advanceTimeBy(300, TimeUnit.MILLISECONDS)
+        // Assert
+        verify(activity, never()).showQrLoading()
+        verify(activity, never()).showQrCode(bitmap)
+        mainScheduler.triggerActions()
+        verify(activity).showQrLoading()
+        verify(activity).showQrCode(bitmap)
+    }
+
     @Test
     @Throws(Exception::class)
     fun `getSelectedAccountPosition ETH`() {
@@ -68,13 +68,13 @@ class TradeInProgressPresenterTest : RxTest() {
     @Throws(Exception::class)
     fun `onViewReady error`() {
         // Arrange
-        whenever(shapeShiftDataManager.getTradeStatus(depositAddress))
+        whenever(shapeShiftDataManager.pollTradeStatus(depositAddress))
                 .thenReturn(Observable.error(Throwable()))
         // Act
         subject.onViewReady()
         testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
         // Assert
-        verify(shapeShiftDataManager).getTradeStatus(depositAddress)
+        verify(shapeShiftDataManager).pollTradeStatus(depositAddress)
         verifyNoMoreInteractions(shapeShiftDataManager)
         verify(view).depositAddress
         verify(view).updateUi(noDepositState)
@@ -86,13 +86,13 @@ class TradeInProgressPresenterTest : RxTest() {
     fun `onViewReady no deposit`() {
         // Arrange
         val response = TradeStatusResponse().apply { setStatus(Trade.STATUS.NO_DEPOSITS.name) }
-        whenever(shapeShiftDataManager.getTradeStatus(depositAddress))
+        whenever(shapeShiftDataManager.pollTradeStatus(depositAddress))
                 .thenReturn(Observable.just(response))
         // Act
         subject.onViewReady()
         testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
         // Assert
-        verify(shapeShiftDataManager).getTradeStatus(depositAddress)
+        verify(shapeShiftDataManager).pollTradeStatus(depositAddress)
         verifyNoMoreInteractions(shapeShiftDataManager)
         verify(view).depositAddress
         verify(view, times(2)).updateUi(noDepositState)
@@ -104,13 +104,13 @@ class TradeInProgressPresenterTest : RxTest() {
     fun `onViewReady received`() {
         // Arrange
         val response = TradeStatusResponse().apply { setStatus(Trade.STATUS.RECEIVED.name) }
-        whenever(shapeShiftDataManager.getTradeStatus(depositAddress))
+        whenever(shapeShiftDataManager.pollTradeStatus(depositAddress))
                 .thenReturn(Observable.just(response))
         // Act
         subject.onViewReady()
         testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
         // Assert
-        verify(shapeShiftDataManager).getTradeStatus(depositAddress)
+        verify(shapeShiftDataManager).pollTradeStatus(depositAddress)
         verifyNoMoreInteractions(shapeShiftDataManager)
         verify(view).depositAddress
         verify(view).updateUi(noDepositState)
@@ -128,7 +128,7 @@ class TradeInProgressPresenterTest : RxTest() {
             this.address = depositAddress
             this.transaction = hashOut
         }
-        whenever(shapeShiftDataManager.getTradeStatus(depositAddress))
+        whenever(shapeShiftDataManager.pollTradeStatus(depositAddress))
                 .thenReturn(Observable.just(response))
         val trade = Trade()
         whenever(shapeShiftDataManager.findTrade(depositAddress)).thenReturn(Single.just(trade))
@@ -137,7 +137,7 @@ class TradeInProgressPresenterTest : RxTest() {
         subject.onViewReady()
         testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
         // Assert
-        verify(shapeShiftDataManager).getTradeStatus(depositAddress)
+        verify(shapeShiftDataManager).pollTradeStatus(depositAddress)
         verify(shapeShiftDataManager).findTrade(depositAddress)
         verify(shapeShiftDataManager).updateTrade(trade)
         trade.status `should equal` Trade.STATUS.COMPLETE
@@ -159,7 +159,7 @@ class TradeInProgressPresenterTest : RxTest() {
             this.address = depositAddress
             this.transaction = hashOut
         }
-        whenever(shapeShiftDataManager.getTradeStatus(depositAddress))
+        whenever(shapeShiftDataManager.pollTradeStatus(depositAddress))
                 .thenReturn(Observable.just(response))
         val trade = Trade()
         whenever(shapeShiftDataManager.findTrade(depositAddress)).thenReturn(Single.just(trade))
@@ -168,7 +168,7 @@ class TradeInProgressPresenterTest : RxTest() {
         subject.onViewReady()
         testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
         // Assert
-        verify(shapeShiftDataManager).getTradeStatus(depositAddress)
+        verify(shapeShiftDataManager).pollTradeStatus(depositAddress)
         verify(shapeShiftDataManager).findTrade(depositAddress)
         verify(shapeShiftDataManager).updateTrade(trade)
         trade.status `should equal` Trade.STATUS.FAILED
@@ -190,7 +190,7 @@ class TradeInProgressPresenterTest : RxTest() {
             this.address = depositAddress
             this.transaction = hashOut
         }
-        whenever(shapeShiftDataManager.getTradeStatus(depositAddress))
+        whenever(shapeShiftDataManager.pollTradeStatus(depositAddress))
                 .thenReturn(Observable.just(response))
         val trade = Trade()
         whenever(shapeShiftDataManager.findTrade(depositAddress)).thenReturn(Single.just(trade))
@@ -199,7 +199,7 @@ class TradeInProgressPresenterTest : RxTest() {
         subject.onViewReady()
         testScheduler.advanceTimeBy(10, TimeUnit.SECONDS)
         // Assert
-        verify(shapeShiftDataManager).getTradeStatus(depositAddress)
+        verify(shapeShiftDataManager).pollTradeStatus(depositAddress)
         verify(shapeShiftDataManager).findTrade(depositAddress)
         verify(shapeShiftDataManager).updateTrade(trade)
         trade.status `should equal` Trade.STATUS.RESOLVED
@@ -11,9 +11,11 @@ import org.junit.Before
 import org.junit.Test
 import org.mockito.ArgumentMatchers.anyInt
 import org.mockito.ArgumentMatchers.anyList
+import org.mockito.ArgumentMatchers.anyString
 import org.mockito.ArgumentMatchers.eq
 import org.mockito.Mockito
 import org.mockito.Mockito.atLeastOnce
+import org.mockito.Mockito.never
 import org.mockito.Mockito.times
 import org.mockito.Mockito.verify
 import piuk.blockchain.android.R
@@ -23,10 +25,14 @@ import piuk.blockchain.android.data.payload.PayloadDataManager
 import piuk.blockchain.android.ui.swipetoreceive.SwipeToReceiveHelper.Companion.KEY_SWIPE_RECEIVE_ACCOUNT_NAME
 import piuk.blockchain.android.ui.swipetoreceive.SwipeToReceiveHelper.Companion.KEY_SWIPE_RECEIVE_ADDRESSES
 import piuk.blockchain.android.ui.swipetoreceive.SwipeToReceiveHelper.Companion.KEY_SWIPE_RECEIVE_ETH_ADDRESS
+import piuk.blockchain.android.ui.swipetoreceive.SwipeToReceiveHelper.Companion.KEY_SWIPE_RECEIVE_USED_ADDRESSES
+import piuk.blockchain.android.ui.swipetoreceive.SwipeToReceiveHelper.Companion.KEY_SWIPE_RECEIVE_VERIFIED_AT
+import piuk.blockchain.android.ui.swipetoreceive.SwipeToReceiveHelper.Companion.KEY_SWIPE_RECEIVE_XPUB
 import piuk.blockchain.android.util.PrefsUtil
 import piuk.blockchain.android.util.StringUtils
 import java.math.BigInteger
 import java.util.*
+import java.util.concurrent.TimeUnit
 
 class SwipeToReceiveHelperTest : RxTest() {
 
@@ -41,7 +47,14 @@ class SwipeToReceiveHelperTest : RxTest() {
     override fun setUp() {
         super.setUp()
 
-        subject = SwipeToReceiveHelper(payloadDataManager, prefsUtil, ethDataManager, stringUtils)
+        subject = SwipeToReceiveHelper(
+                payloadDataManager,
+                prefsUtil,
+                ethDataManager,
+                stringUtils,
+                POOL_SIZE,
+                MAX_UNVERIFIED_AGE
+        )
     }
 
     @Test
@@ -53,6 +66,7 @@ class SwipeToReceiveHelperTest : RxTest() {
         val mockAccount: Account = mock()
         whenever(payloadDataManager.defaultAccount).thenReturn(mockAccount)
         whenever(mockAccount.label).thenReturn("Account")
+        whenever(mockAccount.xpub).thenReturn("xpub")
         whenever(payloadDataManager.getReceiveAddressAtPosition(eq(mockAccount), anyInt()))
                 .thenReturn("address")
         // Act
@@ -61,9 +75,69 @@ class SwipeToReceiveHelperTest : RxTest() {
         verify(prefsUtil).getValue(PrefsUtil.KEY_SWIPE_TO_RECEIVE_ENABLED, true)
         verify(payloadDataManager, times(5)).getReceiveAddressAtPosition(eq(mockAccount), anyInt())
         verify(prefsUtil).setValue(KEY_SWIPE_RECEIVE_ACCOUNT_NAME, "Account")
+        verify(prefsUtil).setValue(KEY_SWIPE_RECEIVE_XPUB, "xpub")
         verify(prefsUtil).setValue(KEY_SWIPE_RECEIVE_ADDRESSES, "address,address,address,address,address,")
     }
 
+    @Test
+    @Throws(Exception::class)
+    fun `updateAndStoreBitcoinAddresses only derives addresses past the stored pool`() {
+        // Arrange
+        whenever(prefsUtil.getValue(PrefsUtil.KEY_SWIPE_TO_RECEIVE_ENABLED, true))
+                .thenReturn(true)
+        val mockAccount: Account = mock()
+        whenever(payloadDataManager.defaultAccount).thenReturn(mockAccount)
+        whenever(mockAccount.label).thenReturn("Account")
+        whenever(mockAccount.xpub).thenReturn("xpub")
+        whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_XPUB, "")).thenReturn("xpub")
+        whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_ADDRESSES, ""))
+                .thenReturn("addr0,addr1,addr2,addr3,addr4,")
+        whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_USED_ADDRESSES, ""))
+                .thenReturn("addr1,addr3,")
+        whenever(payloadDataManager.getReceiveAddressAtPosition(mockAccount, 0)).thenReturn("addr2")
+        whenever(payloadDataManager.getReceiveAddressAtPosition(mockAccount, 3)).thenReturn("addr5")
+        whenever(payloadDataManager.getReceiveAddressAtPosition(mockAccount, 4)).thenReturn("addr6")
+        // Act
+        subject.updateAndStoreBitcoinAddresses()
+        // Assert
+        verify(payloadDataManager, times(3)).getReceiveAddressAtPosition(eq(mockAccount), anyInt())
+        verify(prefsUtil).setValue(KEY_SWIPE_RECEIVE_ADDRESSES, "addr2,addr3,addr4,addr5,addr6,")
+        verify(prefsUtil).setValue(KEY_SWIPE_RECEIVE_USED_ADDRESSES, "addr3,")
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `getNextAvailableAddressSingle skips balance check when recently verified`() {
+        // Arrange
+        whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_ADDRESSES, ""))
+                .thenReturn("addr0,addr1,addr2,addr3,addr4,")
+        whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_USED_ADDRESSES, ""))
+                .thenReturn("addr0,addr1,")
+        testScheduler.advanceTimeBy(MAX_UNVERIFIED_AGE, TimeUnit.MILLISECONDS)
+        whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_VERIFIED_AT, 0L)).thenReturn(1L)
+        // Act
+        val testObserver = subject.getNextAvailableBitcoinAddressSingle().test()
+        // Assert
+        testObserver.assertValue("addr2")
+        verify(payloadDataManager, never()).getBalanceOfAddresses(anyList())
+    }
+
+    @Test
+    @Throws(Exception::class)
+    fun `markBitcoinAddressUsed stores addresses from the pool`() {
+        // Arrange
+        whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_ADDRESSES, ""))
+                .thenReturn("addr0,addr1,")
+        whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_USED_ADDRESSES, ""))
+                .thenReturn("addr0,")
+        // Act
+        subject.markBitcoinAddressUsed("addr1")
+        subject.markBitcoinAddressUsed("unknown")
+        // Assert
+        verify(prefsUtil).setValue(KEY_SWIPE_RECEIVE_USED_ADDRESSES, "addr0,addr1,")
+        verify(prefsUtil, times(1)).setValue(eq(KEY_SWIPE_RECEIVE_USED_ADDRESSES), anyString())
+    }
+
     @Test
     @Throws(Exception::class)
     fun storeEthAddress() {
@@ -97,7 +171,8 @@ class SwipeToReceiveHelperTest : RxTest() {
         whenever(payloadDataManager.getBalanceOfAddresses(anyList()))
                 .thenReturn(Observable.just(map))
         whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_ADDRESSES, ""))
-                .thenReturn("addr0, addr1, addr2, addr3, addr4")
+                .thenReturn("addr0,addr1,addr2,addr3,addr4,")
+        testScheduler.advanceTimeBy(MAX_UNVERIFIED_AGE + 1, TimeUnit.MILLISECONDS)
         // Act
         val testObserver = subject.getNextAvailableBitcoinAddressSingle().test()
         // Assert
@@ -124,7 +199,8 @@ class SwipeToReceiveHelperTest : RxTest() {
         whenever(payloadDataManager.getBalanceOfAddresses(anyList()))
                 .thenReturn(Observable.just(map))
         whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_ADDRESSES, ""))
-                .thenReturn("addr0, addr1, addr2, addr3, addr4")
+                .thenReturn("addr0,addr1,addr2,addr3,addr4,")
+        testScheduler.advanceTimeBy(MAX_UNVERIFIED_AGE + 1, TimeUnit.MILLISECONDS)
         // Act
         val testObserver = subject.getNextAvailableBitcoinAddressSingle().test()
         // Assert
@@ -153,7 +229,7 @@ class SwipeToReceiveHelperTest : RxTest() {
     fun getBitcoinReceiveAddresses() {
         // Arrange
         whenever(prefsUtil.getValue(KEY_SWIPE_RECEIVE_ADDRESSES, ""))
-                .thenReturn("addr0, addr1, addr2, addr3, addr4")
+                .thenReturn("addr0,addr1,addr2,addr3,addr4,")
         // Act
         val result = subject.getBitcoinReceiveAddresses()
         // Assert
@@ -210,4 +286,11 @@ class SwipeToReceiveHelperTest : RxTest() {
         result `should equal` label
     }
 
-}
\ No newline at end of file
+    companion object {
+
+        private const val POOL_SIZE = 5
+        private const val MAX_UNVERIFIED_AGE = 1000L
+
+    }
+
+}
@@ -13,7 +13,6 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.math.BigInteger;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Locale;
 
@@ -49,7 +48,6 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static piuk.blockchain.android.ui.balance.BalanceFragment.KEY_TRANSACTION_HASH;
-import static piuk.blockchain.android.ui.balance.BalanceFragment.KEY_TRANSACTION_LIST_POSITION;
 
 @SuppressWarnings("WeakerAccess")
 public class TransactionDetailPresenterTest extends RxTest {
@@ -101,22 +99,7 @@ public class TransactionDetailPresenterTest extends RxTest {
     public void onViewReadyNoKey() throws Exception {
         // Arrange
         Intent mockIntent = mock(Intent.class);
-        when(mockIntent.hasExtra(KEY_TRANSACTION_LIST_POSITION)).thenReturn(false);
-        when(activity.getPageIntent()).thenReturn(mockIntent);
-        // Act
-        subject.onViewReady();
-        // Assert
-        verify(activity).getPageIntent();
-        verify(activity).pageFinish();
-        verifyNoMoreInteractions(activity);
-    }
-
-    @Test
-    public void onViewReadyKeyOutOfBounds() throws Exception {
-        // Arrange
-        Intent mockIntent = mock(Intent.class);
-        when(mockIntent.hasExtra(KEY_TRANSACTION_LIST_POSITION)).thenReturn(true);
-        when(mockIntent.getIntExtra(KEY_TRANSACTION_LIST_POSITION, -1)).thenReturn(-1);
+        when(mockIntent.hasExtra(KEY_TRANSACTION_HASH)).thenReturn(false);
         when(activity.getPageIntent()).thenReturn(mockIntent);
         // Act
         subject.onViewReady();
@@ -138,25 +121,12 @@ public class TransactionDetailPresenterTest extends RxTest {
         verifyNoMoreInteractions(activity);
     }
 
-    @Test
-    public void onViewReadyIntentPositionInvalid() throws Exception {
-        // Arrange
-        Intent intent = mock(Intent.class);
-        when(intent.getIntExtra(KEY_TRANSACTION_LIST_POSITION, -1)).thenReturn(-1);
-        when(activity.getPageIntent()).thenReturn(intent);
-        // Act
-        subject.onViewReady();
-        // Assert
-        verify(activity).getPageIntent();
-        verify(activity).pageFinish();
-        verifyNoMoreInteractions(activity);
-    }
-
     @Test
     public void onViewReadyIntentHashNotFound() throws Exception {
         // Arrange
         Intent intent = mock(Intent.class);
         String txHash = "TX_HASH";
+        when(intent.hasExtra(KEY_TRANSACTION_HASH)).thenReturn(true);
         when(intent.getStringExtra(KEY_TRANSACTION_HASH)).thenReturn(txHash);
         when(activity.getPageIntent()).thenReturn(intent);
         when(transactionListDataManager.getTxFromHash(txHash))
@@ -169,76 +139,6 @@ public class TransactionDetailPresenterTest extends RxTest {
         verifyNoMoreInteractions(activity);
     }
 
-    @SuppressWarnings("unchecked")
-    @Test
-    public void onViewReadyTransactionFoundInList() throws Exception {
-        // Arrange
-        Displayable displayableToFind = mock(BtcDisplayable.class);
-        when(displayableToFind.getCryptoCurrency()).thenReturn(CryptoCurrencies.BTC);
-        when(displayableToFind.getDirection()).thenReturn(TransactionSummary.Direction.TRANSFERRED);
-        when(displayableToFind.getHash()).thenReturn("txMoved_hash");
-        when(displayableToFind.getTotal()).thenReturn(BigInteger.valueOf(1_000L));
-        when(displayableToFind.getFee()).thenReturn(BigInteger.valueOf(1L));
-
-        Displayable displayable2 = mock(BtcDisplayable.class);
-        when(displayable2.getHash()).thenReturn("");
-
-        Displayable displayable3 = mock(BtcDisplayable.class);
-        when(displayable3.getHash()).thenReturn("");
-
-        Intent mockIntent = mock(Intent.class);
-        Wallet mockPayload = mock(Wallet.class);
-        when(mockIntent.hasExtra(KEY_TRANSACTION_LIST_POSITION)).thenReturn(true);
-        when(mockIntent.getIntExtra(KEY_TRANSACTION_LIST_POSITION, -1)).thenReturn(0);
-        when(mockPayload.getTxNotes()).thenReturn(new HashMap<>());
-        when(activity.getPageIntent()).thenReturn(mockIntent);
-        when(payloadDataManager.getWallet()).thenReturn(mockPayload);
-        when(transactionListDataManager.getTransactionList())
-                .thenReturn(Arrays.asList(displayableToFind, displayable2, displayable3));
-        when(stringUtils.getString(R.string.transaction_detail_pending))
-                .thenReturn("Pending (%1$s/%2$s Confirmations)");
-        HashMap<String, BigInteger> inputs = new HashMap<>();
-        HashMap<String, BigInteger> outputs = new HashMap<>();
-        inputs.put("addr1", BigInteger.valueOf(1000L));
-        outputs.put("addr2", BigInteger.valueOf(2000L));
-        Pair pair = Pair.of(inputs, outputs);
-        when(transactionHelper.filterNonChangeAddresses(any(Displayable.class))).thenReturn(pair);
-        when(payloadDataManager.addressToLabel("addr1")).thenReturn("account1");
-        when(payloadDataManager.addressToLabel("addr2")).thenReturn("account2");
-        double price = 1000.00D;
-        when(exchangeRateFactory.getBtcHistoricPrice(anyLong(), anyString(), anyLong()))
-                .thenReturn(Observable.just(price));
-        when(stringUtils.getString(R.string.transaction_detail_value_at_time_transferred))
-                .thenReturn("Value when moved: ");
-        when(exchangeRateFactory.getSymbol(anyString())).thenReturn("$");
-        HashMap<String, ContactTransactionDisplayModel> notesMap = new HashMap<>();
-        notesMap.put("txMoved_hash", new ContactTransactionDisplayModel(
-                "",
-                "",
-                "transaction_note",
-                ""
-        ));
-        when(contactsDataManager.getTransactionDisplayMap()).thenReturn(notesMap);
-        // Act
-        subject.onViewReady();
-        // Assert
-        verify(activity).getPageIntent();
-        verify(activity).setStatus(CryptoCurrencies.BTC, "Pending (0/3 Confirmations)", "txMoved_hash");
-        verify(activity).setTransactionType(TransactionSummary.Direction.TRANSFERRED);
-        verify(activity).setTransactionColour(R.color.product_gray_transferred_50);
-        verify(activity).setDescription(null);
-        verify(activity).setDate(anyString());
-        verify(activity).setToAddresses(any());
-        verify(activity).setFromAddress(any());
-        verify(activity).setFee(anyString());
-        verify(activity).setTransactionValueBtc(anyString());
-        verify(activity).setTransactionValueFiat(anyString());
-        verify(activity).setTransactionNote(anyString());
-        verify(activity).onDataLoaded();
-        verify(activity).setIsDoubleSpend(anyBoolean());
-        verifyNoMoreInteractions(activity);
-    }
-
     @SuppressWarnings("unchecked")
     @Test
     public void onViewReadyTransactionFoundViaHash() throws Exception {
@@ -0,0 +1,57 @@
+package piuk.blockchain.android.ui.zxing
+
+import org.amshove.kluent.`should equal`
+import org.junit.Test
+
+class RotationUtilTest {
+
+    // A 3x2 frame:
+    // 0 1 2
+    // 3 4 5
+    private val frame = byteArrayOf(0, 1, 2, 3, 4, 5)
+
+    @Test
+    fun `rotateAndCrop should copy rows when not rotated`() {
+        // Arrange
+        val out = ByteArray(4)
+        // Act
+        RotationUtil.rotateAndCrop(frame, 3, 2, 0, 1, 0, 2, 2, out)
+        // Assert
+        out.toList() `should equal` listOf<Byte>(1, 2, 4, 5)
+    }
+
+    @Test
+    fun `rotateAndCrop should rotate full frame`() {
+        // Arrange
+        val out90 = ByteArray(6)
+        val out180 = ByteArray(6)
+        val out270 = ByteArray(6)
+        // Act
+        RotationUtil.rotateAndCrop(frame, 3, 2, 90, 0, 0, 2, 3, out90)
+        RotationUtil.rotateAndCrop(frame, 3, 2, 180, 0, 0, 3, 2, out180)
+        RotationUtil.rotateAndCrop(frame, 3, 2, 270, 0, 0, 2, 3, out270)
+        // Assert
+        out90.toList() `should equal` listOf<Byte>(3, 0, 4, 1, 5, 2)
+        out180.toList() `should equal` listOf<Byte>(5, 4, 3, 2, 1, 0)
+        out270.toList() `should equal` listOf<Byte>(2, 5, 1, 4, 0, 3)
+    }
+
+    @Test
+    fun `rotateAndCrop should only read cropped region after rotation`() {
+        // Arrange
+        val out = ByteArray(2)
+        // Act
+        RotationUtil.rotateAndCrop(frame, 3, 2, 90, 1, 1, 1, 2, out)
+        // Assert
+        out.toList() `should equal` listOf<Byte>(1, 2)
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun `rotateAndCrop should throw if crop is outside rotated frame`() {
+        // Arrange
+        val out = ByteArray(6)
+        // Act
+        RotationUtil.rotateAndCrop(frame, 3, 2, 90, 0, 0, 3, 2, out)
+    }
+
+}
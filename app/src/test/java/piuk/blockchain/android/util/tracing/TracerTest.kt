@@ -0,0 +1,121 @@
+package piuk.blockchain.android.util.tracing
+
+import io.reactivex.Observable
+import org.amshove.kluent.`should be`
+import org.amshove.kluent.`should equal to`
+import org.amshove.kluent.`should equal`
+import org.junit.After
+import org.junit.Before
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+import java.io.File
+
+class TracerTest {
+
+    @Rule @JvmField val folder = TemporaryFolder()
+
+    @Before
+    fun setUp() {
+        Tracer.reset()
+    }
+
+    @After
+    fun tearDown() {
+        Tracer.reset()
+    }
+
+    @Test
+    fun `spans should be nested under the open span on the same thread`() {
+        // Arrange
+        val outer = Tracer.begin("outer")
+        val inner = Tracer.begin("inner")
+        // Act
+        Tracer.end(inner)
+        val sibling = Tracer.begin("sibling")
+        Tracer.end(sibling)
+        Tracer.end(outer)
+        // Assert
+        val spans = Tracer.getSpans()
+        spans.map { it.name } `should equal` listOf("inner", "sibling", "outer")
+        spans[0].parentId `should equal to` outer
+        spans[1].parentId `should equal to` outer
+        spans[2].parentId `should equal to` 0
+    }
+
+    @Test
+    fun `ending a span twice should only record it once`() {
+        // Arrange
+        val id = Tracer.begin("span")
+        // Act
+        Tracer.end(id)
+        Tracer.end(id)
+        // Assert
+        Tracer.getSpans().size `should equal to` 1
+    }
+
+    @Test
+    fun `buffer should keep only the most recent spans`() {
+        // Arrange
+        // Act
+        (0 until 300).forEach { Tracer.end(Tracer.begin("span$it")) }
+        // Assert
+        val spans = Tracer.getSpans()
+        spans.size `should equal to` 256
+        spans.first().name `should equal` "span44"
+        spans.last().name `should equal` "span299"
+    }
+
+    @Test
+    fun `trace should end span when observable completes`() {
+        // Arrange
+        val outer = Tracer.begin("outer")
+        val observable = Tracer.trace("observable", Observable.just(1))
+        // Act
+        observable.test().assertComplete()
+        Tracer.end(outer)
+        // Assert
+        val span = Tracer.getSpans().first()
+        span.name `should equal` "observable"
+        span.parentId `should equal to` outer
+    }
+
+    @Test
+    fun `finishLaunch should record launch span once and skip export without a file`() {
+        // Arrange
+        Tracer.startLaunch(null)
+        // Act
+        Tracer.finishLaunch()
+        Tracer.finishLaunch()
+        // Assert
+        Tracer.getSpans().map { it.name } `should equal` listOf("launch")
+        folder.root.listFiles().isEmpty() `should be` true
+    }
+
+    @Test
+    fun `discardLaunch should drop launch span`() {
+        // Arrange
+        Tracer.startLaunch(File(folder.root, "trace.json"))
+        // Act
+        Tracer.discardLaunch()
+        Tracer.finishLaunch()
+        // Assert
+        Tracer.getSpans().isEmpty() `should be` true
+        File(folder.root, "trace.json").exists() `should be` false
+    }
+
+    @Test
+    fun `exportTo should write spans as trace events`() {
+        // Arrange
+        Tracer.end(Tracer.begin("dagger"))
+        val file = File(folder.root, "trace.json")
+        // Act
+        Tracer.exportTo(file)
+        // Assert
+        file.exists() `should be` true
+        val json = file.readText()
+        json.contains("\"name\":\"dagger\"") `should be` true
+        json.contains("\"ph\":\"X\"") `should be` true
+    }
+
+}